@@ -0,0 +1,619 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link DataBuffer} that presents the readable bytes of several buffers as a
+ * single buffer, without copying them. Constructed using
+ * {@link DefaultDataBufferFactory#compose(List)}, and used by
+ * {@link DataBufferUtils#join(org.reactivestreams.Publisher)} so that decoders
+ * can read an aggregated payload without consolidating it first.
+ *
+ * <p>The composite takes over the component buffers, and releases them when
+ * its own reference count reaches zero. Writing beyond the capacity adds a new
+ * component rather than copying the existing ones. Note that
+ * {@link #asByteBuffer(int, int)} can only share data when the requested range
+ * lies within a single component; otherwise the data is copied.
+ *
+ * @since 5.3.2
+ * @see DefaultDataBufferFactory#compose(List)
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_COMPONENT_CAPACITY = DefaultDataBufferFactory.DEFAULT_INITIAL_CAPACITY;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	/** The buffers to release, empty for slices. */
+	private final List<DataBuffer> components;
+
+	/** The root composite for slices, sharing its reference count. */
+	@Nullable
+	private final CompositeDataBuffer parent;
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	/** Views of the non-empty component regions, with position 0. */
+	private ByteBuffer[] views;
+
+	/** The index in this buffer at which each view starts. */
+	private int[] offsets;
+
+	private int viewCount;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = new ArrayList<>(dataBuffers);
+		this.parent = null;
+		this.views = new ByteBuffer[dataBuffers.size() + 1];
+		this.offsets = new int[dataBuffers.size() + 1];
+		for (DataBuffer dataBuffer : dataBuffers) {
+			addView(dataBuffer.asByteBuffer());
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(CompositeDataBuffer parent, ByteBuffer[] views) {
+		this.dataBufferFactory = parent.dataBufferFactory;
+		this.components = new ArrayList<>(0);
+		this.parent = (parent.parent != null ? parent.parent : parent);
+		this.views = new ByteBuffer[views.length];
+		this.offsets = new int[views.length];
+		for (ByteBuffer view : views) {
+			addView(view);
+		}
+		this.writePosition = this.capacity;
+	}
+
+
+	/**
+	 * Return the number of buffers that this composite is made of.
+	 */
+	public int getComponentCount() {
+		return this.viewCount;
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		int index = fromIndex;
+		for (int i = viewIndex(fromIndex); i < this.viewCount && index < this.writePosition; i++) {
+			ByteBuffer view = this.views[i];
+			int end = Math.min(view.limit(), this.writePosition - this.offsets[i]);
+			for (int j = index - this.offsets[i]; j < end; j++, index++) {
+				if (predicate.test(view.get(j))) {
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		int index = Math.min(fromIndex, this.writePosition - 1);
+		if (index < 0) {
+			return -1;
+		}
+		for (int i = viewIndex(index); i >= 0; i--) {
+			ByteBuffer view = this.views[i];
+			for (int j = index - this.offsets[i]; j >= 0; j--, index--) {
+				if (predicate.test(view.get(j))) {
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>A composite buffer can only be expanded, by adding a new component.
+	 */
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		if (newCapacity <= 0) {
+			throw new IllegalArgumentException(String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		}
+		if (newCapacity < this.capacity) {
+			throw new UnsupportedOperationException("Reducing the capacity of a composite buffer is not supported");
+		}
+		if (newCapacity > this.capacity) {
+			addComponent(newCapacity - this.capacity);
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer ensureCapacity(int length) {
+		int writable = writableByteCount();
+		if (length > writable) {
+			addComponent(Math.max(length - writable, MIN_COMPONENT_CAPACITY));
+		}
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		int i = viewIndex(index);
+		return this.views[i].get(index - this.offsets[i]);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+
+		int index = this.readPosition;
+		while (length > 0) {
+			int i = viewIndex(index);
+			ByteBuffer view = this.views[i].duplicate();
+			int viewIndex = index - this.offsets[i];
+			int count = Math.min(length, view.limit() - viewIndex);
+			((Buffer) view).position(viewIndex);
+			view.get(destination, offset, count);
+			index += count;
+			offset += count;
+			length -= count;
+		}
+		this.readPosition = index;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		int i = viewIndex(this.writePosition);
+		this.views[i].put(this.writePosition - this.offsets[i], b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "Byte array must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "Byte array must not be null");
+		ensureCapacity(length);
+		writeInternal(ByteBuffer.wrap(source, offset, length));
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			write(Arrays.stream(buffers).map(DataBuffer::asByteBuffer).toArray(ByteBuffer[]::new));
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			int length = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
+			ensureCapacity(length);
+			for (ByteBuffer source : buffers) {
+				writeInternal(source.duplicate());
+			}
+		}
+		return this;
+	}
+
+	private void writeInternal(ByteBuffer source) {
+		while (source.hasRemaining()) {
+			int i = viewIndex(this.writePosition);
+			ByteBuffer view = this.views[i].duplicate();
+			int viewIndex = this.writePosition - this.offsets[i];
+			int count = Math.min(source.remaining(), view.limit() - viewIndex);
+			ByteBuffer chunk = source.duplicate();
+			((Buffer) chunk).limit(chunk.position() + count);
+			((Buffer) view).position(viewIndex);
+			view.put(chunk);
+			((Buffer) source).position(source.position() + count);
+			this.writePosition += count;
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer write(CharSequence charSequence, Charset charset) {
+		Assert.notNull(charSequence, "CharSequence must not be null");
+		Assert.notNull(charset, "Charset must not be null");
+		if (charSequence.length() > 0) {
+			ByteBuffer encoded = charset.encode(CharBuffer.wrap(charSequence));
+			ensureCapacity(encoded.remaining());
+			writeInternal(encoded);
+		}
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned slice shares the reference count of this buffer.
+	 */
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		return new CompositeDataBuffer(this, regionViews(index, length));
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] regionViews = regionViews(index, length);
+		if (regionViews.length == 1) {
+			return regionViews[0];
+		}
+		ByteBuffer result = ByteBuffer.allocate(length);
+		for (ByteBuffer view : regionViews) {
+			result.put(view);
+		}
+		((Buffer) result).flip();
+		return result;
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation decodes the components one after the other,
+	 * without copying them into a single array first.
+	 */
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		checkIndex(index, length);
+		Assert.notNull(charset, "Charset must not be null");
+		if (length == 0) {
+			return "";
+		}
+		CharsetDecoder decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		CharBuffer out = CharBuffer.allocate((int) (length * (double) decoder.maxCharsPerByte()) + 1);
+		// Holds the bytes of a character that is split across components
+		ByteBuffer carry = ByteBuffer.allocate(16);
+		for (ByteBuffer in : regionViews(index, length)) {
+			while (carry.position() > 0 && in.hasRemaining()) {
+				carry.put(in.get());
+				((Buffer) carry).flip();
+				decoder.decode(carry, out, false);
+				carry.compact();
+			}
+			decoder.decode(in, out, false);
+			carry.put(in);
+		}
+		((Buffer) carry).flip();
+		decoder.decode(carry, out, true);
+		decoder.flush(out);
+		((Buffer) out).flip();
+		return out.toString();
+	}
+
+	@Override
+	public boolean isAllocated() {
+		return (this.parent != null ? this.parent.isAllocated() : this.refCount.get() > 0);
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		if (this.parent != null) {
+			this.parent.retain();
+			return this;
+		}
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Cannot retain buffer that has already been released: " + this);
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count + 1));
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer touch(Object hint) {
+		if (this.parent != null) {
+			this.parent.touch(hint);
+			return this;
+		}
+		for (DataBuffer component : this.components) {
+			DataBufferUtils.touch(component, hint);
+		}
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		if (this.parent != null) {
+			return this.parent.release();
+		}
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released: " + this);
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count - 1));
+
+		if (count == 1) {
+			for (DataBuffer component : this.components) {
+				DataBufferUtils.release(component);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, components: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.viewCount);
+	}
+
+
+	private void addComponent(int capacity) {
+		if (this.parent != null) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+		DataBuffer component = this.dataBufferFactory.allocateBuffer(capacity);
+		this.components.add(component);
+		addView(component.asByteBuffer(0, component.capacity()));
+	}
+
+	private void addView(ByteBuffer byteBuffer) {
+		if (!byteBuffer.hasRemaining()) {
+			return;
+		}
+		if (this.viewCount == this.views.length) {
+			this.views = Arrays.copyOf(this.views, this.viewCount * 2);
+			this.offsets = Arrays.copyOf(this.offsets, this.viewCount * 2);
+		}
+		ByteBuffer view = byteBuffer.slice();
+		this.views[this.viewCount] = view;
+		this.offsets[this.viewCount] = this.capacity;
+		this.viewCount++;
+		this.capacity += view.remaining();
+	}
+
+	/**
+	 * Return the index of the view that contains the given index in this buffer.
+	 */
+	private int viewIndex(int index) {
+		int i = Arrays.binarySearch(this.offsets, 0, this.viewCount, index);
+		return (i >= 0 ? i : -i - 2);
+	}
+
+	/**
+	 * Return views of the given region, one per component that it spans.
+	 */
+	private ByteBuffer[] regionViews(int index, int length) {
+		if (length == 0) {
+			return new ByteBuffer[] {ByteBuffer.allocate(0)};
+		}
+		int first = viewIndex(index);
+		int last = viewIndex(index + length - 1);
+		ByteBuffer[] result = new ByteBuffer[last - first + 1];
+		for (int i = first; i <= last; i++) {
+			ByteBuffer view = this.views[i].duplicate();
+			int start = Math.max(index - this.offsets[i], 0);
+			int end = Math.min(index + length - this.offsets[i], view.limit());
+			((Buffer) view).limit(end);
+			((Buffer) view).position(start);
+			result[i - first] = view.slice();
+		}
+		return result;
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d plus length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose && !this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(CompositeDataBuffer.this);
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
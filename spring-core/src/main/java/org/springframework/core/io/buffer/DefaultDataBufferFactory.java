@@ -122,6 +122,23 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 		return result;
 	}
 
+	/**
+	 * Return a buffer composed of the given buffers without copying their
+	 * data, as opposed to {@link #join(List)}. The returned buffer takes over
+	 * the given buffers, and releases them when it is released itself.
+	 * @param dataBuffers the data buffers to be composed
+	 * @return a {@link CompositeDataBuffer}, or the given buffer if there is
+	 * only one
+	 * @since 5.3.2
+	 */
+	public DataBuffer compose(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		return new CompositeDataBuffer(this, dataBuffers);
+	}
+
 
 	@Override
 	public String toString() {
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link DefaultDataBuffer} with a reference count, whose native buffer is
+ * returned to its {@link PooledDefaultDataBufferFactory} once the count
+ * reaches zero. Constructed using the {@link PooledDefaultDataBufferFactory}.
+ *
+ * <p>Slices share the reference count of the buffer they were created from.
+ * If the capacity of a buffer changes after slices have been created, the
+ * replaced native buffer is only recycled once the buffer and its slices
+ * have been released.
+ * As with any pooled buffer, a buffer must not be used after it has been
+ * released.
+ *
+ * @since 5.3.2
+ * @see PooledDefaultDataBufferFactory
+ */
+public class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+	private final PooledDefaultDataBufferFactory dataBufferFactory;
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	/** The pooled native buffer that the current contents are a view of. */
+	private ByteBuffer pooledBuffer;
+
+	/** Whether slices or other views of the pooled native buffer were handed out. */
+	private volatile boolean viewsExposed;
+
+	/**
+	 * Pooled native buffers replaced by a capacity change while views of them
+	 * were still exposed, to be recycled once this buffer is released.
+	 */
+	@Nullable
+	private List<ByteBuffer> retiredPooledBuffers;
+
+	@Nullable
+	private PooledDefaultDataBufferFactory.LeakTracker leakTracker;
+
+
+	PooledDefaultDataBuffer(PooledDefaultDataBufferFactory dataBufferFactory, ByteBuffer pooledBuffer, int capacity) {
+		super(dataBufferFactory, view(pooledBuffer, capacity));
+		this.dataBufferFactory = dataBufferFactory;
+		this.pooledBuffer = pooledBuffer;
+	}
+
+	/**
+	 * Return a view of the given pooled buffer that is limited to the
+	 * requested capacity, since pooled buffers are rounded up to a size class.
+	 */
+	private static ByteBuffer view(ByteBuffer pooledBuffer, int capacity) {
+		ByteBuffer duplicate = pooledBuffer.duplicate();
+		duplicate.clear().limit(capacity);
+		return duplicate.slice();
+	}
+
+	void setLeakTracker(PooledDefaultDataBufferFactory.LeakTracker leakTracker) {
+		this.leakTracker = leakTracker;
+	}
+
+
+	@Override
+	public PooledDefaultDataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public boolean isAllocated() {
+		return (this.refCount.get() > 0);
+	}
+
+	@Override
+	public PooledDefaultDataBuffer retain() {
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Cannot retain buffer that has already been released: " + this);
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count + 1));
+		return this;
+	}
+
+	@Override
+	public PooledDefaultDataBuffer touch(Object hint) {
+		PooledDefaultDataBufferFactory.LeakTracker tracker = this.leakTracker;
+		if (tracker != null) {
+			tracker.touch(hint);
+		}
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released: " + this);
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count - 1));
+
+		if (count == 1) {
+			PooledDefaultDataBufferFactory.LeakTracker tracker = this.leakTracker;
+			if (tracker != null) {
+				tracker.close();
+				this.leakTracker = null;
+			}
+			this.dataBufferFactory.recycle(this.pooledBuffer);
+			List<ByteBuffer> retiredBuffers = this.retiredPooledBuffers;
+			if (retiredBuffers != null) {
+				this.retiredPooledBuffers = null;
+				retiredBuffers.forEach(this.dataBufferFactory::recycle);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public DefaultDataBuffer slice(int index, int length) {
+		this.viewsExposed = true;
+		ByteBuffer slice = super.slice(index, length).getNativeBuffer();
+		return new SlicedPooledDefaultDataBuffer(this, slice, length);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		this.viewsExposed = true;
+		return super.asByteBuffer(index, length);
+	}
+
+	/**
+	 * Change the capacity, recycling the replaced pooled native buffer right
+	 * away if no views of it were exposed, or once this buffer and all of its
+	 * slices have been released otherwise.
+	 */
+	@Override
+	public DefaultDataBuffer capacity(int newCapacity) {
+		ByteBuffer oldPooledBuffer = this.pooledBuffer;
+		super.capacity(newCapacity);
+		if (this.pooledBuffer != oldPooledBuffer) {
+			if (this.viewsExposed) {
+				if (this.retiredPooledBuffers == null) {
+					this.retiredPooledBuffers = new ArrayList<>(2);
+				}
+				this.retiredPooledBuffers.add(oldPooledBuffer);
+			}
+			else {
+				this.dataBufferFactory.recycle(oldPooledBuffer);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		InputStream inputStream = asInputStream();
+		return (releaseOnClose ? new ReleasingInputStream(inputStream) : inputStream);
+	}
+
+	@Override
+	ByteBuffer allocateNativeBuffer(int capacity, boolean direct) {
+		ByteBuffer pooledBuffer = this.dataBufferFactory.acquire(capacity);
+		this.pooledBuffer = pooledBuffer;
+		return view(pooledBuffer, capacity);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PooledDefaultDataBuffer (r: %d, w: %d, c: %d, refCnt: %d)",
+				readPosition(), writePosition(), capacity(), this.refCount.get());
+	}
+
+
+	/**
+	 * Slice that shares the reference count of its parent buffer.
+	 */
+	private static class SlicedPooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		SlicedPooledDefaultDataBuffer(PooledDefaultDataBuffer parent, ByteBuffer byteBuffer, int length) {
+			super(parent.factory(), byteBuffer);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public PooledDataBuffer touch(Object hint) {
+			this.parent.touch(hint);
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			ByteBuffer slice = super.slice(index, length).getNativeBuffer();
+			return new SlicedPooledDefaultDataBuffer(this.parent, slice, length);
+		}
+	}
+
+
+	/**
+	 * InputStream that releases the buffer when closed.
+	 */
+	private class ReleasingInputStream extends FilterInputStream {
+
+		private boolean closed;
+
+		ReleasingInputStream(InputStream inputStream) {
+			super(inputStream);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(PooledDefaultDataBuffer.this);
+			}
+		}
+	}
+
+}
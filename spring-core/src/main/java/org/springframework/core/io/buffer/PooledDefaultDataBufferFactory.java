@@ -0,0 +1,415 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that recycles the memory of
+ * released buffers, for runtimes that do not provide a pooled allocator of
+ * their own (i.e. Servlet containers and Undertow, as opposed to Netty).
+ *
+ * <p>Allocated buffers are {@link PooledDefaultDataBuffer PooledDataBuffers}
+ * backed by native buffers from power-of-two size classes, between
+ * {@link #DEFAULT_INITIAL_CAPACITY} and the configured maximum pooled
+ * capacity. Larger native buffers are allocated without pooling. Released
+ * buffers go to a small cache local to the releasing thread first, and to a
+ * bounded arena shared by all threads after that. Buffers must be released through
+ * {@link DataBufferUtils#release(DataBuffer)}, as with Netty; buffers that
+ * are never released are simply garbage collected, and can be reported
+ * through a {@link #setLeakListener LeakListener}.
+ *
+ * <p>Buffers created through {@code wrap} are backed by memory owned by the
+ * caller, and are therefore not pooled.
+ *
+ * <p>Applications that create this factory themselves, e.g. per web
+ * application within a shared Servlet container, should call
+ * {@link #dispose()} when shutting down.
+ *
+ * @since 5.3.2
+ * @see PooledDefaultDataBuffer
+ */
+public class PooledDefaultDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default number of buffers cached per thread and size class.
+	 */
+	public static final int DEFAULT_THREAD_CACHE_SIZE = 8;
+
+	/**
+	 * Only size classes up to this capacity are cached per thread, which
+	 * keeps the memory held by idle threads low.
+	 */
+	private static final int MAX_THREAD_CACHED_CAPACITY = 8 * 1024;
+
+	/**
+	 * The number of bytes retained per size class in the shared arena.
+	 */
+	private static final int ARENA_CAPACITY_PER_SIZE_CLASS = 4 * 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(PooledDefaultDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final int threadCacheSize;
+
+	private final SizeClassArena[] arenas;
+
+	private final ThreadLocal<ThreadCache> threadCache;
+
+	private volatile boolean disposed;
+
+	@Nullable
+	private volatile LeakListener leakListener;
+
+	private final ReferenceQueue<PooledDefaultDataBuffer> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory} with default settings,
+	 * using heap buffers.
+	 */
+	public PooledDefaultDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory}, indicating whether
+	 * direct buffers should be created by {@link #allocateBuffer()} and
+	 * {@link #allocateBuffer(int)}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDefaultDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_THREAD_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the capacity above which buffers are not pooled,
+	 * rounded up to a power of two
+	 * @param threadCacheSize the number of buffers to cache per thread and
+	 * size class, or 0 to use the shared arena only
+	 */
+	public PooledDefaultDataBufferFactory(boolean preferDirect, int maxPooledCapacity, int threadCacheSize) {
+		super(preferDirect);
+		Assert.isTrue(maxPooledCapacity >= DEFAULT_INITIAL_CAPACITY,
+				"'maxPooledCapacity' should be at least " + DEFAULT_INITIAL_CAPACITY);
+		Assert.isTrue(threadCacheSize >= 0, "'threadCacheSize' should not be negative");
+		this.preferDirect = preferDirect;
+		this.arenas = new SizeClassArena[sizeClassIndex(maxPooledCapacity) + 1];
+		for (int i = 0; i < this.arenas.length; i++) {
+			this.arenas[i] = new SizeClassArena(DEFAULT_INITIAL_CAPACITY << i);
+		}
+		this.maxPooledCapacity = this.arenas[this.arenas.length - 1].capacity;
+		this.threadCacheSize = threadCacheSize;
+		int sizeClasses = this.arenas.length;
+		this.threadCache = ThreadLocal.withInitial(() -> new ThreadCache(sizeClasses, threadCacheSize));
+	}
+
+
+	/**
+	 * Set a listener to notify of buffers that were garbage collected without
+	 * having been released. Setting a listener enables leak detection, which
+	 * tracks every allocated buffer and therefore adds some overhead.
+	 * <p>Leaks are detected on subsequent allocations.
+	 * @param leakListener the listener, or {@code null} to disable leak detection
+	 */
+	public void setLeakListener(@Nullable LeakListener leakListener) {
+		this.leakListener = leakListener;
+		if (leakListener == null) {
+			this.leakTrackers.clear();
+		}
+	}
+
+	/**
+	 * Return the configured {@link LeakListener}, if any.
+	 */
+	@Nullable
+	public LeakListener getLeakListener() {
+		return this.leakListener;
+	}
+
+	/**
+	 * Return the capacity above which buffers are not pooled.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+
+	/**
+	 * Dispose of the pooled memory: clear the shared arena and the cache of the
+	 * calling thread, and stop caching buffers per thread. To be called when the
+	 * factory is no longer needed, e.g. on shutdown of a web application, so
+	 * that container threads do not retain pooled buffers. Buffers allocated
+	 * afterwards are not pooled.
+	 */
+	public void dispose() {
+		this.disposed = true;
+		this.threadCache.remove();
+		for (SizeClassArena arena : this.arenas) {
+			arena.clear();
+		}
+	}
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		LeakListener listener = this.leakListener;
+		if (listener != null) {
+			reportLeaks(listener);
+		}
+		PooledDefaultDataBuffer buffer = new PooledDefaultDataBuffer(this, acquire(initialCapacity), initialCapacity);
+		if (listener != null) {
+			buffer.setLeakTracker(new LeakTracker(buffer, this.leakQueue, this.leakTrackers));
+		}
+		return buffer;
+	}
+
+	@Override
+	public String toString() {
+		return "PooledDefaultDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Take a native buffer of at least the given capacity from the pool,
+	 * or allocate a new one.
+	 */
+	ByteBuffer acquire(int capacity) {
+		if (capacity > this.maxPooledCapacity || this.disposed) {
+			return allocate(capacity);
+		}
+		int index = sizeClassIndex(capacity);
+		ByteBuffer byteBuffer = null;
+		if (isThreadCached(index)) {
+			byteBuffer = this.threadCache.get().poll(index);
+		}
+		if (byteBuffer == null) {
+			byteBuffer = this.arenas[index].poll();
+		}
+		return (byteBuffer != null ? byteBuffer : allocate(this.arenas[index].capacity));
+	}
+
+	/**
+	 * Return the given native buffer to the pool, if it has the capacity of a
+	 * size class, or drop it otherwise.
+	 */
+	void recycle(ByteBuffer byteBuffer) {
+		int capacity = byteBuffer.capacity();
+		if (this.disposed || capacity > this.maxPooledCapacity || byteBuffer.isDirect() != this.preferDirect ||
+				Integer.bitCount(capacity) != 1 || capacity < DEFAULT_INITIAL_CAPACITY) {
+			return;
+		}
+		byteBuffer.clear();
+		int index = sizeClassIndex(capacity);
+		if (isThreadCached(index) && this.threadCache.get().offer(index, byteBuffer)) {
+			return;
+		}
+		this.arenas[index].offer(byteBuffer);
+	}
+
+	private boolean isThreadCached(int index) {
+		return (this.threadCacheSize > 0 && this.arenas[index].capacity <= MAX_THREAD_CACHED_CAPACITY);
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private void reportLeaks(LeakListener listener) {
+		LeakTracker tracker;
+		while ((tracker = (LeakTracker) this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(tracker)) {
+				try {
+					listener.leakDetected(tracker.capacity, tracker.hint);
+				}
+				catch (Throwable ex) {
+					logger.warn("LeakListener failed for leaked buffer", ex);
+				}
+			}
+		}
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= DEFAULT_INITIAL_CAPACITY) {
+			return 0;
+		}
+		int sizeClass = Integer.highestOneBit(capacity - 1) << 1;
+		return Integer.numberOfTrailingZeros(sizeClass) - Integer.numberOfTrailingZeros(DEFAULT_INITIAL_CAPACITY);
+	}
+
+
+	/**
+	 * Callback for buffers that were garbage collected without having been
+	 * released, and whose memory was therefore not returned to the pool.
+	 * @see #setLeakListener
+	 */
+	@FunctionalInterface
+	public interface LeakListener {
+
+		/**
+		 * Invoked when a leaked buffer is detected.
+		 * @param capacity the capacity of the leaked buffer
+		 * @param hint the last hint passed to {@link PooledDataBuffer#touch(Object)},
+		 * if any
+		 */
+		void leakDetected(int capacity, @Nullable Object hint);
+	}
+
+
+	/**
+	 * Bounded pool of native buffers of one size class, shared by all threads.
+	 */
+	private static final class SizeClassArena {
+
+		final int capacity;
+
+		private final int maxSize;
+
+		private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		SizeClassArena(int capacity) {
+			this.capacity = capacity;
+			this.maxSize = Math.max(ARENA_CAPACITY_PER_SIZE_CLASS / capacity, 1);
+		}
+
+		@Nullable
+		ByteBuffer poll() {
+			ByteBuffer byteBuffer = this.buffers.poll();
+			if (byteBuffer != null) {
+				this.size.decrementAndGet();
+			}
+			return byteBuffer;
+		}
+
+		void offer(ByteBuffer byteBuffer) {
+			if (this.size.incrementAndGet() <= this.maxSize) {
+				this.buffers.offer(byteBuffer);
+			}
+			else {
+				this.size.decrementAndGet();
+			}
+		}
+
+		void clear() {
+			while (poll() != null) {
+			}
+		}
+	}
+
+
+	/**
+	 * Per-thread cache of native buffers, for the smaller size classes only.
+	 * Does not refer to the factory, so that the thread-local value does not
+	 * retain it.
+	 */
+	private static final class ThreadCache {
+
+		private final ArrayDeque<ByteBuffer>[] buffers;
+
+		private final int cacheSize;
+
+		@SuppressWarnings("unchecked")
+		ThreadCache(int sizeClasses, int cacheSize) {
+			this.buffers = new ArrayDeque[sizeClasses];
+			this.cacheSize = cacheSize;
+		}
+
+		@Nullable
+		ByteBuffer poll(int index) {
+			ArrayDeque<ByteBuffer> queue = this.buffers[index];
+			return (queue != null ? queue.pollLast() : null);
+		}
+
+		boolean offer(int index, ByteBuffer byteBuffer) {
+			ArrayDeque<ByteBuffer> queue = this.buffers[index];
+			if (queue == null) {
+				queue = new ArrayDeque<>(this.cacheSize);
+				this.buffers[index] = queue;
+			}
+			if (queue.size() < this.cacheSize) {
+				queue.addLast(byteBuffer);
+				return true;
+			}
+			return false;
+		}
+	}
+
+
+	/**
+	 * Weak reference to an allocated buffer, enqueued when the buffer is
+	 * garbage collected before it is released.
+	 */
+	static final class LeakTracker extends WeakReference<PooledDefaultDataBuffer> {
+
+		private final int capacity;
+
+		private final Set<LeakTracker> trackers;
+
+		@Nullable
+		private volatile Object hint;
+
+		LeakTracker(PooledDefaultDataBuffer buffer, ReferenceQueue<PooledDefaultDataBuffer> queue,
+				Set<LeakTracker> trackers) {
+
+			super(buffer, queue);
+			this.capacity = buffer.capacity();
+			this.trackers = trackers;
+			trackers.add(this);
+		}
+
+		void touch(Object hint) {
+			this.hint = hint;
+		}
+
+		void close() {
+			clear();
+			this.trackers.remove(this);
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ */
+class CompositeDataBufferTests {
+
+	private final PooledDefaultDataBufferFactory bufferFactory = new PooledDefaultDataBufferFactory();
+
+
+	@Test
+	void composeWithoutCopying() {
+		DataBuffer foo = buffer("foo");
+		DataBuffer bar = buffer("bar");
+		DataBuffer result = this.bufferFactory.compose(Arrays.asList(foo, bar));
+
+		assertThat(result).isInstanceOf(CompositeDataBuffer.class);
+		assertThat(((CompositeDataBuffer) result).getComponentCount()).isEqualTo(2);
+		assertThat(result.readableByteCount()).isEqualTo(6);
+		assertThat(result.getByte(3)).isEqualTo((byte) 'b');
+
+		byte[] bytes = new byte[6];
+		result.read(bytes);
+		assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo("foobar");
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	void composeSingleBuffer() {
+		DataBuffer foo = buffer("foo");
+		assertThat(this.bufferFactory.compose(Arrays.asList(foo))).isSameAs(foo);
+		DataBufferUtils.release(foo);
+	}
+
+	@Test
+	void indexOfAcrossComponents() {
+		DataBuffer result = this.bufferFactory.compose(Arrays.asList(buffer("foo"), buffer("bar"), buffer("baz")));
+
+		assertThat(result.indexOf(b -> b == 'z', 0)).isEqualTo(8);
+		assertThat(result.indexOf(b -> b == 'a', 5)).isEqualTo(7);
+		assertThat(result.lastIndexOf(b -> b == 'o', 8)).isEqualTo(2);
+		assertThat(result.indexOf(b -> b == 'x', 0)).isEqualTo(-1);
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	void toStringWithCharacterSplitAcrossComponents() {
+		byte[] bytes = "aéb".getBytes(StandardCharsets.UTF_8);
+		DataBuffer first = this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 0, 2));
+		DataBuffer second = this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 2, bytes.length));
+		DataBuffer result = this.bufferFactory.compose(Arrays.asList(first, second));
+
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("aéb");
+		assertThat(result.toString(1, 2, StandardCharsets.UTF_8)).isEqualTo("é");
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	void writeGrowsCapacity() {
+		CompositeDataBuffer result = (CompositeDataBuffer) this.bufferFactory.compose(
+				Arrays.asList(buffer("foo"), buffer("bar")));
+		result.write("baz", StandardCharsets.UTF_8);
+
+		assertThat(result.getComponentCount()).isEqualTo(3);
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobarbaz");
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	void sliceSharesReferenceCount() {
+		DataBuffer result = this.bufferFactory.compose(Arrays.asList(buffer("foo"), buffer("bar")));
+		DataBuffer slice = result.retainedSlice(2, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("oba");
+
+		assertThat(DataBufferUtils.release(result)).isFalse();
+		assertThat(((PooledDataBuffer) slice).isAllocated()).isTrue();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) result).isAllocated()).isFalse();
+	}
+
+	@Test
+	void releaseReleasesComponents() {
+		DataBuffer foo = buffer("foo");
+		DataBuffer bar = buffer("bar");
+		DataBuffer result = this.bufferFactory.compose(Arrays.asList(foo, bar));
+
+		assertThat(DataBufferUtils.release(result)).isTrue();
+		assertThat(((PooledDataBuffer) foo).isAllocated()).isFalse();
+		assertThat(((PooledDataBuffer) bar).isAllocated()).isFalse();
+	}
+
+
+	private DataBuffer buffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+}
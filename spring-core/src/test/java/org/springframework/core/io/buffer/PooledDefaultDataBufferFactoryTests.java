@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PooledDefaultDataBufferFactory}.
+ */
+class PooledDefaultDataBufferFactoryTests {
+
+	private final PooledDefaultDataBufferFactory bufferFactory = new PooledDefaultDataBufferFactory();
+
+
+	@Test
+	void capacityIsNotRoundedUp() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		assertThat(buffer).isInstanceOf(PooledDataBuffer.class);
+		assertThat(buffer.capacity()).isEqualTo(300);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void releasedBufferIsReused() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		byte[] array = buffer.getNativeBuffer().array();
+		assertThat(array).hasSize(512);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(400);
+		assertThat(other.getNativeBuffer().array()).isSameAs(array);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	void retainedBufferIsNotReused() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		byte[] array = buffer.getNativeBuffer().array();
+		DataBufferUtils.retain(buffer);
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(300);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(array);
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void largeBufferIsNotPooled() {
+		int capacity = PooledDefaultDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY + 1;
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(capacity);
+		byte[] array = buffer.getNativeBuffer().array();
+		assertThat(array).hasSize(capacity);
+		DataBufferUtils.release(buffer);
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(capacity);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(array);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	void growRecyclesReplacedBuffer() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(256);
+		byte[] array = buffer.getNativeBuffer().array();
+		buffer.write(new byte[1000]);
+		assertThat(buffer.getNativeBuffer().array()).isNotSameAs(array);
+		assertThat(buffer.readableByteCount()).isEqualTo(1000);
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(256);
+		assertThat(other.getNativeBuffer().array()).isSameAs(array);
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void growKeepsReplacedBufferWhileSliced() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(256);
+		byte[] array = buffer.getNativeBuffer().array();
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer slice = buffer.slice(0, 3);
+		buffer.write(new byte[1000]);
+		assertThat(buffer.getNativeBuffer().array()).isNotSameAs(array);
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(256);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(array);
+		other.write("bazbaz", StandardCharsets.UTF_8);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("foo");
+		DataBufferUtils.release(other);
+
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+		DefaultDataBuffer reused = this.bufferFactory.allocateBuffer(256);
+		assertThat(reused.getNativeBuffer().array()).isSameAs(array);
+		DataBufferUtils.release(reused);
+	}
+
+	@Test
+	void disposeStopsPooling() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		byte[] array = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+
+		this.bufferFactory.dispose();
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(300);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(array);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	void sliceSharesReferenceCount() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(256);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bar");
+
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+		assertThat(((PooledDataBuffer) slice).isAllocated()).isTrue();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+	}
+
+	@Test
+	void wrappedBufferIsNotPooled() {
+		DataBuffer buffer = this.bufferFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		assertThat(buffer).isNotInstanceOf(PooledDataBuffer.class);
+	}
+
+	@Test
+	void leakListener() throws Exception {
+		List<Object> leaks = new ArrayList<>();
+		this.bufferFactory.setLeakListener((capacity, hint) -> leaks.add(hint));
+
+		DefaultDataBuffer released = this.bufferFactory.allocateBuffer(256);
+		((PooledDataBuffer) released).touch("released");
+		DataBufferUtils.release(released);
+
+		((PooledDataBuffer) this.bufferFactory.allocateBuffer(256)).touch("leaked");
+
+		for (int i = 0; i < 50 && leaks.isEmpty(); i++) {
+			System.gc();
+			Thread.sleep(20);
+			DataBufferUtils.release(this.bufferFactory.allocateBuffer(256));
+		}
+		assertThat(leaks).containsExactly("leaked");
+	}
+
+}
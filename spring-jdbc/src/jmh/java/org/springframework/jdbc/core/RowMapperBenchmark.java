@@ -0,0 +1,248 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmark for {@link CompiledRowMapper} compared to
+ * {@link BeanPropertyRowMapper} and {@link DataClassRowMapper}, mapping the
+ * rows of an embedded HSQL database.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RowMapperBenchmark {
+
+	private static final String QUERY = "select id, first_name, last_name, age, balance, active, created from person";
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"1000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public RowMapper<PersonBean> beanPropertyRowMapper;
+
+		public RowMapper<PersonBean> compiledBeanRowMapper;
+
+		public RowMapper<PersonRecord> dataClassRowMapper;
+
+		public RowMapper<PersonRecord> compiledRecordRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.HSQL)
+					.generateUniqueName(true)
+					.build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("create table person (id bigint primary key, first_name varchar(50), " +
+					"last_name varchar(50), age integer, balance decimal(12,2), active boolean, created timestamp)");
+			List<Object[]> rows = new ArrayList<>(this.rowCount);
+			for (int i = 0; i < this.rowCount; i++) {
+				rows.add(new Object[] {(long) i, "First" + i, "Last" + i, i % 100,
+						new BigDecimal(i + ".50"), (i % 2 == 0), new Timestamp(1600000000000L + i)});
+			}
+			this.jdbcTemplate.batchUpdate("insert into person values (?, ?, ?, ?, ?, ?, ?)", rows);
+
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(PersonBean.class);
+			this.compiledBeanRowMapper = new CompiledRowMapper<>(PersonBean.class);
+			this.dataClassRowMapper = new DataClassRowMapper<>(PersonRecord.class);
+			this.compiledRecordRowMapper = new CompiledRowMapper<>(PersonRecord.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public List<PersonBean> beanPropertyRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<PersonBean> compiledRowMapperWithSetters(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.compiledBeanRowMapper);
+	}
+
+	@Benchmark
+	public List<PersonRecord> dataClassRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.dataClassRowMapper);
+	}
+
+	@Benchmark
+	public List<PersonRecord> compiledRowMapperWithConstructor(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.compiledRecordRowMapper);
+	}
+
+
+	public static class PersonBean {
+
+		private long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		private BigDecimal balance;
+
+		private boolean active;
+
+		private Timestamp created;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+
+		public Timestamp getCreated() {
+			return this.created;
+		}
+
+		public void setCreated(Timestamp created) {
+			this.created = created;
+		}
+	}
+
+
+	public static class PersonRecord {
+
+		private final long id;
+
+		private final String firstName;
+
+		private final String lastName;
+
+		private final int age;
+
+		private final BigDecimal balance;
+
+		private final boolean active;
+
+		private final Timestamp created;
+
+		public PersonRecord(long id, String firstName, String lastName, int age,
+				BigDecimal balance, boolean active, Timestamp created) {
+
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.age = age;
+			this.balance = balance;
+			this.active = active;
+			this.created = created;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public Timestamp getCreated() {
+			return this.created;
+		}
+	}
+
+}
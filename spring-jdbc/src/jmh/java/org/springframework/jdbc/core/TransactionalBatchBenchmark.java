@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark for single-row {@link JdbcTemplate} updates within a transaction,
+ * executed one by one or deferred to a
+ * {@linkplain JdbcTemplate#setTransactionalBatchSize transactional batch},
+ * against an embedded HSQL database.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class TransactionalBatchBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"0", "100", "1000"})
+		public int transactionalBatchSize;
+
+		@Param({"1000"})
+		public int updateCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public TransactionTemplate transactionTemplate;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.HSQL)
+					.generateUniqueName(true)
+					.build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("create table item (id integer primary key, name varchar(50))");
+			this.jdbcTemplate.setTransactionalBatchSize(this.transactionalBatchSize);
+			this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		}
+
+		@Setup(Level.Invocation)
+		public void clear() {
+			this.jdbcTemplate.update("delete from item");
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public void insertInTransaction(BenchmarkData data) {
+		data.transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < data.updateCount; i++) {
+				data.jdbcTemplate.update("insert into item (id, name) values (?, ?)", i, "item" + i);
+			}
+		});
+	}
+
+}
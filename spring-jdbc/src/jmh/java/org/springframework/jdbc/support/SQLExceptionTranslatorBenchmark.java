@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support;
+
+import java.sql.SQLException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Benchmark for {@link SQLErrorCodeSQLExceptionTranslator}, translating
+ * exceptions with a mapped error code (such as a duplicate key violation)
+ * as well as with an error code that is not mapped for the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SQLExceptionTranslatorBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"Oracle", "PostgreSQL"})
+		public String databaseName;
+
+		public SQLExceptionTranslator translator;
+
+		public SQLException duplicateKeyException;
+
+		public SQLException unmappedException;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.translator = new SQLErrorCodeSQLExceptionTranslator(this.databaseName);
+			if ("Oracle".equals(this.databaseName)) {
+				this.duplicateKeyException = new SQLException("ORA-00001: unique constraint violated", "23000", 1);
+			}
+			else {
+				this.duplicateKeyException = new SQLException("duplicate key value violates unique constraint", "23505");
+			}
+			this.unmappedException = new SQLException("unmapped", "99999", 99999);
+		}
+	}
+
+
+	@Benchmark
+	public DataAccessException translateDuplicateKey(BenchmarkData data) {
+		return data.translator.translate("insert", "insert into person values (?)", data.duplicateKeyException);
+	}
+
+	@Benchmark
+	public DataAccessException translateUnmappedErrorCode(BenchmarkData data) {
+		return data.translator.translate("insert", "insert into person values (?)", data.unmappedException);
+	}
+
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link RowMapper} implementation that converts a row into a new instance
+ * of the specified mapped target class, designed as a faster alternative to
+ * {@link BeanPropertyRowMapper} and {@link DataClassRowMapper} for large
+ * result sets.
+ *
+ * <p>Columns are matched to constructor parameters and bean property setters
+ * by name, following the same rules as {@link DataClassRowMapper}. Rather
+ * than resolving each column by name for every row, this mapper compiles a
+ * mapping plan on the first row of a result set: for every column index, the
+ * target constructor argument or setter method, and a {@code ResultSet}
+ * getter specific to the target type. Plans are cached per column signature
+ * of the result set, i.e. the sequence of column names, and reused for all
+ * rows with the same signature. Rows are then mapped without a
+ * {@link org.springframework.beans.BeanWrapper}, and values only go through
+ * the {@link ConversionService} if the JDBC value does not match the target
+ * type already.
+ *
+ * <p>Unlike {@code BeanPropertyRowMapper}, this mapper does not support
+ * strict validation of fully populated properties, and is not designed for
+ * subclassing.
+ *
+ * @since 5.3.2
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ * @see DataClassRowMapper
+ */
+public class CompiledRowMapper<T> implements RowMapper<T> {
+
+	private static final int PLAN_CACHE_SIZE = 32;
+
+	private static final Log logger = LogFactory.getLog(CompiledRowMapper.class);
+
+
+	private final Class<T> mappedClass;
+
+	private final Constructor<T> mappedConstructor;
+
+	private final String[] constructorParameterNames;
+
+	private final Class<?>[] constructorParameterTypes;
+
+	/** Map of the lower case and underscored property names to the writable properties. */
+	private final Map<String, PropertyDescriptor> mappedFields = new HashMap<>();
+
+	private final ConcurrentLruCache<List<String>, MappingPlan> plans =
+			new ConcurrentLruCache<>(PLAN_CACHE_SIZE, this::compilePlan);
+
+	@Nullable
+	private volatile CurrentPlan currentPlan;
+
+	private boolean primitivesDefaultedForNullValue = false;
+
+	@Nullable
+	private ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+
+	/**
+	 * Create a new {@code CompiledRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public CompiledRowMapper(Class<T> mappedClass) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		this.mappedClass = mappedClass;
+		this.mappedConstructor = BeanUtils.getResolvableConstructor(mappedClass);
+		if (this.mappedConstructor.getParameterCount() > 0) {
+			this.constructorParameterNames = BeanUtils.getParameterNames(this.mappedConstructor);
+			this.constructorParameterTypes = this.mappedConstructor.getParameterTypes();
+		}
+		else {
+			this.constructorParameterNames = new String[0];
+			this.constructorParameterTypes = new Class<?>[0];
+		}
+		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+			Method writeMethod = pd.getWriteMethod();
+			if (writeMethod != null) {
+				ReflectionUtils.makeAccessible(writeMethod);
+				String lowerCaseName = lowerCaseName(pd.getName());
+				this.mappedFields.put(lowerCaseName, pd);
+				String underscoredName = underscoreName(pd.getName());
+				if (!lowerCaseName.equals(underscoredName)) {
+					this.mappedFields.put(underscoredName, pd);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Get the class that we are mapping to.
+	 */
+	public final Class<T> getMappedClass() {
+		return this.mappedClass;
+	}
+
+	/**
+	 * Set whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding database fields.
+	 * <p>Default is {@code false}, throwing an exception when nulls are mapped to Java primitives.
+	 * @see BeanPropertyRowMapper#setPrimitivesDefaultedForNullValue
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Return whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding database fields.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Set a {@link ConversionService} for converting JDBC values that do not
+	 * match the type of the target property or constructor parameter, or
+	 * {@code null} for none.
+	 * <p>Default is a {@link DefaultConversionService}.
+	 */
+	public void setConversionService(@Nullable ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Return a {@link ConversionService} for converting JDBC values, or
+	 * {@code null} if none.
+	 */
+	@Nullable
+	public ConversionService getConversionService() {
+		return this.conversionService;
+	}
+
+
+	@Override
+	public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+		return getPlan(rs.getMetaData()).mapRow(rs, rowNum);
+	}
+
+	private MappingPlan getPlan(ResultSetMetaData rsmd) throws SQLException {
+		CurrentPlan current = this.currentPlan;
+		if (current != null && current.metaData == rsmd) {
+			return current.plan;
+		}
+		int columnCount = rsmd.getColumnCount();
+		List<String> columns = new ArrayList<>(columnCount);
+		for (int index = 1; index <= columnCount; index++) {
+			columns.add(JdbcUtils.lookupColumnName(rsmd, index));
+		}
+		MappingPlan plan = this.plans.get(columns);
+		this.currentPlan = new CurrentPlan(rsmd, plan);
+		return plan;
+	}
+
+	private MappingPlan compilePlan(List<String> columns) {
+		Map<String, Integer> columnIndexes = new HashMap<>();
+		for (int i = 0; i < columns.size(); i++) {
+			columnIndexes.putIfAbsent(lowerCaseName(StringUtils.delete(columns.get(i), " ")), i + 1);
+		}
+
+		Set<Integer> constructorColumns = new HashSet<>();
+		ColumnMapping[] argumentMappings = new ColumnMapping[this.constructorParameterNames.length];
+		for (int i = 0; i < argumentMappings.length; i++) {
+			String name = this.constructorParameterNames[i];
+			Integer index = columnIndexes.get(lowerCaseName(name));
+			if (index == null) {
+				index = columnIndexes.get(underscoreName(name));
+			}
+			if (index == null) {
+				throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain a column for " +
+						"constructor parameter '" + name + "' of " + this.mappedClass + ": " + columns);
+			}
+			argumentMappings[i] = new ColumnMapping(index, this.constructorParameterTypes[i], null);
+			constructorColumns.add(index);
+		}
+
+		List<ColumnMapping> propertyMappings = new ArrayList<>();
+		for (int i = 0; i < columns.size(); i++) {
+			int index = i + 1;
+			String column = columns.get(i);
+			String field = lowerCaseName(StringUtils.delete(column, " "));
+			PropertyDescriptor pd = this.mappedFields.get(field);
+			if (pd != null && !constructorColumns.contains(index)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+				propertyMappings.add(new ColumnMapping(index, pd.getPropertyType(), pd.getWriteMethod()));
+			}
+			else if (pd == null && !constructorColumns.contains(index) && logger.isDebugEnabled()) {
+				logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+			}
+		}
+		return new MappingPlan(columns, argumentMappings, propertyMappings.toArray(new ColumnMapping[0]));
+	}
+
+	@Nullable
+	private Object convertIfNecessary(@Nullable Object value, Class<?> requiredType) {
+		if (value == null || ClassUtils.isAssignableValue(requiredType, value)) {
+			return value;
+		}
+		ConversionService cs = this.conversionService;
+		if (cs != null && cs.canConvert(value.getClass(), requiredType)) {
+			return cs.convert(value, requiredType);
+		}
+		throw new TypeMismatchException(value, requiredType);
+	}
+
+	private static String underscoreName(String name) {
+		if (!StringUtils.hasLength(name)) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c)) {
+				result.append('_').append(Character.toLowerCase(c));
+			}
+			else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	private static String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code CompiledRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> CompiledRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new CompiledRowMapper<>(mappedClass);
+	}
+
+
+	/**
+	 * Reads a column value with a {@code ResultSet} getter for a specific type.
+	 */
+	@FunctionalInterface
+	private interface ColumnReader {
+
+		@Nullable
+		Object read(ResultSet rs, int index) throws SQLException;
+
+		static ColumnReader forType(Class<?> type) {
+			if (String.class == type) {
+				return ResultSet::getString;
+			}
+			else if (long.class == type || Long.class == type) {
+				return (rs, index) -> {
+					long value = rs.getLong(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (int.class == type || Integer.class == type) {
+				return (rs, index) -> {
+					int value = rs.getInt(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (double.class == type || Double.class == type) {
+				return (rs, index) -> {
+					double value = rs.getDouble(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (boolean.class == type || Boolean.class == type) {
+				return (rs, index) -> {
+					boolean value = rs.getBoolean(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (BigDecimal.class == type) {
+				return ResultSet::getBigDecimal;
+			}
+			else if (Timestamp.class == type) {
+				return ResultSet::getTimestamp;
+			}
+			else if (java.sql.Date.class == type) {
+				return ResultSet::getDate;
+			}
+			else if (Time.class == type) {
+				return ResultSet::getTime;
+			}
+			else if (byte[].class == type) {
+				return ResultSet::getBytes;
+			}
+			else {
+				return (rs, index) -> JdbcUtils.getResultSetValue(rs, index, type);
+			}
+		}
+	}
+
+
+	/**
+	 * The mapping of a column to a constructor argument or a setter method.
+	 */
+	private static final class ColumnMapping {
+
+		final int index;
+
+		final Class<?> type;
+
+		@Nullable
+		final Method writeMethod;
+
+		final ColumnReader reader;
+
+		ColumnMapping(int index, Class<?> type, @Nullable Method writeMethod) {
+			this.index = index;
+			this.type = type;
+			this.writeMethod = writeMethod;
+			this.reader = ColumnReader.forType(type);
+		}
+	}
+
+
+	/**
+	 * The compiled mapping for a given column signature.
+	 */
+	private final class MappingPlan {
+
+		private final List<String> columns;
+
+		private final ColumnMapping[] argumentMappings;
+
+		private final ColumnMapping[] propertyMappings;
+
+		MappingPlan(List<String> columns, ColumnMapping[] argumentMappings, ColumnMapping[] propertyMappings) {
+			this.columns = columns;
+			this.argumentMappings = argumentMappings;
+			this.propertyMappings = propertyMappings;
+		}
+
+		T mapRow(ResultSet rs, int rowNum) throws SQLException {
+			Object[] args = new Object[this.argumentMappings.length];
+			for (int i = 0; i < args.length; i++) {
+				ColumnMapping mapping = this.argumentMappings[i];
+				args[i] = convertIfNecessary(mapping.reader.read(rs, mapping.index), mapping.type);
+			}
+			T mappedObject = BeanUtils.instantiateClass(mappedConstructor, args);
+
+			for (ColumnMapping mapping : this.propertyMappings) {
+				Object value = convertIfNecessary(mapping.reader.read(rs, mapping.index), mapping.type);
+				if (value == null && mapping.type.isPrimitive()) {
+					if (primitivesDefaultedForNullValue) {
+						continue;
+					}
+					throw new TypeMismatchException((Object) null, mapping.type);
+				}
+				Assert.state(mapping.writeMethod != null, "No write method");
+				try {
+					mapping.writeMethod.invoke(mappedObject, value);
+				}
+				catch (InvocationTargetException | IllegalAccessException ex) {
+					Throwable cause = (ex instanceof InvocationTargetException ? ex.getCause() : ex);
+					throw new DataRetrievalFailureException("Unable to map column '" +
+							this.columns.get(mapping.index - 1) + "' to property with setter " +
+							mapping.writeMethod + " for row " + rowNum, cause);
+				}
+			}
+			return mappedObject;
+		}
+	}
+
+
+	/**
+	 * The plan for the result set that is currently being mapped, identified
+	 * by its meta-data instance to avoid looking up column names per row.
+	 */
+	private final class CurrentPlan {
+
+		final ResultSetMetaData metaData;
+
+		final MappingPlan plan;
+
+		CurrentPlan(ResultSetMetaData metaData, MappingPlan plan) {
+			this.metaData = metaData;
+			this.plan = plan;
+		}
+	}
+
+}
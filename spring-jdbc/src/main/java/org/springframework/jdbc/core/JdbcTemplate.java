@@ -28,9 +28,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +56,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
@@ -153,6 +156,16 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/**
+	 * If this variable is set to a positive value, prepared SQL updates within a
+	 * transaction will be deferred and executed in batches of at most this size.
+	 */
+	private int transactionalBatchSize = 0;
+
+	/** Observer to notify of connections obtained and statements executed, if any. */
+	@Nullable
+	private StatementObserver statementObserver;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -317,6 +330,64 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set the maximum number of prepared SQL updates to defer and execute as a
+	 * JDBC batch when running within a transaction.
+	 * <p>Default is 0, indicating to execute each update immediately. With a
+	 * positive value, consecutive {@code update} calls with the same SQL and
+	 * arguments or a {@link PreparedStatementSetter} are added to a batch that
+	 * is bound to the current transaction, rather than being executed one by
+	 * one. The pending updates are executed once the batch size is reached,
+	 * when an update with different SQL is issued, before any other statement
+	 * is executed through a JdbcTemplate for the same DataSource, before a
+	 * savepoint is created (e.g. for a nested transaction), and before the
+	 * transaction commits. Pending updates are discarded on rollback to a
+	 * savepoint. Outside of a transaction, and in read-only transactions,
+	 * updates are executed immediately as usual.
+	 * <p><b>NOTE:</b> Deferred updates return {@link Statement#SUCCESS_NO_INFO}
+	 * instead of the number of affected rows, and errors are only reported
+	 * once the batch is executed, which may be at commit time. Use
+	 * {@link #flushTransactionalBatch()} to execute the pending updates and
+	 * obtain their update counts at a specific point. Also note that
+	 * statements executed against the same DataSource other than through a
+	 * JdbcTemplate do not see pending updates.
+	 * @since 5.3.2
+	 * @see #flushTransactionalBatch()
+	 */
+	public void setTransactionalBatchSize(int transactionalBatchSize) {
+		this.transactionalBatchSize = transactionalBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of prepared SQL updates to defer and execute
+	 * as a JDBC batch when running within a transaction.
+	 * @since 5.3.2
+	 */
+	public int getTransactionalBatchSize() {
+		return this.transactionalBatchSize;
+	}
+
+	/**
+	 * Set an observer to notify of the connections obtained and the
+	 * statements executed by this JdbcTemplate, e.g. a {@link StatementStatistics}.
+	 * <p>Default is none. Without an observer, no timing is performed.
+	 * @since 5.3.2
+	 * @see StatementStatistics
+	 */
+	public void setStatementObserver(@Nullable StatementObserver statementObserver) {
+		this.statementObserver = statementObserver;
+	}
+
+	/**
+	 * Return the observer to notify of connections obtained and statements
+	 * executed, if any.
+	 * @since 5.3.2
+	 */
+	@Nullable
+	public StatementObserver getStatementObserver() {
+		return this.statementObserver;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -326,8 +397,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Nullable
 	public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
+		flushTransactionalBatch();
 
-		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		Connection con = obtainConnection();
 		try {
 			// Create close-suppressing Connection proxy, also preparing returned Statements.
 			Connection conToUse = createConnectionProxy(con);
@@ -372,26 +444,41 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Nullable
 	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
+		flushTransactionalBatch();
 
-		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		Connection con = obtainConnection();
+		StatementObserver observer = this.statementObserver;
+		long startTime = (observer != null ? System.nanoTime() : 0);
 		Statement stmt = null;
 		try {
 			stmt = con.createStatement();
 			applyStatementSettings(stmt);
 			T result = action.doInStatement(stmt);
 			handleWarnings(stmt);
+			if (observer != null) {
+				notifyStatementExecuted(observer, getSql(action), startTime, action, result);
+			}
 			return result;
 		}
 		catch (SQLException ex) {
 			// Release Connection early, to avoid potential connection pool deadlock
 			// in the case when the exception translator hasn't been initialized yet.
 			String sql = getSql(action);
+			if (observer != null) {
+				observer.statementFailed(sql, Duration.ofNanos(System.nanoTime() - startTime), ex);
+			}
 			JdbcUtils.closeStatement(stmt);
 			stmt = null;
 			DataSourceUtils.releaseConnection(con, getDataSource());
 			con = null;
 			throw translateException("StatementCallback", sql, ex);
 		}
+		catch (RuntimeException ex) {
+			if (observer != null) {
+				observer.statementFailed(getSql(action), Duration.ofNanos(System.nanoTime() - startTime), ex);
+			}
+			throw ex;
+		}
 		finally {
 			if (closeResources) {
 				JdbcUtils.closeStatement(stmt);
@@ -443,14 +530,17 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		/**
 		 * Callback to execute the query.
 		 */
-		class QueryStatementCallback implements StatementCallback<T>, SqlProvider {
+		class QueryStatementCallback implements StatementCallback<T>, SqlProvider, RowCountProvider {
+			private long rowCount = -1;
 			@Override
 			@Nullable
 			public T doInStatement(Statement stmt) throws SQLException {
 				ResultSet rs = null;
 				try {
 					rs = stmt.executeQuery(sql);
-					return rse.extractData(rs);
+					T result = rse.extractData(rs);
+					this.rowCount = countRows(rse, result);
+					return result;
 				}
 				finally {
 					JdbcUtils.closeResultSet(rs);
@@ -460,6 +550,10 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			public String getSql() {
 				return sql;
 			}
+			@Override
+			public long getRowCount() {
+				return this.rowCount;
+			}
 		}
 
 		return execute(new QueryStatementCallback(), true);
@@ -642,14 +736,20 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			String sql = getSql(psc);
 			logger.debug("Executing prepared SQL statement" + (sql != null ? " [" + sql + "]" : ""));
 		}
+		flushTransactionalBatch();
 
-		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		Connection con = obtainConnection();
+		StatementObserver observer = this.statementObserver;
+		long startTime = (observer != null ? System.nanoTime() : 0);
 		PreparedStatement ps = null;
 		try {
 			ps = psc.createPreparedStatement(con);
 			applyStatementSettings(ps);
 			T result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			if (observer != null) {
+				notifyStatementExecuted(observer, getSql(psc), startTime, action, result);
+			}
 			return result;
 		}
 		catch (SQLException ex) {
@@ -659,6 +759,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 				((ParameterDisposer) psc).cleanupParameters();
 			}
 			String sql = getSql(psc);
+			if (observer != null) {
+				observer.statementFailed(sql, Duration.ofNanos(System.nanoTime() - startTime), ex);
+			}
 			psc = null;
 			JdbcUtils.closeStatement(ps);
 			ps = null;
@@ -666,6 +769,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			con = null;
 			throw translateException("PreparedStatementCallback", sql, ex);
 		}
+		catch (RuntimeException ex) {
+			if (observer != null) {
+				observer.statementFailed(getSql(psc), Duration.ofNanos(System.nanoTime() - startTime), ex);
+			}
+			throw ex;
+		}
 		finally {
 			if (closeResources) {
 				if (psc instanceof ParameterDisposer) {
@@ -710,7 +819,11 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		Assert.notNull(rse, "ResultSetExtractor must not be null");
 		logger.debug("Executing prepared SQL query");
 
-		return execute(psc, new PreparedStatementCallback<T>() {
+		/**
+		 * Callback to execute the query.
+		 */
+		class QueryPreparedStatementCallback implements PreparedStatementCallback<T>, RowCountProvider {
+			private long rowCount = -1;
 			@Override
 			@Nullable
 			public T doInPreparedStatement(PreparedStatement ps) throws SQLException {
@@ -720,7 +833,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 						pss.setValues(ps);
 					}
 					rs = ps.executeQuery();
-					return rse.extractData(rs);
+					T result = rse.extractData(rs);
+					this.rowCount = countRows(rse, result);
+					return result;
 				}
 				finally {
 					JdbcUtils.closeResultSet(rs);
@@ -729,7 +844,13 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 					}
 				}
 			}
-		}, true);
+			@Override
+			public long getRowCount() {
+				return this.rowCount;
+			}
+		}
+
+		return execute(psc, new QueryPreparedStatementCallback(), true);
 	}
 
 	@Override
@@ -863,6 +984,123 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
 	}
 
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping each row to a result object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream
+	 * that is backed by a database cursor.
+	 * <p>In contrast to {@link #queryForStream(String, RowMapper, Object...)},
+	 * this method prepares the statement for fetching rows incrementally:
+	 * the statement is forward-only and read-only, the given fetch size is
+	 * applied, and auto-commit is switched off for the duration of the query
+	 * unless the connection participates in a transaction already. The latter
+	 * is required by drivers such as PostgreSQL's, which otherwise read the
+	 * entire result set into memory. Auto-commit is restored once the Stream
+	 * is closed.
+	 * @param sql the SQL query to execute
+	 * @param fetchSize the number of rows to fetch from the database at a time
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.2
+	 * @see #queryForChunks
+	 */
+	public <T> Stream<T> queryForCursorStream(String sql, int fetchSize, RowMapper<T> rowMapper,
+			@Nullable Object... args) throws DataAccessException {
+
+		Assert.isTrue(fetchSize > 0, "Fetch size must be greater than 0");
+		PreparedStatementSetter pss = newArgPreparedStatementSetter(args);
+		return result(execute(new SimplePreparedStatementCreator(sql), ps -> {
+			Connection con = ps.getConnection();
+			boolean resetAutoCommit = (con.getAutoCommit() &&
+					!DataSourceUtils.isConnectionTransactional(con, getDataSource()));
+			// Reset auto-commit on any failure until the Stream takes over
+			boolean streamCreated = false;
+			try {
+				if (resetAutoCommit) {
+					con.setAutoCommit(false);
+				}
+				ps.setFetchSize(fetchSize);
+				pss.setValues(ps);
+				ResultSet rs = ps.executeQuery();
+				Stream<T> stream = new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> {
+					JdbcUtils.closeResultSet(rs);
+					if (pss instanceof ParameterDisposer) {
+						((ParameterDisposer) pss).cleanupParameters();
+					}
+					JdbcUtils.closeStatement(ps);
+					if (resetAutoCommit) {
+						resetAutoCommit(con);
+					}
+					DataSourceUtils.releaseConnection(con, getDataSource());
+				});
+				streamCreated = true;
+				return stream;
+			}
+			finally {
+				if (resetAutoCommit && !streamCreated) {
+					resetAutoCommit(con);
+				}
+			}
+		}, false));
+	}
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping each row to a result object
+	 * via a RowMapper, and passing the results to the given consumer in
+	 * chunks of the given size.
+	 * <p>Rows are read from a database cursor as per
+	 * {@link #queryForCursorStream}, using the chunk size as fetch size, and
+	 * the next chunk is only fetched once the consumer returns. At most one
+	 * chunk of mapped objects is therefore held in memory at any time. All
+	 * resources are released when this method returns, also if the consumer
+	 * throws an exception.
+	 * @param sql the SQL query to execute
+	 * @param chunkSize the number of rows per chunk
+	 * @param rowMapper a callback that will map one object per row
+	 * @param chunkConsumer the consumer of each chunk of mapped objects
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.2
+	 */
+	public <T> void queryForChunks(String sql, int chunkSize, RowMapper<T> rowMapper,
+			Consumer<? super List<T>> chunkConsumer, @Nullable Object... args) throws DataAccessException {
+
+		Assert.notNull(chunkConsumer, "Chunk consumer must not be null");
+		try (Stream<T> stream = queryForCursorStream(sql, chunkSize, rowMapper, args)) {
+			List<T> chunk = new ArrayList<>(chunkSize);
+			Iterator<T> iterator = stream.iterator();
+			while (iterator.hasNext()) {
+				chunk.add(iterator.next());
+				if (chunk.size() == chunkSize) {
+					chunkConsumer.accept(chunk);
+					chunk = new ArrayList<>(chunkSize);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				chunkConsumer.accept(chunk);
+			}
+		}
+	}
+
+	private void resetAutoCommit(Connection con) {
+		try {
+			con.setAutoCommit(true);
+		}
+		catch (SQLException | RuntimeException ex) {
+			logger.debug("Could not reset auto-commit after cursor-based query", ex);
+		}
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -1012,9 +1250,57 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int update(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
+		if (this.transactionalBatchSize > 0 && TransactionSynchronizationManager.isSynchronizationActive() &&
+				TransactionSynchronizationManager.isActualTransactionActive() &&
+				!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return deferUpdate(sql, pss);
+		}
 		return update(new SimplePreparedStatementCreator(sql), pss);
 	}
 
+	private int deferUpdate(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Deferring SQL update [" + sql + "] to transactional batch");
+		}
+		TransactionalUpdateBatch batch =
+				TransactionalUpdateBatch.obtainBatch(this, obtainDataSource(), this.transactionalBatchSize);
+		try {
+			batch.add(sql, pss);
+		}
+		catch (SQLException ex) {
+			throw translateException("TransactionalUpdateBatch", sql, ex);
+		}
+		return Statement.SUCCESS_NO_INFO;
+	}
+
+	/**
+	 * Execute the prepared SQL updates that were deferred in the current
+	 * transaction for this JdbcTemplate's DataSource, if any.
+	 * <p>This is done automatically before any other statement is executed
+	 * and before commit, and only needs to be called explicitly to obtain the
+	 * update counts of the deferred updates, or to have errors reported at a
+	 * specific point.
+	 * @return the update counts of the updates executed since the SQL last
+	 * changed or the batch was last executed, or an empty array if there were
+	 * no pending updates
+	 * @throws DataAccessException if the batch update fails
+	 * @since 5.3.2
+	 * @see #setTransactionalBatchSize
+	 */
+	public int[] flushTransactionalBatch() throws DataAccessException {
+		if (!TransactionalUpdateBatch.isAnyBound()) {
+			return new int[0];
+		}
+		DataSource dataSource = getDataSource();
+		if (dataSource != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionalUpdateBatch batch = TransactionalUpdateBatch.getBatch(dataSource);
+			if (batch != null) {
+				return batch.executeBatch();
+			}
+		}
+		return new int[0];
+	}
+
 	@Override
 	public int update(String sql, Object[] args, int[] argTypes) throws DataAccessException {
 		return update(sql, newArgTypePreparedStatementSetter(args, argTypes));
@@ -1181,14 +1467,20 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			String sql = getSql(csc);
 			logger.debug("Calling stored procedure" + (sql != null ? " [" + sql  + "]" : ""));
 		}
+		flushTransactionalBatch();
 
-		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		Connection con = obtainConnection();
+		StatementObserver observer = this.statementObserver;
+		long startTime = (observer != null ? System.nanoTime() : 0);
 		CallableStatement cs = null;
 		try {
 			cs = csc.createCallableStatement(con);
 			applyStatementSettings(cs);
 			T result = action.doInCallableStatement(cs);
 			handleWarnings(cs);
+			if (observer != null) {
+				notifyStatementExecuted(observer, getSql(csc), startTime, action, result);
+			}
 			return result;
 		}
 		catch (SQLException ex) {
@@ -1198,6 +1490,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 				((ParameterDisposer) csc).cleanupParameters();
 			}
 			String sql = getSql(csc);
+			if (observer != null) {
+				observer.statementFailed(sql, Duration.ofNanos(System.nanoTime() - startTime), ex);
+			}
 			csc = null;
 			JdbcUtils.closeStatement(cs);
 			cs = null;
@@ -1205,6 +1500,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			con = null;
 			throw translateException("CallableStatementCallback", sql, ex);
 		}
+		catch (RuntimeException ex) {
+			if (observer != null) {
+				observer.statementFailed(getSql(csc), Duration.ofNanos(System.nanoTime() - startTime), ex);
+			}
+			throw ex;
+		}
 		finally {
 			if (csc instanceof ParameterDisposer) {
 				((ParameterDisposer) csc).cleanupParameters();
@@ -1569,6 +1870,67 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	/**
+	 * Obtain a Connection from this template's DataSource, notifying the
+	 * {@link StatementObserver} of the time it took, if any.
+	 */
+	private Connection obtainConnection() {
+		StatementObserver observer = this.statementObserver;
+		if (observer == null) {
+			return DataSourceUtils.getConnection(obtainDataSource());
+		}
+		long startTime = System.nanoTime();
+		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		observer.connectionObtained(Duration.ofNanos(System.nanoTime() - startTime));
+		return con;
+	}
+
+	/**
+	 * Notify the given observer of a successful statement execution, deriving
+	 * the row count from our query callbacks and the batch size from update
+	 * count arrays.
+	 */
+	private static void notifyStatementExecuted(StatementObserver observer, @Nullable String sql,
+			long startTime, Object action, @Nullable Object result) {
+
+		Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+		long rowCount = (action instanceof RowCountProvider ? ((RowCountProvider) action).getRowCount() : -1);
+		int batchSize = 0;
+		if (result instanceof int[]) {
+			batchSize = ((int[]) result).length;
+		}
+		else if (result instanceof int[][]) {
+			for (int[] updateCounts : (int[][]) result) {
+				batchSize += updateCounts.length;
+			}
+		}
+		observer.statementExecuted(sql, duration, rowCount, batchSize);
+	}
+
+	/**
+	 * Determine the number of rows extracted by the given ResultSetExtractor,
+	 * if known.
+	 */
+	private static long countRows(ResultSetExtractor<?> rse, @Nullable Object result) {
+		if (rse instanceof RowMapperResultSetExtractor && result instanceof List) {
+			return ((List<?>) result).size();
+		}
+		else if (rse instanceof RowCallbackHandlerResultSetExtractor) {
+			return ((RowCallbackHandlerResultSetExtractor) rse).getRowCount();
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Internal interface for query callbacks that know the number of rows
+	 * they fetched.
+	 */
+	private interface RowCountProvider {
+
+		long getRowCount();
+	}
+
 
 	/**
 	 * Invocation handler that suppresses close calls on JDBC Connections.
@@ -1685,6 +2047,8 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		private final RowCallbackHandler rch;
 
+		private long rowCount;
+
 		public RowCallbackHandlerResultSetExtractor(RowCallbackHandler rch) {
 			this.rch = rch;
 		}
@@ -1694,9 +2058,14 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		public Object extractData(ResultSet rs) throws SQLException {
 			while (rs.next()) {
 				this.rch.processRow(rs);
+				this.rowCount++;
 			}
 			return null;
 		}
+
+		public long getRowCount() {
+			return this.rowCount;
+		}
 	}
 
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for observing the statements executed by a
+ * {@link JdbcTemplate}, for instance to collect timing statistics.
+ * Register an observer through {@link JdbcTemplate#setStatementObserver};
+ * for a {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate},
+ * register it on the underlying {@code JdbcTemplate}.
+ *
+ * <p>Each statement executed through a {@code Statement},
+ * {@code PreparedStatement}, or {@code CallableStatement} callback ends with
+ * either {@link #statementExecuted} or one of the {@code statementFailed}
+ * variants, the latter for an {@code SQLException} thrown by the JDBC driver,
+ * or for a {@code RuntimeException} thrown by the callback itself, e.g. by a
+ * {@link RowMapper}. The duration
+ * covers creating and executing the statement, and extracting the results;
+ * for queries returning a {@code Stream}, it ends once the stream was created.
+ *
+ * <p>Callbacks are invoked on the thread that executes the statement, and
+ * should therefore be fast and not throw exceptions.
+ *
+ * @since 5.3.2
+ * @see StatementStatistics
+ */
+public interface StatementObserver {
+
+	/**
+	 * Invoked when a connection was obtained from the {@code DataSource},
+	 * or bound to the current transaction.
+	 * @param duration the time to obtain the connection
+	 */
+	default void connectionObtained(Duration duration) {
+	}
+
+	/**
+	 * Invoked when a statement was executed successfully.
+	 * @param sql the SQL, or {@code null} if not known
+	 * @param duration the time to execute the statement
+	 * @param rowCount the number of rows fetched by a query, or -1 if not
+	 * a query or not known, e.g. for a custom {@link ResultSetExtractor}
+	 * @param batchSize the number of statements executed as batch, or 0 if
+	 * not a batch
+	 */
+	default void statementExecuted(@Nullable String sql, Duration duration, long rowCount, int batchSize) {
+	}
+
+	/**
+	 * Invoked when a statement failed.
+	 * @param sql the SQL, or {@code null} if not known
+	 * @param duration the time until the statement failed
+	 * @param ex the exception thrown by the JDBC driver
+	 */
+	default void statementFailed(@Nullable String sql, Duration duration, SQLException ex) {
+	}
+
+	/**
+	 * Invoked when a statement failed with a {@code RuntimeException} other
+	 * than an {@code SQLException} thrown by the JDBC driver, e.g. from a
+	 * {@link RowMapper} or an application callback, or from the translation
+	 * of an {@code SQLWarning}.
+	 * @param sql the SQL, or {@code null} if not known
+	 * @param duration the time until the statement failed
+	 * @param ex the exception thrown
+	 * @see #statementFailed(String, Duration, SQLException)
+	 */
+	default void statementFailed(@Nullable String sql, Duration duration, RuntimeException ex) {
+	}
+
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * {@link StatementObserver} that keeps statistics per normalized SQL
+ * statement, statistics for obtaining connections, and the slowest
+ * statement executions.
+ *
+ * <p>SQL statements are normalized by replacing literals with {@code ?},
+ * collapsing lists of placeholders such as an expanded {@code IN} clause
+ * into a single one, and collapsing whitespace, so that statements that
+ * only differ in their parameters are counted together.
+ *
+ * <p>The number of distinct statements that are tracked is limited, and
+ * further statements are only counted in the connection and slow statement
+ * statistics. Slow statements are tracked with a threshold check that does
+ * not require locking for executions that are faster than the slowest ones.
+ *
+ * <pre class="code">
+ * StatementStatistics statistics = new StatementStatistics();
+ * jdbcTemplate.setStatementObserver(statistics);
+ * </pre>
+ *
+ * @since 5.3.2
+ */
+public class StatementStatistics implements StatementObserver {
+
+	private static final int DEFAULT_MAX_STATEMENTS = 1000;
+
+	private static final int DEFAULT_MAX_SLOW_STATEMENTS = 10;
+
+	private static final Comparator<SlowStatement> SLOW_STATEMENT_ORDER =
+			Comparator.comparing(SlowStatement::getDuration);
+
+
+	private final int maxStatements;
+
+	private final int maxSlowStatements;
+
+	private final ConcurrentLruCache<String, String> normalizedSqlCache =
+			new ConcurrentLruCache<>(256, StatementStatistics::normalizeSql);
+
+	private final ConcurrentMap<String, SqlStatistics> sqlStatistics = new ConcurrentHashMap<>();
+
+	private final LongAdder connectionCount = new LongAdder();
+
+	private final LongAdder totalConnectionNanos = new LongAdder();
+
+	private final AtomicLong maxConnectionNanos = new AtomicLong();
+
+	private final PriorityQueue<SlowStatement> slowStatements;
+
+	private volatile long slowThresholdNanos = -1;
+
+
+	/**
+	 * Create an instance that tracks up to 1000 distinct statements and the
+	 * 10 slowest executions.
+	 */
+	public StatementStatistics() {
+		this(DEFAULT_MAX_STATEMENTS, DEFAULT_MAX_SLOW_STATEMENTS);
+	}
+
+	/**
+	 * Create an instance with the given limits.
+	 * @param maxStatements the maximum number of distinct normalized
+	 * statements to keep statistics for
+	 * @param maxSlowStatements the number of slowest executions to keep
+	 */
+	public StatementStatistics(int maxStatements, int maxSlowStatements) {
+		Assert.isTrue(maxStatements >= 0, "Max statements must not be negative");
+		Assert.isTrue(maxSlowStatements >= 0, "Max slow statements must not be negative");
+		this.maxStatements = maxStatements;
+		this.maxSlowStatements = maxSlowStatements;
+		this.slowStatements = new PriorityQueue<>(Math.max(maxSlowStatements, 1), SLOW_STATEMENT_ORDER);
+	}
+
+
+	/**
+	 * Return the statistics for all tracked statements, keyed by normalized SQL.
+	 */
+	public Map<String, SqlStatistics> getSqlStatistics() {
+		return Collections.unmodifiableMap(this.sqlStatistics);
+	}
+
+	/**
+	 * Return the statistics for the given SQL statement.
+	 * @param sql the SQL statement, normalized or not
+	 * @return the statistics, or {@code null} if the statement was not
+	 * executed or not tracked
+	 */
+	@Nullable
+	public SqlStatistics getSqlStatistics(String sql) {
+		return this.sqlStatistics.get(this.normalizedSqlCache.get(sql));
+	}
+
+	/**
+	 * Return the slowest statement executions, slowest first.
+	 */
+	public List<SlowStatement> getSlowStatements() {
+		List<SlowStatement> result;
+		synchronized (this.slowStatements) {
+			result = new ArrayList<>(this.slowStatements);
+		}
+		result.sort(SLOW_STATEMENT_ORDER.reversed());
+		return result;
+	}
+
+	/**
+	 * Return the number of connections obtained.
+	 */
+	public long getConnectionCount() {
+		return this.connectionCount.sum();
+	}
+
+	/**
+	 * Return the average time to obtain a connection.
+	 */
+	public Duration getMeanConnectionTime() {
+		long count = this.connectionCount.sum();
+		return Duration.ofNanos(count > 0 ? this.totalConnectionNanos.sum() / count : 0);
+	}
+
+	/**
+	 * Return the longest time to obtain a connection.
+	 */
+	public Duration getMaxConnectionTime() {
+		return Duration.ofNanos(this.maxConnectionNanos.get());
+	}
+
+	/**
+	 * Clear all statistics.
+	 */
+	public void reset() {
+		this.sqlStatistics.clear();
+		this.connectionCount.reset();
+		this.totalConnectionNanos.reset();
+		this.maxConnectionNanos.set(0);
+		synchronized (this.slowStatements) {
+			this.slowStatements.clear();
+			this.slowThresholdNanos = -1;
+		}
+	}
+
+
+	@Override
+	public void connectionObtained(Duration duration) {
+		long nanos = duration.toNanos();
+		this.connectionCount.increment();
+		this.totalConnectionNanos.add(nanos);
+		this.maxConnectionNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	@Override
+	public void statementExecuted(@Nullable String sql, Duration duration, long rowCount, int batchSize) {
+		if (sql != null) {
+			SqlStatistics statistics = obtainSqlStatistics(sql);
+			if (statistics != null) {
+				statistics.executed(duration.toNanos(), rowCount, batchSize);
+			}
+			recordSlowStatement(sql, duration, rowCount, batchSize);
+		}
+	}
+
+	@Override
+	public void statementFailed(@Nullable String sql, Duration duration, SQLException ex) {
+		recordFailure(sql);
+	}
+
+	@Override
+	public void statementFailed(@Nullable String sql, Duration duration, RuntimeException ex) {
+		recordFailure(sql);
+	}
+
+	private void recordFailure(@Nullable String sql) {
+		if (sql != null) {
+			SqlStatistics statistics = obtainSqlStatistics(sql);
+			if (statistics != null) {
+				statistics.failed();
+			}
+		}
+	}
+
+	@Nullable
+	private SqlStatistics obtainSqlStatistics(String sql) {
+		String normalizedSql = this.normalizedSqlCache.get(sql);
+		SqlStatistics statistics = this.sqlStatistics.get(normalizedSql);
+		if (statistics == null && this.sqlStatistics.size() < this.maxStatements) {
+			statistics = this.sqlStatistics.computeIfAbsent(normalizedSql, SqlStatistics::new);
+		}
+		return statistics;
+	}
+
+	private void recordSlowStatement(String sql, Duration duration, long rowCount, int batchSize) {
+		long nanos = duration.toNanos();
+		if (this.maxSlowStatements == 0 || nanos <= this.slowThresholdNanos) {
+			return;
+		}
+		synchronized (this.slowStatements) {
+			this.slowStatements.add(new SlowStatement(sql, duration, rowCount, batchSize, Instant.now()));
+			if (this.slowStatements.size() > this.maxSlowStatements) {
+				this.slowStatements.poll();
+			}
+			if (this.slowStatements.size() == this.maxSlowStatements) {
+				this.slowThresholdNanos = this.slowStatements.element().getDuration().toNanos();
+			}
+		}
+	}
+
+
+	/**
+	 * Normalize the given SQL statement by replacing string and numeric
+	 * literals with {@code ?}, collapsing lists of placeholders into a single
+	 * one, and collapsing whitespace.
+	 * @param sql the SQL statement
+	 * @return the normalized SQL statement
+	 */
+	public static String normalizeSql(String sql) {
+		int length = sql.length();
+		StringBuilder sb = new StringBuilder(length);
+		boolean pendingSpace = false;
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				pendingSpace = (sb.length() > 0);
+				i++;
+				continue;
+			}
+			if (pendingSpace) {
+				sb.append(' ');
+				pendingSpace = false;
+			}
+			if (c == '\'') {
+				i = skipQuoted(sql, i, '\'');
+				appendPlaceholder(sb);
+			}
+			else if (c == '"') {
+				int end = skipQuoted(sql, i, '"');
+				sb.append(sql, i, end);
+				i = end;
+			}
+			else if (c == '?') {
+				i++;
+				appendPlaceholder(sb);
+			}
+			else if (Character.isDigit(c) && !isIdentifierEnd(sb)) {
+				while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+					i++;
+				}
+				appendPlaceholder(sb);
+			}
+			else {
+				sb.append(c);
+				i++;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static int skipQuoted(String sql, int start, char quote) {
+		int i = start + 1;
+		while (i < sql.length()) {
+			if (sql.charAt(i) == quote) {
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isIdentifierEnd(StringBuilder sb) {
+		if (sb.length() == 0) {
+			return false;
+		}
+		char c = sb.charAt(sb.length() - 1);
+		return (Character.isLetterOrDigit(c) || c == '_' || c == '$');
+	}
+
+	private static void appendPlaceholder(StringBuilder sb) {
+		int end = sb.length();
+		if (end > 0 && sb.charAt(end - 1) == ' ') {
+			end--;
+		}
+		if (end > 1 && sb.charAt(end - 1) == ',' && sb.charAt(end - 2) == '?') {
+			sb.setLength(end - 1);
+		}
+		else {
+			sb.append('?');
+		}
+	}
+
+
+	/**
+	 * Statistics for the executions of a single normalized SQL statement.
+	 */
+	public static final class SqlStatistics {
+
+		private final String sql;
+
+		private final LongAdder executionCount = new LongAdder();
+
+		private final LongAdder errorCount = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private final LongAdder rowCount = new LongAdder();
+
+		private final LongAdder batchCount = new LongAdder();
+
+		private final LongAdder batchItemCount = new LongAdder();
+
+		SqlStatistics(String sql) {
+			this.sql = sql;
+		}
+
+		void executed(long nanos, long rows, int batchSize) {
+			this.executionCount.increment();
+			this.totalNanos.add(nanos);
+			this.maxNanos.accumulateAndGet(nanos, Math::max);
+			if (rows > 0) {
+				this.rowCount.add(rows);
+			}
+			if (batchSize > 0) {
+				this.batchCount.increment();
+				this.batchItemCount.add(batchSize);
+			}
+		}
+
+		void failed() {
+			this.errorCount.increment();
+		}
+
+		/**
+		 * Return the normalized SQL statement.
+		 */
+		public String getSql() {
+			return this.sql;
+		}
+
+		/**
+		 * Return the number of successful executions.
+		 */
+		public long getExecutionCount() {
+			return this.executionCount.sum();
+		}
+
+		/**
+		 * Return the number of failed executions.
+		 */
+		public long getErrorCount() {
+			return this.errorCount.sum();
+		}
+
+		/**
+		 * Return the total time of successful executions.
+		 */
+		public Duration getTotalTime() {
+			return Duration.ofNanos(this.totalNanos.sum());
+		}
+
+		/**
+		 * Return the average time of successful executions.
+		 */
+		public Duration getMeanTime() {
+			long count = this.executionCount.sum();
+			return Duration.ofNanos(count > 0 ? this.totalNanos.sum() / count : 0);
+		}
+
+		/**
+		 * Return the longest time of a successful execution.
+		 */
+		public Duration getMaxTime() {
+			return Duration.ofNanos(this.maxNanos.get());
+		}
+
+		/**
+		 * Return the total number of rows fetched, as far as known.
+		 */
+		public long getRowCount() {
+			return this.rowCount.sum();
+		}
+
+		/**
+		 * Return the number of executions as batch.
+		 */
+		public long getBatchCount() {
+			return this.batchCount.sum();
+		}
+
+		/**
+		 * Return the total number of statements executed in batches.
+		 */
+		public long getBatchItemCount() {
+			return this.batchItemCount.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "SqlStatistics[" + this.sql + ", executions=" + getExecutionCount() +
+					", errors=" + getErrorCount() + ", mean=" + getMeanTime().toMillis() +
+					"ms, max=" + getMaxTime().toMillis() + "ms, rows=" + getRowCount() + "]";
+		}
+	}
+
+
+	/**
+	 * A single slow statement execution.
+	 */
+	public static final class SlowStatement {
+
+		private final String sql;
+
+		private final Duration duration;
+
+		private final long rowCount;
+
+		private final int batchSize;
+
+		private final Instant timestamp;
+
+		SlowStatement(String sql, Duration duration, long rowCount, int batchSize, Instant timestamp) {
+			this.sql = sql;
+			this.duration = duration;
+			this.rowCount = rowCount;
+			this.batchSize = batchSize;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * Return the SQL statement as executed, not normalized.
+		 */
+		public String getSql() {
+			return this.sql;
+		}
+
+		/**
+		 * Return the execution time.
+		 */
+		public Duration getDuration() {
+			return this.duration;
+		}
+
+		/**
+		 * Return the number of rows fetched, or -1 if not known.
+		 */
+		public long getRowCount() {
+			return this.rowCount;
+		}
+
+		/**
+		 * Return the number of statements executed as batch, or 0 if not a batch.
+		 */
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		/**
+		 * Return the time when the execution completed.
+		 */
+		public Instant getTimestamp() {
+			return this.timestamp;
+		}
+
+		@Override
+		public String toString() {
+			return "SlowStatement[" + this.sql + ", duration=" + this.duration.toMillis() +
+					"ms, rows=" + this.rowCount + ", at " + this.timestamp + "]";
+		}
+	}
+
+}
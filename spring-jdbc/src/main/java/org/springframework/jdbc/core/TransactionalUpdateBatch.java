@@ -0,0 +1,300 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SavepointSynchronization;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Batch of prepared SQL updates that are deferred until the end of the
+ * current transaction, or until the SQL changes or another statement is
+ * executed against the same {@code DataSource}. Bound as a transactional
+ * resource, and registered as a synchronization that executes the pending
+ * updates before commit and before a savepoint is created, and discards them
+ * on rollback to a savepoint, so that updates deferred within a nested
+ * transaction share its outcome.
+ *
+ * @since 5.3.2
+ * @see JdbcTemplate#setTransactionalBatchSize
+ */
+final class TransactionalUpdateBatch implements SavepointSynchronization {
+
+	private static final int[] NO_UPDATE_COUNTS = new int[0];
+
+	private static final Log logger = LogFactory.getLog(TransactionalUpdateBatch.class);
+
+	/** Whether a batch has ever been bound, so that lookups can be skipped until then. */
+	private static volatile boolean anyBound;
+
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final DataSource dataSource;
+
+	private final ResourceKey resourceKey;
+
+	private final int batchSize;
+
+	private final Connection connection;
+
+	@Nullable
+	private String sql;
+
+	@Nullable
+	private PreparedStatement statement;
+
+	private int pendingCount;
+
+	private final List<ParameterDisposer> parameterDisposers = new ArrayList<>();
+
+	private boolean closed;
+
+
+	private TransactionalUpdateBatch(JdbcTemplate jdbcTemplate, DataSource dataSource, int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = dataSource;
+		this.resourceKey = new ResourceKey(dataSource);
+		this.batchSize = batchSize;
+		this.connection = DataSourceUtils.getConnection(dataSource);
+	}
+
+
+	/**
+	 * Add the given update to the batch, executing the pending updates first
+	 * if their SQL is different, or once the batch size is reached.
+	 */
+	void add(String sql, @Nullable PreparedStatementSetter pss) throws SQLException {
+		PreparedStatement ps = this.statement;
+		if (ps != null && !sql.equals(this.sql)) {
+			executePending();
+			closeStatement();
+			ps = null;
+		}
+		if (ps == null) {
+			ps = this.connection.prepareStatement(sql);
+			this.statement = ps;
+			this.sql = sql;
+			this.jdbcTemplate.applyStatementSettings(ps);
+		}
+		if (pss != null) {
+			pss.setValues(ps);
+			if (pss instanceof ParameterDisposer) {
+				this.parameterDisposers.add((ParameterDisposer) pss);
+			}
+		}
+		ps.addBatch();
+		this.pendingCount++;
+		if (this.pendingCount >= this.batchSize) {
+			executePending();
+		}
+	}
+
+	/**
+	 * Execute the pending updates, if any.
+	 * @return the update counts of the pending updates
+	 * @throws DataAccessException if the batch update fails
+	 */
+	int[] executeBatch() throws DataAccessException {
+		try {
+			return executePending();
+		}
+		catch (SQLException ex) {
+			throw this.jdbcTemplate.translateException("TransactionalUpdateBatch", this.sql, ex);
+		}
+	}
+
+	private int[] executePending() throws SQLException {
+		PreparedStatement ps = this.statement;
+		if (ps == null || this.pendingCount == 0) {
+			return NO_UPDATE_COUNTS;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing " + this.pendingCount +
+					" deferred SQL updates as batch [" + this.sql + "]");
+		}
+		this.pendingCount = 0;
+		try {
+			return ps.executeBatch();
+		}
+		finally {
+			cleanupParameters();
+		}
+	}
+
+	/**
+	 * Discard the pending updates without executing them.
+	 */
+	private void discard() {
+		if (this.pendingCount > 0 && logger.isDebugEnabled()) {
+			logger.debug("Discarding " + this.pendingCount +
+					" deferred SQL updates after rollback to savepoint [" + this.sql + "]");
+		}
+		this.pendingCount = 0;
+		cleanupParameters();
+		closeStatement();
+	}
+
+	private void cleanupParameters() {
+		for (ParameterDisposer disposer : this.parameterDisposers) {
+			disposer.cleanupParameters();
+		}
+		this.parameterDisposers.clear();
+	}
+
+	private void closeStatement() {
+		JdbcUtils.closeStatement(this.statement);
+		this.statement = null;
+		this.sql = null;
+	}
+
+	private void close() {
+		if (!this.closed) {
+			this.closed = true;
+			this.pendingCount = 0;
+			cleanupParameters();
+			closeStatement();
+			DataSourceUtils.releaseConnection(this.connection, this.dataSource);
+			if (TransactionSynchronizationManager.getResource(this.resourceKey) == this) {
+				TransactionSynchronizationManager.unbindResource(this.resourceKey);
+			}
+		}
+	}
+
+
+	@Override
+	public int getOrder() {
+		return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 100;
+	}
+
+	@Override
+	public void suspend() {
+		try {
+			executeBatch();
+		}
+		finally {
+			close();
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (!this.closed) {
+			executeBatch();
+		}
+	}
+
+	@Override
+	public void beforeSavepoint(Connection con) {
+		if (!this.closed && con == this.connection) {
+			executeBatch();
+		}
+	}
+
+	@Override
+	public void afterRollbackToSavepoint(Connection con) {
+		if (!this.closed && con == this.connection) {
+			discard();
+		}
+	}
+
+	@Override
+	public void beforeCommit(boolean readOnly) {
+		if (!this.closed) {
+			executeBatch();
+		}
+	}
+
+	@Override
+	public void beforeCompletion() {
+		close();
+	}
+
+
+	/**
+	 * Return whether a batch has ever been bound to a transaction, in which
+	 * case {@link #getBatch} needs to be consulted before other statements.
+	 */
+	static boolean isAnyBound() {
+		return anyBound;
+	}
+
+	/**
+	 * Return the batch bound to the current transaction for the given
+	 * {@code DataSource}, if any.
+	 */
+	@Nullable
+	static TransactionalUpdateBatch getBatch(DataSource dataSource) {
+		return (TransactionalUpdateBatch) TransactionSynchronizationManager.getResource(new ResourceKey(dataSource));
+	}
+
+	/**
+	 * Return the batch bound to the current transaction for the given
+	 * {@code DataSource}, creating and binding a new one if necessary.
+	 */
+	static TransactionalUpdateBatch obtainBatch(JdbcTemplate jdbcTemplate, DataSource dataSource, int batchSize) {
+		TransactionalUpdateBatch batch = getBatch(dataSource);
+		if (batch == null) {
+			anyBound = true;
+			batch = new TransactionalUpdateBatch(jdbcTemplate, dataSource, batchSize);
+			TransactionSynchronizationManager.bindResource(batch.resourceKey, batch);
+			TransactionSynchronizationManager.registerSynchronization(batch);
+		}
+		return batch;
+	}
+
+
+	/**
+	 * Key for binding a batch as a transactional resource, distinct from the
+	 * {@code DataSource} itself which is the key for its connection.
+	 */
+	private static final class ResourceKey {
+
+		private final DataSource dataSource;
+
+		ResourceKey(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof ResourceKey &&
+					ObjectUtils.nullSafeEquals(this.dataSource, ((ResourceKey) other).dataSource)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.dataSource.hashCode();
+		}
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.metadata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Cache for {@link TableMetaDataProvider} and {@link CallMetaDataProvider}
+ * instances, allowing {@code SimpleJdbcInsert} and {@code SimpleJdbcCall}
+ * instances for the same table or procedure to share the database meta-data
+ * instead of retrieving it again on compilation.
+ *
+ * <p>Providers are keyed by the database URL and user name as reported by
+ * the JDBC driver, which are retrieved once per {@code DataSource}, as well
+ * as the catalog, schema, and table or procedure name and the meta-data
+ * options of the context. As a consequence, different {@code DataSource}
+ * instances for the same database share their providers as well.
+ *
+ * <p>The cache can be pre-populated on startup through
+ * {@link #preloadTableMetaData} and {@link #preloadCallMetaData}, or simply
+ * by compiling the
+ * {@code SimpleJdbcInsert} and {@code SimpleJdbcCall} instances. Cached
+ * meta-data is not refreshed, so the cache should be {@linkplain #clear()
+ * cleared} after changes to the database schema.
+ *
+ * @since 5.3.2
+ * @see TableMetaDataContext#setMetaDataProviderCache
+ * @see CallMetaDataContext#setMetaDataProviderCache
+ */
+public class MetaDataProviderCache {
+
+	private static final MetaDataProviderCache sharedInstance = new MetaDataProviderCache();
+
+	private static final Log logger = LogFactory.getLog(MetaDataProviderCache.class);
+
+
+	private final Map<DataSource, Object> databaseKeys =
+			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+	private final Map<List<Object>, TableMetaDataProvider> tableMetaDataProviders = new ConcurrentHashMap<>();
+
+	private final Map<List<Object>, CallMetaDataProvider> callMetaDataProviders = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Return the shared cache instance for the application.
+	 */
+	public static MetaDataProviderCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+
+	/**
+	 * Return the {@link TableMetaDataProvider} for the given context,
+	 * creating it through {@link TableMetaDataProviderFactory} if necessary.
+	 * @param dataSource used to retrieve meta-data
+	 * @param context the class that holds configuration and meta-data
+	 * @return the TableMetaDataProvider to be used
+	 */
+	public TableMetaDataProvider getTableMetaDataProvider(DataSource dataSource, TableMetaDataContext context) {
+		List<Object> key = Arrays.asList(getDatabaseKey(dataSource),
+				context.getCatalogName(), context.getSchemaName(), context.getTableName(),
+				context.isAccessTableColumnMetaData(), context.isOverrideIncludeSynonymsDefault());
+		TableMetaDataProvider provider = this.tableMetaDataProviders.get(key);
+		if (provider == null) {
+			provider = TableMetaDataProviderFactory.createMetaDataProvider(dataSource, context);
+			TableMetaDataProvider existing = this.tableMetaDataProviders.putIfAbsent(key, provider);
+			if (existing != null) {
+				provider = existing;
+			}
+		}
+		else if (logger.isTraceEnabled()) {
+			logger.trace("Using cached table meta-data for " + key);
+		}
+		return provider;
+	}
+
+	/**
+	 * Return the {@link CallMetaDataProvider} for the given context,
+	 * creating it through {@link CallMetaDataProviderFactory} if necessary.
+	 * @param dataSource the JDBC DataSource to use for retrieving meta-data
+	 * @param context the class that holds configuration and meta-data
+	 * @return the CallMetaDataProvider to be used
+	 */
+	public CallMetaDataProvider getCallMetaDataProvider(DataSource dataSource, CallMetaDataContext context) {
+		List<Object> key = Arrays.asList(getDatabaseKey(dataSource),
+				context.getCatalogName(), context.getSchemaName(), context.getProcedureName(),
+				context.isFunction(), context.isAccessCallParameterMetaData());
+		CallMetaDataProvider provider = this.callMetaDataProviders.get(key);
+		if (provider == null) {
+			provider = CallMetaDataProviderFactory.createMetaDataProvider(dataSource, context);
+			CallMetaDataProvider existing = this.callMetaDataProviders.putIfAbsent(key, provider);
+			if (existing != null) {
+				provider = existing;
+			}
+		}
+		else if (logger.isTraceEnabled()) {
+			logger.trace("Using cached call meta-data for " + key);
+		}
+		return provider;
+	}
+
+	/**
+	 * Retrieve and cache the meta-data for the given tables, as used by a
+	 * {@code SimpleJdbcInsert} with default meta-data options.
+	 * @param dataSource used to retrieve meta-data
+	 * @param catalogName the catalog name, or {@code null} if none
+	 * @param schemaName the schema name, or {@code null} if none
+	 * @param tableNames the names of the tables
+	 */
+	public void preloadTableMetaData(DataSource dataSource, @Nullable String catalogName,
+			@Nullable String schemaName, String... tableNames) {
+
+		for (String tableName : tableNames) {
+			TableMetaDataContext context = new TableMetaDataContext();
+			context.setCatalogName(catalogName);
+			context.setSchemaName(schemaName);
+			context.setTableName(tableName);
+			getTableMetaDataProvider(dataSource, context);
+		}
+	}
+
+	/**
+	 * Retrieve and cache the meta-data for the given stored procedure or
+	 * function, as used by a {@code SimpleJdbcCall} with default meta-data
+	 * options.
+	 * @param dataSource used to retrieve meta-data
+	 * @param catalogName the catalog name, or {@code null} if none
+	 * @param schemaName the schema name, or {@code null} if none
+	 * @param procedureName the name of the procedure or function
+	 * @param isFunction whether the call is for a function rather than a
+	 * procedure
+	 */
+	public void preloadCallMetaData(DataSource dataSource, @Nullable String catalogName,
+			@Nullable String schemaName, String procedureName, boolean isFunction) {
+
+		CallMetaDataContext context = new CallMetaDataContext();
+		context.setCatalogName(catalogName);
+		context.setSchemaName(schemaName);
+		context.setProcedureName(procedureName);
+		context.setFunction(isFunction);
+		getCallMetaDataProvider(dataSource, context);
+	}
+
+	/**
+	 * Remove all cached meta-data.
+	 */
+	public void clear() {
+		this.databaseKeys.clear();
+		this.tableMetaDataProviders.clear();
+		this.callMetaDataProviders.clear();
+	}
+
+	/**
+	 * Determine the key for the database of the given {@code DataSource}:
+	 * its URL and user name if available, or an identity token otherwise,
+	 * in order not to hold on to the DataSource in the cache keys.
+	 */
+	private Object getDatabaseKey(DataSource dataSource) {
+		Object key = this.databaseKeys.get(dataSource);
+		if (key == null) {
+			try {
+				key = JdbcUtils.extractDatabaseMetaData(dataSource, databaseMetaData -> {
+					String url = databaseMetaData.getURL();
+					return (url != null ? url + "|" + databaseMetaData.getUserName() : new Object());
+				});
+			}
+			catch (MetaDataAccessException ex) {
+				throw new DataAccessResourceFailureException("Error retrieving database meta-data", ex);
+			}
+			Object existing = this.databaseKeys.putIfAbsent(dataSource, key);
+			if (existing != null) {
+				key = existing;
+			}
+		}
+		return key;
+	}
+
+}
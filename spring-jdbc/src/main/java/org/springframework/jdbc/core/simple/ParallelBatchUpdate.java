@@ -0,0 +1,641 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A ParallelBatchUpdate executes a prepared SQL statement, typically an
+ * insert, for a large number of items as JDBC batches on several connections
+ * in parallel. It is designed for non-transactional bulk loads where
+ * {@link JdbcTemplate#batchUpdate(String, java.util.Collection, int, ParameterizedPreparedStatementSetter)}
+ * would execute all batches sequentially on a single connection.
+ *
+ * <p>The items are partitioned into chunks of the configured batch size, which
+ * are picked up by the configured number of workers. Each worker uses its own
+ * connection from the {@code DataSource}, executes each chunk as one batch and
+ * commits it right away. A chunk that fails is rolled back and, if configured,
+ * retried on a fresh connection. Chunks that were committed remain committed
+ * even if other chunks fail, so the SQL should be safe to re-run for failed
+ * chunks, or the target table should be cleaned up on failure.
+ *
+ * <p>Items are pulled from the given {@code Iterable} as workers become
+ * available, so the input does not need to be held in memory as a whole.
+ *
+ * <p>Many of the configuration methods return the current instance of the
+ * ParallelBatchUpdate to provide the ability to chain multiple ones together
+ * in a "fluent" interface style. An instance can be executed multiple times,
+ * but the configuration should not be changed while it is executing.
+ *
+ * @since 5.3.2
+ * @param <T> the item type
+ * @see JdbcTemplate#batchUpdate(String, java.util.Collection, int, ParameterizedPreparedStatementSetter)
+ */
+public class ParallelBatchUpdate<T> {
+
+	/** Logger available to subclasses. */
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final String sql;
+
+	private final ParameterizedPreparedStatementSetter<T> setter;
+
+	private int parallelism = 4;
+
+	private int batchSize = 1000;
+
+	private int maxRetries = 0;
+
+	private boolean continueOnError = false;
+
+	private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("ParallelBatchUpdate-");
+
+	@Nullable
+	private Consumer<Progress> progressListener;
+
+
+	/**
+	 * Create a new {@code ParallelBatchUpdate} for the given DataSource.
+	 * @param dataSource the {@code DataSource} to obtain connections from
+	 * @param sql the SQL statement to execute for each item
+	 * @param setter the callback to set the parameters for an item
+	 */
+	public ParallelBatchUpdate(DataSource dataSource, String sql, ParameterizedPreparedStatementSetter<T> setter) {
+		this(new JdbcTemplate(dataSource), sql, setter);
+	}
+
+	/**
+	 * Create a new {@code ParallelBatchUpdate} for the DataSource and the
+	 * exception translator of the given JdbcTemplate.
+	 * @param jdbcTemplate the {@code JdbcTemplate} to use
+	 * @param sql the SQL statement to execute for each item
+	 * @param setter the callback to set the parameters for an item
+	 */
+	public ParallelBatchUpdate(JdbcTemplate jdbcTemplate, String sql, ParameterizedPreparedStatementSetter<T> setter) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		Assert.hasText(sql, "SQL must not be empty");
+		Assert.notNull(setter, "ParameterizedPreparedStatementSetter must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+		this.sql = sql;
+		this.setter = setter;
+	}
+
+
+	/**
+	 * Specify the number of connections to execute batches on in parallel.
+	 * <p>Default is 4. The connection pool of the {@code DataSource} should
+	 * allow for at least as many connections.
+	 */
+	public ParallelBatchUpdate<T> withParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Specify the number of items per batch, and therefore per commit.
+	 * <p>Default is 1000.
+	 */
+	public ParallelBatchUpdate<T> withBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Specify how many times a failed batch is retried on a fresh connection.
+	 * <p>Default is 0, not retrying failed batches.
+	 */
+	public ParallelBatchUpdate<T> withMaxRetries(int maxRetries) {
+		Assert.isTrue(maxRetries >= 0, "Max retries must not be negative");
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	/**
+	 * Specify whether to continue with the remaining batches when a batch
+	 * failed after all retries.
+	 * <p>Default is {@code false}, stopping all workers after their current
+	 * batch and throwing the exception of the failed batch. If {@code true},
+	 * failed batches are reported through {@link Result#getFailedChunks()}.
+	 */
+	public ParallelBatchUpdate<T> withContinueOnError(boolean continueOnError) {
+		this.continueOnError = continueOnError;
+		return this;
+	}
+
+	/**
+	 * Specify the executor to run the workers on.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}, using a new thread per
+	 * worker. The executor must be able to run as many tasks concurrently as
+	 * the configured parallelism.
+	 */
+	public ParallelBatchUpdate<T> withTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+		return this;
+	}
+
+	/**
+	 * Specify a listener to be notified of the progress after each batch.
+	 * <p>The listener is invoked from the worker threads, and should therefore
+	 * be thread-safe and fast.
+	 */
+	public ParallelBatchUpdate<T> withProgressListener(Consumer<Progress> progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+
+	/**
+	 * Execute the SQL statement for the given items, and wait until all
+	 * batches completed.
+	 * @param items the items to execute the SQL statement for
+	 * @return the result, including the number of updated rows and any
+	 * failed chunks if {@linkplain #withContinueOnError continuing on errors}
+	 * @throws DataAccessException if a batch failed after all retries and
+	 * not continuing on errors
+	 */
+	public Result execute(Iterable<? extends T> items) throws DataAccessException {
+		Assert.notNull(items, "Items must not be null");
+		Execution execution = new Execution(items.iterator());
+		CountDownLatch latch = new CountDownLatch(this.parallelism);
+		for (int i = 0; i < this.parallelism; i++) {
+			try {
+				this.taskExecutor.execute(() -> {
+					try {
+						execution.runWorker();
+					}
+					finally {
+						latch.countDown();
+					}
+				});
+			}
+			catch (RuntimeException ex) {
+				// Stop the workers that were started, and wait for them before rethrowing
+				execution.abort();
+				for (int j = i; j < this.parallelism; j++) {
+					latch.countDown();
+				}
+				awaitWorkers(execution, latch);
+				throw ex;
+			}
+		}
+		awaitWorkers(execution, latch);
+		return execution.getResult();
+	}
+
+	private void awaitWorkers(Execution execution, CountDownLatch latch) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await();
+				break;
+			}
+			catch (InterruptedException ex) {
+				// Let the workers finish their current batch
+				execution.abort();
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	/**
+	 * A single execution of the SQL statement for a sequence of items.
+	 */
+	private class Execution {
+
+		private final Iterator<? extends T> items;
+
+		private final long startTime = System.nanoTime();
+
+		private int nextChunkIndex = 0;
+
+		private long nextItemIndex = 0;
+
+		private volatile boolean aborted;
+
+		private final AtomicLong completedItems = new AtomicLong();
+
+		private final AtomicLong updatedRows = new AtomicLong();
+
+		private final AtomicLong completedChunks = new AtomicLong();
+
+		private final AtomicLong retries = new AtomicLong();
+
+		private final List<FailedChunk> failedChunks = Collections.synchronizedList(new ArrayList<>());
+
+		Execution(Iterator<? extends T> items) {
+			this.items = items;
+		}
+
+		void abort() {
+			this.aborted = true;
+		}
+
+		@Nullable
+		private synchronized Chunk<T> nextChunk() {
+			if (this.aborted || !this.items.hasNext()) {
+				return null;
+			}
+			List<T> chunkItems = new ArrayList<>(batchSize);
+			while (chunkItems.size() < batchSize && this.items.hasNext()) {
+				chunkItems.add(this.items.next());
+			}
+			Chunk<T> chunk = new Chunk<>(this.nextChunkIndex++, this.nextItemIndex, chunkItems);
+			this.nextItemIndex += chunkItems.size();
+			return chunk;
+		}
+
+		void runWorker() {
+			Worker worker = new Worker();
+			try {
+				Chunk<T> chunk;
+				while ((chunk = nextChunk()) != null) {
+					executeChunk(worker, chunk);
+				}
+			}
+			catch (RuntimeException ex) {
+				// Failure to obtain the next items
+				this.failedChunks.add(new FailedChunk(-1, this.nextItemIndex, 0, ex));
+				abort();
+			}
+			finally {
+				worker.close();
+			}
+		}
+
+		private void executeChunk(Worker worker, Chunk<T> chunk) {
+			int attempt = 0;
+			while (true) {
+				try {
+					int[] updateCounts = worker.executeBatch(chunk.items);
+					long rows = 0;
+					for (int count : updateCounts) {
+						rows += Math.max(count, 0);
+					}
+					this.updatedRows.addAndGet(rows);
+					this.completedItems.addAndGet(chunk.items.size());
+					this.completedChunks.incrementAndGet();
+					notifyProgress();
+					return;
+				}
+				catch (SQLException ex) {
+					worker.reset();
+					if (attempt < maxRetries && !this.aborted) {
+						attempt++;
+						this.retries.incrementAndGet();
+						if (logger.isDebugEnabled()) {
+							logger.debug("Retrying batch " + chunk.index + " after failure: " + ex);
+						}
+						continue;
+					}
+					failChunk(chunk, translateException(ex));
+					return;
+				}
+				catch (RuntimeException ex) {
+					worker.reset();
+					failChunk(chunk, ex);
+					return;
+				}
+			}
+		}
+
+		private RuntimeException translateException(SQLException ex) {
+			DataAccessException dae = jdbcTemplate.getExceptionTranslator().translate("ParallelBatchUpdate", sql, ex);
+			return (dae != null ? dae : new UncategorizedSQLException("ParallelBatchUpdate", sql, ex));
+		}
+
+		private void failChunk(Chunk<T> chunk, RuntimeException ex) {
+			this.failedChunks.add(new FailedChunk(chunk.index, chunk.firstItemIndex, chunk.items.size(), ex));
+			if (!continueOnError) {
+				abort();
+			}
+			notifyProgress();
+		}
+
+		private void notifyProgress() {
+			Consumer<Progress> listener = progressListener;
+			if (listener != null) {
+				listener.accept(new Progress(this.completedItems.get(), this.updatedRows.get(),
+						this.completedChunks.get(), this.failedChunks.size(), this.retries.get(),
+						Duration.ofNanos(System.nanoTime() - this.startTime)));
+			}
+		}
+
+		Result getResult() {
+			List<FailedChunk> failed;
+			synchronized (this.failedChunks) {
+				failed = new ArrayList<>(this.failedChunks);
+			}
+			if (!continueOnError && !failed.isEmpty()) {
+				throw failed.get(0).getException();
+			}
+			return new Result(this.completedItems.get(), this.updatedRows.get(), this.completedChunks.get(),
+					this.retries.get(), failed, Duration.ofNanos(System.nanoTime() - this.startTime));
+		}
+	}
+
+
+	/**
+	 * The connection and prepared statement of a single worker.
+	 */
+	private class Worker {
+
+		@Nullable
+		private Connection connection;
+
+		private boolean resetAutoCommit;
+
+		@Nullable
+		private PreparedStatement statement;
+
+		int[] executeBatch(List<T> items) throws SQLException {
+			PreparedStatement ps = this.statement;
+			if (ps == null) {
+				DataSource dataSource = jdbcTemplate.getDataSource();
+				Assert.state(dataSource != null, "No DataSource set");
+				Connection con = DataSourceUtils.getConnection(dataSource);
+				this.connection = con;
+				if (con.getAutoCommit()) {
+					con.setAutoCommit(false);
+					this.resetAutoCommit = true;
+				}
+				ps = con.prepareStatement(sql);
+				this.statement = ps;
+			}
+			for (T item : items) {
+				setter.setValues(ps, item);
+				ps.addBatch();
+			}
+			int[] updateCounts = ps.executeBatch();
+			Assert.state(this.connection != null, "No Connection");
+			this.connection.commit();
+			return updateCounts;
+		}
+
+		/**
+		 * Roll back and close the current connection after a failure,
+		 * so that the next attempt starts on a fresh connection.
+		 */
+		void reset() {
+			if (this.connection != null) {
+				try {
+					this.connection.rollback();
+				}
+				catch (SQLException | RuntimeException ex) {
+					logger.debug("Could not roll back failed batch", ex);
+				}
+			}
+			close();
+		}
+
+		void close() {
+			JdbcUtils.closeStatement(this.statement);
+			this.statement = null;
+			Connection con = this.connection;
+			if (con != null) {
+				if (this.resetAutoCommit) {
+					try {
+						con.setAutoCommit(true);
+					}
+					catch (SQLException | RuntimeException ex) {
+						logger.debug("Could not reset auto-commit", ex);
+					}
+				}
+				DataSourceUtils.releaseConnection(con, jdbcTemplate.getDataSource());
+				this.connection = null;
+				this.resetAutoCommit = false;
+			}
+		}
+	}
+
+
+	/**
+	 * A chunk of items to execute as one batch.
+	 */
+	private static final class Chunk<T> {
+
+		final int index;
+
+		final long firstItemIndex;
+
+		final List<T> items;
+
+		Chunk(int index, long firstItemIndex, List<T> items) {
+			this.index = index;
+			this.firstItemIndex = firstItemIndex;
+			this.items = items;
+		}
+	}
+
+
+	/**
+	 * A snapshot of the progress of an execution.
+	 */
+	public static class Progress {
+
+		private final long completedItems;
+
+		private final long updatedRows;
+
+		private final long completedChunks;
+
+		private final long failedChunkCount;
+
+		private final long retries;
+
+		private final Duration elapsedTime;
+
+		Progress(long completedItems, long updatedRows, long completedChunks, long failedChunkCount,
+				long retries, Duration elapsedTime) {
+
+			this.completedItems = completedItems;
+			this.updatedRows = updatedRows;
+			this.completedChunks = completedChunks;
+			this.failedChunkCount = failedChunkCount;
+			this.retries = retries;
+			this.elapsedTime = elapsedTime;
+		}
+
+		/**
+		 * Return the number of items in committed batches.
+		 */
+		public long getCompletedItems() {
+			return this.completedItems;
+		}
+
+		/**
+		 * Return the number of rows updated by committed batches, as far as
+		 * reported by the JDBC driver.
+		 */
+		public long getUpdatedRows() {
+			return this.updatedRows;
+		}
+
+		/**
+		 * Return the number of committed batches.
+		 */
+		public long getCompletedChunks() {
+			return this.completedChunks;
+		}
+
+		/**
+		 * Return the number of batches that failed after all retries.
+		 */
+		public long getFailedChunkCount() {
+			return this.failedChunkCount;
+		}
+
+		/**
+		 * Return the number of retries of failed batches.
+		 */
+		public long getRetries() {
+			return this.retries;
+		}
+
+		/**
+		 * Return the time since the execution started.
+		 */
+		public Duration getElapsedTime() {
+			return this.elapsedTime;
+		}
+
+		/**
+		 * Return the average number of items per second in committed batches.
+		 */
+		public double getItemsPerSecond() {
+			long nanos = this.elapsedTime.toNanos();
+			return (nanos > 0 ? this.completedItems * 1_000_000_000d / nanos : 0);
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[items=" + this.completedItems + ", rows=" + this.updatedRows +
+					", chunks=" + this.completedChunks + ", failed=" + this.failedChunkCount +
+					", retries=" + this.retries + ", elapsed=" + this.elapsedTime.toMillis() + "ms]";
+		}
+	}
+
+
+	/**
+	 * The result of an execution.
+	 */
+	public static class Result extends Progress {
+
+		private final List<FailedChunk> failedChunks;
+
+		Result(long completedItems, long updatedRows, long completedChunks, long retries,
+				List<FailedChunk> failedChunks, Duration elapsedTime) {
+
+			super(completedItems, updatedRows, completedChunks, failedChunks.size(), retries, elapsedTime);
+			this.failedChunks = Collections.unmodifiableList(failedChunks);
+		}
+
+		/**
+		 * Return the chunks that failed after all retries, if
+		 * {@linkplain ParallelBatchUpdate#withContinueOnError continuing on errors}.
+		 */
+		public List<FailedChunk> getFailedChunks() {
+			return this.failedChunks;
+		}
+	}
+
+
+	/**
+	 * A chunk of items that failed after all retries.
+	 */
+	public static class FailedChunk {
+
+		private final int index;
+
+		private final long firstItemIndex;
+
+		private final int itemCount;
+
+		private final RuntimeException exception;
+
+		FailedChunk(int index, long firstItemIndex, int itemCount, RuntimeException exception) {
+			this.index = index;
+			this.firstItemIndex = firstItemIndex;
+			this.itemCount = itemCount;
+			this.exception = exception;
+		}
+
+		/**
+		 * Return the index of the chunk, or -1 if obtaining the items failed.
+		 */
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Return the position of the first item of the chunk in the input.
+		 */
+		public long getFirstItemIndex() {
+			return this.firstItemIndex;
+		}
+
+		/**
+		 * Return the number of items in the chunk.
+		 */
+		public int getItemCount() {
+			return this.itemCount;
+		}
+
+		/**
+		 * Return the exception that caused the last attempt to fail,
+		 * typically a {@link DataAccessException}.
+		 */
+		public RuntimeException getException() {
+			return this.exception;
+		}
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import javax.sql.DataSource;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.metadata.MetaDataProviderCache;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.KeyHolder;
 
@@ -112,6 +113,20 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return this;
 	}
 
+	/**
+	 * Obtain the table meta-data from the given cache, sharing it with other
+	 * inserts into the same table.
+	 * @param metaDataProviderCache the cache to use, typically
+	 * {@link MetaDataProviderCache#getSharedInstance()}
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 5.3.2
+	 * @see #setMetaDataProviderCache
+	 */
+	public SimpleJdbcInsert withMetaDataProviderCache(MetaDataProviderCache metaDataProviderCache) {
+		setMetaDataProviderCache(metaDataProviderCache);
+		return this;
+	}
+
 	@Override
 	public int execute(Map<String, ?> args) {
 		return doExecute(args);
@@ -16,6 +16,7 @@
 
 package org.springframework.jdbc.datasource;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 
@@ -30,6 +31,8 @@ import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.TransactionUsageException;
 import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 /**
@@ -143,6 +146,8 @@ public abstract class JdbcTransactionObjectSupport implements SavepointManager,
 
 	/**
 	 * This implementation creates a JDBC 3.0 Savepoint and returns it.
+	 * <p>Registered {@link SavepointSynchronization SavepointSynchronizations}
+	 * are given the chance to execute pending work beforehand.
 	 * @see java.sql.Connection#setSavepoint
 	 */
 	@Override
@@ -157,6 +162,14 @@ public abstract class JdbcTransactionObjectSupport implements SavepointManager,
 				throw new CannotCreateTransactionException(
 						"Cannot create savepoint for transaction which is already marked as rollback-only");
 			}
+			Connection con = conHolder.getConnection();
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+					if (synchronization instanceof SavepointSynchronization) {
+						((SavepointSynchronization) synchronization).beforeSavepoint(con);
+					}
+				}
+			}
 			return conHolder.createSavepoint();
 		}
 		catch (SQLException ex) {
@@ -166,18 +179,29 @@ public abstract class JdbcTransactionObjectSupport implements SavepointManager,
 
 	/**
 	 * This implementation rolls back to the given JDBC 3.0 Savepoint.
+	 * <p>Registered {@link SavepointSynchronization SavepointSynchronizations}
+	 * are notified afterwards, in order to discard pending work.
 	 * @see java.sql.Connection#rollback(java.sql.Savepoint)
 	 */
 	@Override
 	public void rollbackToSavepoint(Object savepoint) throws TransactionException {
 		ConnectionHolder conHolder = getConnectionHolderForSavepoint();
+		Connection con;
 		try {
-			conHolder.getConnection().rollback((Savepoint) savepoint);
+			con = conHolder.getConnection();
+			con.rollback((Savepoint) savepoint);
 			conHolder.resetRollbackOnly();
 		}
 		catch (Throwable ex) {
 			throw new TransactionSystemException("Could not roll back to JDBC savepoint", ex);
 		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				if (synchronization instanceof SavepointSynchronization) {
+					((SavepointSynchronization) synchronization).afterRollbackToSavepoint(con);
+				}
+			}
+		}
 	}
 
 	/**
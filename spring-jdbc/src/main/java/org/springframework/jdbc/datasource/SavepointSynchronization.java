@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+
+/**
+ * Extension of the {@link TransactionSynchronization} interface for
+ * synchronizations that hold pending work against a transactional JDBC
+ * {@code Connection}, to be notified of savepoints created and rolled back
+ * for that {@code Connection}, for example for nested transactions.
+ *
+ * @since 5.3.2
+ * @see JdbcTransactionObjectSupport#createSavepoint()
+ * @see JdbcTransactionObjectSupport#rollbackToSavepoint(Object)
+ */
+public interface SavepointSynchronization extends TransactionSynchronization {
+
+	/**
+	 * Invoked before a savepoint is created for the given {@code Connection}.
+	 * <p>Pending work is to be executed here so that it is not rolled back
+	 * together with the work done after the savepoint.
+	 * @param con the Connection that the savepoint is created for
+	 */
+	default void beforeSavepoint(Connection con) {
+	}
+
+	/**
+	 * Invoked after the given {@code Connection} has been rolled back to a
+	 * savepoint.
+	 * <p>Work that is still pending at this point has been registered after
+	 * the savepoint and is to be discarded.
+	 * @param con the Connection that has been rolled back
+	 */
+	default void afterRollbackToSavepoint(Connection con) {
+	}
+
+}
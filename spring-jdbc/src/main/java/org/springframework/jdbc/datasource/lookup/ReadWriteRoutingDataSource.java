@@ -0,0 +1,478 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * DataSource that routes read-only work to one of several replica DataSources
+ * and all other work to a primary DataSource. A request is considered read-only
+ * if the current transaction has been marked as read-only, e.g. through
+ * {@code @Transactional(readOnly = true)}.
+ *
+ * <p>Replicas are chosen by least outstanding requests: the replica with the
+ * fewest Connections currently in use is preferred. A replica is excluded
+ * from routing when obtaining a Connection from it fails, or when a
+ * {@linkplain #checkReplicaHealth() health check} finds it unavailable or
+ * lagging behind the primary by more than the
+ * {@linkplain #setMaxReplicationLag maximum replication lag}. Excluded
+ * replicas are retried after the {@linkplain #setRetryInterval retry interval}
+ * or on the next successful health check. If no replica is available,
+ * read-only work falls back to the primary DataSource.
+ *
+ * <p>Note that {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+ * obtains its Connection before exposing the read-only flag of a new transaction.
+ * This router should therefore be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * which defers routing until the first statement is executed:
+ *
+ * <pre class="code">
+ * ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+ * router.setPrimaryDataSource(primary);
+ * router.setReplicaDataSources(Arrays.asList(replica1, replica2));
+ * router.setHealthCheckInterval(Duration.ofSeconds(10));
+ * router.afterPropertiesSet();
+ * DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+ * PlatformTransactionManager tm = new DataSourceTransactionManager(dataSource);</pre>
+ *
+ * @since 5.3.2
+ * @see #setPrimaryDataSource
+ * @see #setReplicaDataSources
+ * @see #isCurrentRequestReadOnly()
+ * @see org.springframework.transaction.support.TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+	@Nullable
+	private DataSource primaryDataSource;
+
+	private List<DataSource> replicaDataSources = Collections.emptyList();
+
+	private Duration retryInterval = Duration.ofSeconds(30);
+
+	private Duration healthCheckInterval = Duration.ZERO;
+
+	private int validationTimeout = 5;
+
+	@Nullable
+	private String replicationLagQuery;
+
+	@Nullable
+	private Duration maxReplicationLag;
+
+	private Replica[] replicas = new Replica[0];
+
+	private final AtomicInteger nextReplica = new AtomicInteger();
+
+	@Nullable
+	private ScheduledExecutorService healthCheckExecutor;
+
+
+	/**
+	 * Set the primary DataSource, used for all work that is not read-only
+	 * and as fallback if no replica is available.
+	 */
+	public void setPrimaryDataSource(DataSource primaryDataSource) {
+		this.primaryDataSource = primaryDataSource;
+	}
+
+	/**
+	 * Return the primary DataSource.
+	 */
+	@Nullable
+	public DataSource getPrimaryDataSource() {
+		return this.primaryDataSource;
+	}
+
+	/**
+	 * Set the replica DataSources to route read-only work to.
+	 * <p>Default is none, routing all work to the primary DataSource.
+	 */
+	public void setReplicaDataSources(List<DataSource> replicaDataSources) {
+		Assert.notNull(replicaDataSources, "Replica DataSources must not be null");
+		this.replicaDataSources = new ArrayList<>(replicaDataSources);
+	}
+
+	/**
+	 * Return the replica DataSources.
+	 */
+	public List<DataSource> getReplicaDataSources() {
+		return Collections.unmodifiableList(this.replicaDataSources);
+	}
+
+	/**
+	 * Set the time after which an excluded replica is tried again.
+	 * <p>Default is 30 seconds.
+	 */
+	public void setRetryInterval(Duration retryInterval) {
+		Assert.isTrue(!retryInterval.isNegative(), "Retry interval must not be negative");
+		this.retryInterval = retryInterval;
+	}
+
+	/**
+	 * Set the interval for checking the health of all replicas in a
+	 * background thread.
+	 * <p>Default is 0, not performing any background health checks:
+	 * replicas are only excluded when obtaining a Connection fails, unless
+	 * {@link #checkReplicaHealth()} is invoked by the application itself.
+	 */
+	public void setHealthCheckInterval(Duration healthCheckInterval) {
+		Assert.isTrue(!healthCheckInterval.isNegative(), "Health check interval must not be negative");
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	/**
+	 * Set the timeout in seconds for validating a replica Connection
+	 * during a health check.
+	 * <p>Default is 5 seconds.
+	 * @see Connection#isValid(int)
+	 */
+	public void setValidationTimeout(int validationTimeout) {
+		this.validationTimeout = validationTimeout;
+	}
+
+	/**
+	 * Set the query to determine the replication lag of a replica during
+	 * a health check, returning the lag in seconds as a single numeric value,
+	 * e.g. for PostgreSQL: {@code SELECT EXTRACT(EPOCH FROM now() -
+	 * pg_last_xact_replay_timestamp())}. A {@code null} result is
+	 * considered as no lag.
+	 * @see #setMaxReplicationLag
+	 */
+	public void setReplicationLagQuery(@Nullable String replicationLagQuery) {
+		this.replicationLagQuery = replicationLagQuery;
+	}
+
+	/**
+	 * Set the maximum replication lag for a replica to be used, as
+	 * determined through the {@linkplain #setReplicationLagQuery
+	 * replication lag query} during a health check.
+	 * <p>Default is none, not checking the replication lag.
+	 */
+	public void setMaxReplicationLag(@Nullable Duration maxReplicationLag) {
+		this.maxReplicationLag = maxReplicationLag;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.primaryDataSource == null) {
+			throw new IllegalArgumentException("Property 'primaryDataSource' is required");
+		}
+		Replica[] replicas = new Replica[this.replicaDataSources.size()];
+		for (int i = 0; i < replicas.length; i++) {
+			replicas[i] = new Replica(this.replicaDataSources.get(i));
+		}
+		this.replicas = replicas;
+		if (!this.healthCheckInterval.isZero() && replicas.length > 0) {
+			ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "ReadWriteRoutingDataSource-health-check");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long interval = this.healthCheckInterval.toMillis();
+			executor.scheduleWithFixedDelay(this::checkReplicaHealth, interval, interval, TimeUnit.MILLISECONDS);
+			this.healthCheckExecutor = executor;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.healthCheckExecutor != null) {
+			this.healthCheckExecutor.shutdownNow();
+			this.healthCheckExecutor = null;
+		}
+	}
+
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return determineConnection(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return determineConnection(username, password);
+	}
+
+	/**
+	 * Determine whether the current request is read-only and should therefore
+	 * be routed to a replica.
+	 * <p>The default implementation checks the read-only flag of the current
+	 * transaction. Can be overridden to apply other criteria.
+	 * @see TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+	 */
+	protected boolean isCurrentRequestReadOnly() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * Return the number of replicas that are currently available for routing.
+	 */
+	public int getAvailableReplicaCount() {
+		long now = System.nanoTime();
+		int count = 0;
+		for (Replica replica : this.replicas) {
+			if (replica.isAvailable(now)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Check the health of all replicas: validate a Connection of each replica
+	 * and, if configured, determine its replication lag. Replicas found healthy
+	 * are included in routing again, all others are excluded.
+	 * <p>Invoked periodically if a {@linkplain #setHealthCheckInterval
+	 * health check interval} is set, but may also be invoked by the
+	 * application, e.g. from a scheduled task.
+	 */
+	public void checkReplicaHealth() {
+		for (Replica replica : this.replicas) {
+			try {
+				String problem = determineHealthProblem(replica.dataSource);
+				if (problem == null) {
+					if (!replica.healthy && logger.isInfoEnabled()) {
+						logger.info("Replica DataSource [" + replica.dataSource + "] available again");
+					}
+					replica.markHealthy();
+				}
+				else {
+					if (replica.healthy && logger.isWarnEnabled()) {
+						logger.warn("Excluding replica DataSource [" + replica.dataSource + "]: " + problem);
+					}
+					replica.markFailed();
+				}
+			}
+			catch (SQLException | RuntimeException ex) {
+				if (replica.healthy && logger.isWarnEnabled()) {
+					logger.warn("Excluding replica DataSource [" + replica.dataSource + "]: health check failed", ex);
+				}
+				replica.markFailed();
+			}
+		}
+	}
+
+	@Nullable
+	private String determineHealthProblem(DataSource dataSource) throws SQLException {
+		try (Connection con = dataSource.getConnection()) {
+			if (!con.isValid(this.validationTimeout)) {
+				return "Connection not valid";
+			}
+			if (this.replicationLagQuery != null && this.maxReplicationLag != null) {
+				try (Statement stmt = con.createStatement(); ResultSet rs = stmt.executeQuery(this.replicationLagQuery)) {
+					double lag = (rs.next() ? rs.getDouble(1) : 0);
+					if (lag * 1000 > this.maxReplicationLag.toMillis()) {
+						return "replication lag of " + lag + " seconds exceeds maximum of " + this.maxReplicationLag;
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	private Connection determineConnection(@Nullable String username, @Nullable String password) throws SQLException {
+		Assert.state(this.primaryDataSource != null, "DataSource router not initialized");
+		if (this.replicas.length > 0 && isCurrentRequestReadOnly()) {
+			for (int attempt = 0; attempt < this.replicas.length; attempt++) {
+				Replica replica = selectReplica();
+				if (replica == null) {
+					break;
+				}
+				replica.outstanding.incrementAndGet();
+				try {
+					Connection con = (username != null ? replica.dataSource.getConnection(username, password) :
+							replica.dataSource.getConnection());
+					return createConnectionProxy(con, replica);
+				}
+				catch (SQLException | RuntimeException ex) {
+					replica.outstanding.decrementAndGet();
+					replica.markFailed();
+					if (logger.isWarnEnabled()) {
+						logger.warn("Excluding replica DataSource [" + replica.dataSource +
+								"]: could not obtain Connection", ex);
+					}
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("No replica DataSource available - routing read-only request to primary DataSource");
+			}
+		}
+		return (username != null ? this.primaryDataSource.getConnection(username, password) :
+				this.primaryDataSource.getConnection());
+	}
+
+	/**
+	 * Select the available replica with the fewest outstanding requests,
+	 * starting at a rotating position in order to balance ties.
+	 */
+	@Nullable
+	private Replica selectReplica() {
+		Replica[] replicas = this.replicas;
+		long now = System.nanoTime();
+		int start = Math.floorMod(this.nextReplica.getAndIncrement(), replicas.length);
+		Replica selected = null;
+		int minOutstanding = Integer.MAX_VALUE;
+		for (int i = 0; i < replicas.length; i++) {
+			Replica replica = replicas[(start + i) % replicas.length];
+			if (replica.isAvailable(now)) {
+				int outstanding = replica.outstanding.get();
+				if (outstanding < minOutstanding) {
+					selected = replica;
+					minOutstanding = outstanding;
+				}
+			}
+		}
+		return selected;
+	}
+
+	private Connection createConnectionProxy(Connection target, Replica replica) {
+		return (Connection) Proxy.newProxyInstance(
+				ConnectionProxy.class.getClassLoader(),
+				new Class<?>[] {ConnectionProxy.class},
+				new ReplicaConnectionInvocationHandler(target, replica));
+	}
+
+
+	/**
+	 * Holder for a replica DataSource and its routing state.
+	 */
+	private final class Replica {
+
+		final DataSource dataSource;
+
+		final AtomicInteger outstanding = new AtomicInteger();
+
+		volatile boolean healthy = true;
+
+		volatile long failureTime;
+
+		Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		boolean isAvailable(long now) {
+			return (this.healthy || now - this.failureTime >= retryInterval.toNanos());
+		}
+
+		void markHealthy() {
+			this.healthy = true;
+		}
+
+		void markFailed() {
+			this.failureTime = System.nanoTime();
+			this.healthy = false;
+		}
+	}
+
+
+	/**
+	 * Invocation handler that tracks the outstanding requests of a replica
+	 * until its Connection is closed.
+	 */
+	private static class ReplicaConnectionInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final Replica replica;
+
+		private boolean closed = false;
+
+		public ReplicaConnectionInvocationHandler(Connection target, Replica replica) {
+			this.target = target;
+			this.replica = replica;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			switch (method.getName()) {
+				case "equals":
+					// Only consider equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					// Use hashCode of Connection proxy.
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Replica proxy for target Connection [" + this.target + "]";
+				case "getTargetConnection":
+					// Handle getTargetConnection method: return underlying Connection.
+					return this.target;
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "close":
+					// Release the replica once, ignoring subsequent close calls.
+					if (this.closed) {
+						return null;
+					}
+					this.closed = true;
+					this.replica.outstanding.decrementAndGet();
+					break;
+				case "isClosed":
+					if (this.closed) {
+						return true;
+					}
+					break;
+			}
+
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
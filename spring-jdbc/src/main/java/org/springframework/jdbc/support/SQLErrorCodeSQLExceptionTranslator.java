@@ -19,7 +19,10 @@ package org.springframework.jdbc.support;
 import java.lang.reflect.Constructor;
 import java.sql.BatchUpdateException;
 import java.sql.SQLException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -203,76 +206,20 @@ public class SQLErrorCodeSQLExceptionTranslator extends AbstractFallbackSQLExcep
 
 		// Check SQLErrorCodes with corresponding error code, if available.
 		if (sqlErrorCodes != null) {
-			String errorCode;
-			if (sqlErrorCodes.isUseSqlStateForTranslation()) {
-				errorCode = sqlEx.getSQLState();
-			}
-			else {
-				// Try to find SQLException with actual error code, looping through the causes.
-				// E.g. applicable to java.sql.DataTruncation as of JDK 1.6.
-				SQLException current = sqlEx;
-				while (current.getErrorCode() == 0 && current.getCause() instanceof SQLException) {
-					current = (SQLException) current.getCause();
-				}
-				errorCode = Integer.toString(current.getErrorCode());
-			}
-
-			if (errorCode != null) {
+			ErrorCodeTranslation translation = sqlErrorCodes.getErrorCodeTable().getTranslation(sqlEx);
+			if (translation != null) {
 				// Look for defined custom translations first.
-				CustomSQLErrorCodesTranslation[] customTranslations = sqlErrorCodes.getCustomTranslations();
-				if (customTranslations != null) {
-					for (CustomSQLErrorCodesTranslation customTranslation : customTranslations) {
-						if (Arrays.binarySearch(customTranslation.getErrorCodes(), errorCode) >= 0 &&
-								customTranslation.getExceptionClass() != null) {
-							DataAccessException customException = createCustomException(
-									task, sql, sqlEx, customTranslation.getExceptionClass());
-							if (customException != null) {
-								logTranslation(task, sql, sqlEx, true);
-								return customException;
-							}
-						}
+				for (Class<?> exceptionClass : translation.customExceptionClasses) {
+					DataAccessException customException = createCustomException(task, sql, sqlEx, exceptionClass);
+					if (customException != null) {
+						logTranslation(task, sql, sqlEx, true);
+						return customException;
 					}
 				}
-				// Next, look for grouped error codes.
-				if (Arrays.binarySearch(sqlErrorCodes.getBadSqlGrammarCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new BadSqlGrammarException(task, (sql != null ? sql : ""), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getInvalidResultSetAccessCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new InvalidResultSetAccessException(task, (sql != null ? sql : ""), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getDuplicateKeyCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DuplicateKeyException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getDataIntegrityViolationCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DataIntegrityViolationException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getPermissionDeniedCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new PermissionDeniedDataAccessException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getDataAccessResourceFailureCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DataAccessResourceFailureException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getTransientDataAccessResourceCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new TransientDataAccessResourceException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getCannotAcquireLockCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new CannotAcquireLockException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getDeadlockLoserCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DeadlockLoserDataAccessException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(sqlErrorCodes.getCannotSerializeTransactionCodes(), errorCode) >= 0) {
+				// Next, use the exception for the grouped error code.
+				if (translation.exceptionFactory != null) {
 					logTranslation(task, sql, sqlEx, false);
-					return new CannotSerializeTransactionException(buildMessage(task, sql, sqlEx), sqlEx);
+					return translation.exceptionFactory.create(this, task, sql, sqlEx);
 				}
 			}
 		}
@@ -410,4 +357,127 @@ public class SQLErrorCodeSQLExceptionTranslator extends AbstractFallbackSQLExcep
 		}
 	}
 
+
+	/**
+	 * Callback for creating the {@link DataAccessException} for a group of
+	 * error codes.
+	 */
+	@FunctionalInterface
+	private interface ExceptionFactory {
+
+		DataAccessException create(SQLErrorCodeSQLExceptionTranslator translator,
+				String task, @Nullable String sql, SQLException sqlEx);
+	}
+
+
+	/**
+	 * The translations for a single error code or SQL state.
+	 */
+	private static final class ErrorCodeTranslation {
+
+		final List<Class<?>> customExceptionClasses = new ArrayList<>(1);
+
+		@Nullable
+		ExceptionFactory exceptionFactory;
+	}
+
+
+	/**
+	 * Lookup table from error code or SQL state to translation, compiled from
+	 * {@link SQLErrorCodes} in order to avoid scanning all error code groups
+	 * for each exception. As with the group checks it replaces, the first
+	 * group that contains an error code determines its exception.
+	 * <p>Held by the {@code SQLErrorCodes} instance, and therefore shared by
+	 * all translators for the same database.
+	 * @see SQLErrorCodes#getErrorCodeTable()
+	 */
+	static final class ErrorCodeTable {
+
+		private final boolean useSqlState;
+
+		private final Map<Object, ErrorCodeTranslation> translations = new HashMap<>();
+
+		ErrorCodeTable(SQLErrorCodes sqlErrorCodes) {
+			this.useSqlState = sqlErrorCodes.isUseSqlStateForTranslation();
+			CustomSQLErrorCodesTranslation[] customTranslations = sqlErrorCodes.getCustomTranslations();
+			if (customTranslations != null) {
+				for (CustomSQLErrorCodesTranslation customTranslation : customTranslations) {
+					Class<?> exceptionClass = customTranslation.getExceptionClass();
+					if (exceptionClass != null) {
+						for (String code : customTranslation.getErrorCodes()) {
+							ErrorCodeTranslation translation = obtainTranslation(code);
+							if (translation != null) {
+								translation.customExceptionClasses.add(exceptionClass);
+							}
+						}
+					}
+				}
+			}
+			register(sqlErrorCodes.getBadSqlGrammarCodes(), (translator, task, sql, sqlEx) ->
+					new BadSqlGrammarException(task, (sql != null ? sql : ""), sqlEx));
+			register(sqlErrorCodes.getInvalidResultSetAccessCodes(), (translator, task, sql, sqlEx) ->
+					new InvalidResultSetAccessException(task, (sql != null ? sql : ""), sqlEx));
+			register(sqlErrorCodes.getDuplicateKeyCodes(), (translator, task, sql, sqlEx) ->
+					new DuplicateKeyException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getDataIntegrityViolationCodes(), (translator, task, sql, sqlEx) ->
+					new DataIntegrityViolationException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getPermissionDeniedCodes(), (translator, task, sql, sqlEx) ->
+					new PermissionDeniedDataAccessException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getDataAccessResourceFailureCodes(), (translator, task, sql, sqlEx) ->
+					new DataAccessResourceFailureException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getTransientDataAccessResourceCodes(), (translator, task, sql, sqlEx) ->
+					new TransientDataAccessResourceException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getCannotAcquireLockCodes(), (translator, task, sql, sqlEx) ->
+					new CannotAcquireLockException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getDeadlockLoserCodes(), (translator, task, sql, sqlEx) ->
+					new DeadlockLoserDataAccessException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+			register(sqlErrorCodes.getCannotSerializeTransactionCodes(), (translator, task, sql, sqlEx) ->
+					new CannotSerializeTransactionException(translator.buildMessage(task, sql, sqlEx), sqlEx));
+		}
+
+		private void register(String[] codes, ExceptionFactory exceptionFactory) {
+			for (String code : codes) {
+				ErrorCodeTranslation translation = obtainTranslation(code);
+				if (translation != null && translation.exceptionFactory == null) {
+					translation.exceptionFactory = exceptionFactory;
+				}
+			}
+		}
+
+		@Nullable
+		private ErrorCodeTranslation obtainTranslation(String code) {
+			Object key = code;
+			if (!this.useSqlState) {
+				// Error codes are matched against the decimal representation of
+				// SQLException.getErrorCode(), so other formats never match.
+				try {
+					Integer errorCode = Integer.valueOf(code);
+					if (!errorCode.toString().equals(code)) {
+						return null;
+					}
+					key = errorCode;
+				}
+				catch (NumberFormatException ex) {
+					return null;
+				}
+			}
+			return this.translations.computeIfAbsent(key, k -> new ErrorCodeTranslation());
+		}
+
+		@Nullable
+		ErrorCodeTranslation getTranslation(SQLException sqlEx) {
+			if (this.useSqlState) {
+				String sqlState = sqlEx.getSQLState();
+				return (sqlState != null ? this.translations.get(sqlState) : null);
+			}
+			// Try to find SQLException with actual error code, looping through the causes.
+			// E.g. applicable to java.sql.DataTruncation as of JDK 1.6.
+			SQLException current = sqlEx;
+			while (current.getErrorCode() == 0 && current.getCause() instanceof SQLException) {
+				current = (SQLException) current.getCause();
+			}
+			return this.translations.get(current.getErrorCode());
+		}
+	}
+
 }
@@ -28,6 +28,11 @@ import org.springframework.util.StringUtils;
  * The file "sql-error-codes.xml" in this package contains default
  * {@code SQLErrorCodes} instances for various databases.
  *
+ * <p>The error codes are compiled into a lookup table on first translation,
+ * which is recompiled after changes through the setters of this class, but
+ * not after in-place changes to the returned code arrays or to the
+ * {@link CustomSQLErrorCodesTranslation} instances.
+ *
  * @author Thomas Risberg
  * @author Juergen Hoeller
  * @see SQLErrorCodesFactory
@@ -66,6 +71,10 @@ public class SQLErrorCodes {
 	@Nullable
 	private SQLExceptionTranslator customSqlExceptionTranslator;
 
+	/** Lookup table compiled from the error codes, reset on changes to them. */
+	@Nullable
+	private volatile SQLErrorCodeSQLExceptionTranslator.ErrorCodeTable errorCodeTable;
+
 
 	/**
 	 * Set this property if the database name contains spaces,
@@ -100,6 +109,7 @@ public class SQLErrorCodes {
 	 */
 	public void setUseSqlStateForTranslation(boolean useStateCodeForTranslation) {
 		this.useSqlStateForTranslation = useStateCodeForTranslation;
+		this.errorCodeTable = null;
 	}
 
 	public boolean isUseSqlStateForTranslation() {
@@ -108,6 +118,7 @@ public class SQLErrorCodes {
 
 	public void setBadSqlGrammarCodes(String... badSqlGrammarCodes) {
 		this.badSqlGrammarCodes = StringUtils.sortStringArray(badSqlGrammarCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getBadSqlGrammarCodes() {
@@ -116,6 +127,7 @@ public class SQLErrorCodes {
 
 	public void setInvalidResultSetAccessCodes(String... invalidResultSetAccessCodes) {
 		this.invalidResultSetAccessCodes = StringUtils.sortStringArray(invalidResultSetAccessCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getInvalidResultSetAccessCodes() {
@@ -128,10 +140,12 @@ public class SQLErrorCodes {
 
 	public void setDuplicateKeyCodes(String... duplicateKeyCodes) {
 		this.duplicateKeyCodes = duplicateKeyCodes;
+		this.errorCodeTable = null;
 	}
 
 	public void setDataIntegrityViolationCodes(String... dataIntegrityViolationCodes) {
 		this.dataIntegrityViolationCodes = StringUtils.sortStringArray(dataIntegrityViolationCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getDataIntegrityViolationCodes() {
@@ -140,6 +154,7 @@ public class SQLErrorCodes {
 
 	public void setPermissionDeniedCodes(String... permissionDeniedCodes) {
 		this.permissionDeniedCodes = StringUtils.sortStringArray(permissionDeniedCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getPermissionDeniedCodes() {
@@ -148,6 +163,7 @@ public class SQLErrorCodes {
 
 	public void setDataAccessResourceFailureCodes(String... dataAccessResourceFailureCodes) {
 		this.dataAccessResourceFailureCodes = StringUtils.sortStringArray(dataAccessResourceFailureCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getDataAccessResourceFailureCodes() {
@@ -156,6 +172,7 @@ public class SQLErrorCodes {
 
 	public void setTransientDataAccessResourceCodes(String... transientDataAccessResourceCodes) {
 		this.transientDataAccessResourceCodes = StringUtils.sortStringArray(transientDataAccessResourceCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getTransientDataAccessResourceCodes() {
@@ -164,6 +181,7 @@ public class SQLErrorCodes {
 
 	public void setCannotAcquireLockCodes(String... cannotAcquireLockCodes) {
 		this.cannotAcquireLockCodes = StringUtils.sortStringArray(cannotAcquireLockCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getCannotAcquireLockCodes() {
@@ -172,6 +190,7 @@ public class SQLErrorCodes {
 
 	public void setDeadlockLoserCodes(String... deadlockLoserCodes) {
 		this.deadlockLoserCodes = StringUtils.sortStringArray(deadlockLoserCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getDeadlockLoserCodes() {
@@ -180,6 +199,7 @@ public class SQLErrorCodes {
 
 	public void setCannotSerializeTransactionCodes(String... cannotSerializeTransactionCodes) {
 		this.cannotSerializeTransactionCodes = StringUtils.sortStringArray(cannotSerializeTransactionCodes);
+		this.errorCodeTable = null;
 	}
 
 	public String[] getCannotSerializeTransactionCodes() {
@@ -188,6 +208,7 @@ public class SQLErrorCodes {
 
 	public void setCustomTranslations(CustomSQLErrorCodesTranslation... customTranslations) {
 		this.customTranslations = customTranslations;
+		this.errorCodeTable = null;
 	}
 
 	@Nullable
@@ -219,4 +240,17 @@ public class SQLErrorCodes {
 		return this.customSqlExceptionTranslator;
 	}
 
+	/**
+	 * Return the lookup table compiled from these error codes, compiling it
+	 * on first access and after changes through the setters of this class.
+	 */
+	SQLErrorCodeSQLExceptionTranslator.ErrorCodeTable getErrorCodeTable() {
+		SQLErrorCodeSQLExceptionTranslator.ErrorCodeTable table = this.errorCodeTable;
+		if (table == null) {
+			table = new SQLErrorCodeSQLExceptionTranslator.ErrorCodeTable(this);
+			this.errorCodeTable = table;
+		}
+		return table;
+	}
+
 }
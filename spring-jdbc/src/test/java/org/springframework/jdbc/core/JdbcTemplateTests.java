@@ -25,6 +25,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -37,6 +38,7 @@ import javax.sql.DataSource;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -46,9 +48,12 @@ import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.support.AbstractInterruptibleBatchPreparedStatementSetter;
 import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
 
@@ -58,6 +63,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -1092,6 +1098,150 @@ public class JdbcTemplateTests {
 	}
 
 
+	@Test
+	public void testTransactionalBatchUpdates() throws Exception {
+		String sql = "UPDATE CUSTOMER SET NAME = ? WHERE ID = ?";
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1, 1});
+		this.template.setTransactionalBatchSize(10);
+
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.executeWithoutResult(status -> {
+			for (int i = 0; i < 3; i++) {
+				assertThat(this.template.update(sql, "Rod", i)).isEqualTo(Statement.SUCCESS_NO_INFO);
+			}
+		});
+
+		InOrder inOrder = inOrder(this.connection, this.preparedStatement);
+		inOrder.verify(this.connection).prepareStatement(sql);
+		inOrder.verify(this.preparedStatement, times(3)).addBatch();
+		inOrder.verify(this.preparedStatement).executeBatch();
+		inOrder.verify(this.preparedStatement).close();
+		inOrder.verify(this.connection).commit();
+		inOrder.verify(this.connection).close();
+		verify(this.preparedStatement, never()).executeUpdate();
+	}
+
+	@Test
+	public void testTransactionalBatchUpdatesFlushedOnDifferentSqlAndQuery() throws Exception {
+		String sql1 = "UPDATE CUSTOMER SET NAME = ? WHERE ID = ?";
+		String sql2 = "DELETE FROM ORDERS WHERE CUSTOMER_ID = ?";
+		String query = "SELECT COUNT(*) FROM ORDERS WHERE CUSTOMER_ID = ?";
+		PreparedStatement ps1 = mock(PreparedStatement.class);
+		PreparedStatement ps2 = mock(PreparedStatement.class);
+		given(this.connection.prepareStatement(sql1)).willReturn(ps1);
+		given(this.connection.prepareStatement(sql2)).willReturn(ps2);
+		given(ps1.executeBatch()).willReturn(new int[] {1, 1});
+		given(ps2.executeBatch()).willReturn(new int[] {3});
+		given(this.resultSet.next()).willReturn(true, false);
+		given(this.resultSet.getInt(1)).willReturn(0);
+		this.template.setTransactionalBatchSize(10);
+
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.executeWithoutResult(status -> {
+			this.template.update(sql1, "Rod", 1);
+			this.template.update(sql1, "Juergen", 2);
+			this.template.update(sql2, 1);
+			assertThat(this.template.query(query, (rs, rowNum) -> rs.getInt(1), 1)).containsExactly(0);
+		});
+
+		InOrder inOrder = inOrder(this.connection, ps1, ps2, this.preparedStatement);
+		inOrder.verify(ps1, times(2)).addBatch();
+		inOrder.verify(ps1).executeBatch();
+		inOrder.verify(ps1).close();
+		inOrder.verify(ps2).addBatch();
+		inOrder.verify(ps2).executeBatch();
+		inOrder.verify(this.preparedStatement).executeQuery();
+		inOrder.verify(this.connection).commit();
+		verify(ps2, times(1)).executeBatch();
+		verify(ps2).close();
+	}
+
+	@Test
+	public void testTransactionalBatchUpdatesWithBatchSizeReached() throws Exception {
+		String sql = "UPDATE CUSTOMER SET NAME = ? WHERE ID = ?";
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1}, new int[] {1});
+		this.template.setTransactionalBatchSize(2);
+
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.executeWithoutResult(status -> {
+			for (int i = 0; i < 3; i++) {
+				this.template.update(sql, "Rod", i);
+			}
+			verify(this.preparedStatement, times(1)).executeBatch();
+			assertThat(this.template.flushTransactionalBatch()).containsExactly(1);
+			assertThat(this.template.flushTransactionalBatch()).isEmpty();
+		});
+
+		verify(this.preparedStatement, times(2)).executeBatch();
+		verify(this.preparedStatement).close();
+		verify(this.connection).commit();
+	}
+
+	@Test
+	public void testTransactionalBatchUpdatesWithNestedTransaction() throws Exception {
+		String sql = "UPDATE CUSTOMER SET NAME = ? WHERE ID = ?";
+		Savepoint savepoint = mock(Savepoint.class);
+		DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+		given(databaseMetaData.supportsSavepoints()).willReturn(true);
+		given(this.connection.getMetaData()).willReturn(databaseMetaData);
+		given(this.connection.setSavepoint(anyString())).willReturn(savepoint);
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1});
+		this.template.setTransactionalBatchSize(10);
+
+		DataSourceTransactionManager tm = new DataSourceTransactionManager(this.dataSource);
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		TransactionTemplate nested = new TransactionTemplate(tm);
+		nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+		tt.executeWithoutResult(status -> {
+			this.template.update(sql, "Rod", 1);
+			nested.executeWithoutResult(nestedStatus -> {
+				this.template.update(sql, "Juergen", 2);
+				nestedStatus.setRollbackOnly();
+			});
+			this.template.update(sql, "Sam", 3);
+		});
+
+		InOrder inOrder = inOrder(this.connection, this.preparedStatement);
+		inOrder.verify(this.preparedStatement).addBatch();
+		inOrder.verify(this.preparedStatement).executeBatch();
+		inOrder.verify(this.connection).setSavepoint(anyString());
+		inOrder.verify(this.preparedStatement).addBatch();
+		inOrder.verify(this.connection).rollback(savepoint);
+		inOrder.verify(this.preparedStatement).addBatch();
+		inOrder.verify(this.preparedStatement).executeBatch();
+		inOrder.verify(this.connection).commit();
+		verify(this.preparedStatement, times(2)).executeBatch();
+	}
+
+	@Test
+	public void testTransactionalBatchUpdatesFailingAtCommit() throws Exception {
+		String sql = "UPDATE CUSTOMER SET NAME = ? WHERE ID = ?";
+		given(this.preparedStatement.executeBatch()).willThrow(new BatchUpdateException());
+		this.template.setExceptionTranslator(new SQLStateSQLExceptionTranslator());
+		this.template.setTransactionalBatchSize(10);
+
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		assertThatExceptionOfType(DataAccessException.class).isThrownBy(() ->
+				tt.executeWithoutResult(status -> this.template.update(sql, "Rod", 1)));
+
+		verify(this.connection, never()).commit();
+		verify(this.connection).rollback();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testTransactionalBatchUpdatesWithoutTransaction() throws Exception {
+		String sql = "UPDATE CUSTOMER SET NAME = ? WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		this.template.setTransactionalBatchSize(10);
+
+		assertThat(this.template.update(sql, "Rod", 1)).isEqualTo(1);
+		verify(this.preparedStatement, never()).addBatch();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
 	private void mockDatabaseMetaData(boolean supportsBatchUpdates) throws SQLException {
 		DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
 		given(databaseMetaData.getDatabaseProductName()).willReturn("MySQL");
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link StatementStatistics} and {@link StatementObserver}
+ * notifications from {@link JdbcTemplate}.
+ */
+class StatementStatisticsTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final StatementStatistics statistics = new StatementStatistics();
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table person (id integer primary key, name varchar(50))");
+		this.jdbcTemplate.setStatementObserver(this.statistics);
+	}
+
+	@AfterEach
+	void shutDown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void normalizeSql() {
+		assertThat(StatementStatistics.normalizeSql("select *  from person\n where id = 42 and name = 'O''Brien'"))
+				.isEqualTo("select * from person where id = ? and name = ?");
+		assertThat(StatementStatistics.normalizeSql("select * from t1 where id in (?, ?, ?) and x = ?"))
+				.isEqualTo("select * from t1 where id in (?) and x = ?");
+		assertThat(StatementStatistics.normalizeSql("select \"col 1\" from t where v > 1.5e3"))
+				.isEqualTo("select \"col 1\" from t where v > ?");
+	}
+
+	@Test
+	void recordQueriesAndUpdates() {
+		this.jdbcTemplate.update("insert into person (id, name) values (?, ?)", 1, "Juergen");
+		this.jdbcTemplate.update("insert into person (id, name) values (?, ?)", 2, "Rod");
+		List<String> names = this.jdbcTemplate.queryForList("select name from person where id > ?", String.class, 0);
+		AtomicInteger processed = new AtomicInteger();
+		this.jdbcTemplate.query("select name from person", (RowCallbackHandler) rs -> {
+			processed.incrementAndGet();
+		});
+
+		assertThat(names).hasSize(2);
+		assertThat(processed).hasValue(2);
+
+		StatementStatistics.SqlStatistics insert =
+				this.statistics.getSqlStatistics("insert into person (id, name) values (?, ?)");
+		assertThat(insert).isNotNull();
+		assertThat(insert.getExecutionCount()).isEqualTo(2);
+		assertThat(insert.getErrorCount()).isEqualTo(0);
+		assertThat(insert.getRowCount()).isEqualTo(0);
+
+		StatementStatistics.SqlStatistics query = this.statistics.getSqlStatistics("select name from person where id > 5");
+		assertThat(query).isNotNull();
+		assertThat(query.getSql()).isEqualTo("select name from person where id > ?");
+		assertThat(query.getExecutionCount()).isEqualTo(1);
+		assertThat(query.getRowCount()).isEqualTo(2);
+
+		StatementStatistics.SqlStatistics rowCallbackQuery = this.statistics.getSqlStatistics("select name from person");
+		assertThat(rowCallbackQuery).isNotNull();
+		assertThat(rowCallbackQuery.getRowCount()).isEqualTo(2);
+
+		assertThat(this.statistics.getConnectionCount()).isEqualTo(4);
+		assertThat(this.statistics.getSlowStatements()).hasSize(4);
+	}
+
+	@Test
+	void recordBatchUpdate() {
+		this.jdbcTemplate.batchUpdate("insert into person (id, name) values (?, ?)",
+				Arrays.asList(new Object[] {1, "Juergen"}, new Object[] {2, "Rod"}, new Object[] {3, "Sam"}));
+
+		StatementStatistics.SqlStatistics insert =
+				this.statistics.getSqlStatistics("insert into person (id, name) values (?, ?)");
+		assertThat(insert).isNotNull();
+		assertThat(insert.getExecutionCount()).isEqualTo(1);
+		assertThat(insert.getBatchCount()).isEqualTo(1);
+		assertThat(insert.getBatchItemCount()).isEqualTo(3);
+		assertThat(this.statistics.getSlowStatements().get(0).getBatchSize()).isEqualTo(3);
+	}
+
+	@Test
+	void recordNamedParameterQueryWithExpandedList() {
+		this.jdbcTemplate.update("insert into person (id, name) values (?, ?)", 1, "Juergen");
+		NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		namedTemplate.queryForList("select name from person where id in (:ids)",
+				Collections.singletonMap("ids", Arrays.asList(1, 2)), String.class);
+		namedTemplate.queryForList("select name from person where id in (:ids)",
+				Collections.singletonMap("ids", Arrays.asList(1, 2, 3)), String.class);
+
+		StatementStatistics.SqlStatistics query =
+				this.statistics.getSqlStatistics("select name from person where id in (?)");
+		assertThat(query).isNotNull();
+		assertThat(query.getExecutionCount()).isEqualTo(2);
+		assertThat(query.getRowCount()).isEqualTo(2);
+	}
+
+	@Test
+	void recordFailedStatement() {
+		assertThatExceptionOfType(DataAccessException.class).isThrownBy(() ->
+				this.jdbcTemplate.queryForList("select name from unknown where id = ?", String.class, 1));
+
+		StatementStatistics.SqlStatistics query = this.statistics.getSqlStatistics("select name from unknown where id = ?");
+		assertThat(query).isNotNull();
+		assertThat(query.getExecutionCount()).isEqualTo(0);
+		assertThat(query.getErrorCount()).isEqualTo(1);
+	}
+
+	@Test
+	void recordStatementFailedInRowMapper() {
+		this.jdbcTemplate.update("insert into person (id, name) values (?, ?)", 1, "Juergen");
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.jdbcTemplate.query("select name from person", (rs, rowNum) -> {
+					throw new IllegalStateException("Mapping failed");
+				}));
+
+		StatementStatistics.SqlStatistics query = this.statistics.getSqlStatistics("select name from person");
+		assertThat(query).isNotNull();
+		assertThat(query.getExecutionCount()).isEqualTo(0);
+		assertThat(query.getErrorCount()).isEqualTo(1);
+	}
+
+	@Test
+	void keepSlowestStatements() {
+		StatementStatistics statistics = new StatementStatistics(10, 2);
+		statistics.statementExecuted("select 1", Duration.ofMillis(5), 1, 0);
+		statistics.statementExecuted("select 2", Duration.ofMillis(20), 1, 0);
+		statistics.statementExecuted("select 3", Duration.ofMillis(1), 1, 0);
+		statistics.statementExecuted("select 4", Duration.ofMillis(10), 1, 0);
+
+		List<StatementStatistics.SlowStatement> slowStatements = statistics.getSlowStatements();
+		assertThat(slowStatements).extracting(StatementStatistics.SlowStatement::getSql)
+				.containsExactly("select 2", "select 4");
+		assertThat(statistics.getSqlStatistics()).hasSize(1);
+		assertThat(statistics.getSqlStatistics("select ?").getExecutionCount()).isEqualTo(4);
+	}
+
+	@Test
+	void limitTrackedStatements() {
+		StatementStatistics statistics = new StatementStatistics(1, 10);
+		statistics.statementExecuted("select name from person", Duration.ofMillis(1), 0, 0);
+		statistics.statementExecuted("select id from person", Duration.ofMillis(1), 0, 0);
+
+		assertThat(statistics.getSqlStatistics()).containsOnlyKeys("select name from person");
+		assertThat(statistics.getSlowStatements()).hasSize(2);
+	}
+
+	@Test
+	void customObserver() {
+		StringBuilder events = new StringBuilder();
+		this.jdbcTemplate.setStatementObserver(new StatementObserver() {
+			@Override
+			public void connectionObtained(Duration duration) {
+				events.append("connection;");
+			}
+			@Override
+			public void statementExecuted(@Nullable String sql, Duration duration, long rowCount, int batchSize) {
+				events.append("executed ").append(rowCount).append(';');
+			}
+			@Override
+			public void statementFailed(@Nullable String sql, Duration duration, SQLException ex) {
+				events.append("failed;");
+			}
+		});
+
+		this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class);
+
+		assertThat(events.toString()).isEqualTo("connection;executed 1;");
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.metadata.MetaDataProviderCache;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MetaDataProviderCache} with {@link SimpleJdbcInsert}
+ * and {@link SimpleJdbcCall}.
+ */
+class MetaDataProviderCacheTests {
+
+	private EmbeddedDatabase database;
+
+	private CountingDataSource dataSource;
+
+	private final MetaDataProviderCache cache = new MetaDataProviderCache();
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.database);
+		jdbcTemplate.execute("create table person (id integer, name varchar(50))");
+		jdbcTemplate.execute("create procedure insert_person(in p_id integer, in p_name varchar(50)) " +
+				"modifies sql data insert into person values (p_id, p_name)");
+		this.dataSource = new CountingDataSource(this.database);
+	}
+
+	@AfterEach
+	void shutDown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void compileWithCachedMetaData() {
+		SimpleJdbcInsert first = new SimpleJdbcInsert(this.dataSource)
+				.withTableName("person")
+				.withMetaDataProviderCache(this.cache);
+		first.compile();
+		int connectionsForFirst = this.dataSource.connections.get();
+
+		SimpleJdbcInsert second = new SimpleJdbcInsert(this.dataSource)
+				.withTableName("person")
+				.withMetaDataProviderCache(this.cache);
+		second.compile();
+
+		assertThat(connectionsForFirst).isGreaterThan(0);
+		assertThat(this.dataSource.connections.get()).isEqualTo(connectionsForFirst);
+		assertThat(second.getInsertString()).isEqualTo(first.getInsertString());
+		assertThat(second.execute(Collections.singletonMap("name", "Juergen"))).isEqualTo(1);
+	}
+
+	@Test
+	void compileWithPreloadedMetaData() {
+		this.cache.preloadTableMetaData(this.database, null, null, "person");
+
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.dataSource)
+				.withTableName("person")
+				.withMetaDataProviderCache(this.cache);
+		insert.compile();
+
+		// Only to determine the database key for this DataSource instance
+		assertThat(this.dataSource.connections.get()).isEqualTo(1);
+		assertThat(insert.getInsertString()).isEqualTo("INSERT INTO person (ID, NAME) VALUES(?, ?)");
+	}
+
+	@Test
+	void compileCallWithPreloadedMetaData() {
+		this.cache.preloadCallMetaData(this.database, null, null, "insert_person", false);
+
+		SimpleJdbcCall call = new SimpleJdbcCall(this.dataSource)
+				.withProcedureName("insert_person")
+				.withMetaDataProviderCache(this.cache);
+		call.compile();
+
+		// Only to determine the database key for this DataSource instance
+		assertThat(this.dataSource.connections.get()).isEqualTo(1);
+		assertThat(call.getCallParameters()).hasSize(2);
+	}
+
+	@Test
+	void compileWithDifferentOptions() {
+		new SimpleJdbcInsert(this.dataSource)
+				.withTableName("person")
+				.withMetaDataProviderCache(this.cache)
+				.compile();
+		int connectionsForFirst = this.dataSource.connections.get();
+
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.dataSource)
+				.withTableName("person")
+				.usingColumns("name");
+		insert.setAccessTableColumnMetaData(false);
+		insert.setMetaDataProviderCache(this.cache);
+		insert.compile();
+
+		assertThat(this.dataSource.connections.get()).isGreaterThan(connectionsForFirst);
+		assertThat(insert.getInsertString()).isEqualTo("INSERT INTO person (name) VALUES(?)");
+	}
+
+	@Test
+	void clear() {
+		this.cache.preloadTableMetaData(this.dataSource, null, null, "person");
+		int connectionsForPreload = this.dataSource.connections.get();
+		this.cache.clear();
+
+		new SimpleJdbcInsert(this.dataSource)
+				.withTableName("person")
+				.withMetaDataProviderCache(this.cache)
+				.compile();
+
+		assertThat(this.dataSource.connections.get()).isEqualTo(connectionsForPreload * 2);
+	}
+
+
+	private static class CountingDataSource extends DelegatingDataSource {
+
+		final AtomicInteger connections = new AtomicInteger();
+
+		CountingDataSource(EmbeddedDatabase database) {
+			super(database);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			this.connections.incrementAndGet();
+			return super.getConnection();
+		}
+	}
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ParallelBatchUpdate}.
+ */
+class ParallelBatchUpdateTests {
+
+	private static final String INSERT_SQL = "insert into item (id, name) values (?, ?)";
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table item (id integer primary key, name varchar(50))");
+	}
+
+	@AfterEach
+	void shutDown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void executeInsertsAllItems() {
+		List<Integer> ids = ids(0, 2500);
+		List<ParallelBatchUpdate.Progress> progress = new CopyOnWriteArrayList<>();
+
+		ParallelBatchUpdate.Result result = new ParallelBatchUpdate<Integer>(this.jdbcTemplate, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+				})
+				.withParallelism(3)
+				.withBatchSize(100)
+				.withProgressListener(progress::add)
+				.execute(ids);
+
+		assertThat(result.getCompletedItems()).isEqualTo(2500);
+		assertThat(result.getUpdatedRows()).isEqualTo(2500);
+		assertThat(result.getCompletedChunks()).isEqualTo(25);
+		assertThat(result.getFailedChunks()).isEmpty();
+		assertThat(result.getRetries()).isEqualTo(0);
+		assertThat(progress).hasSize(25);
+		assertThat(countRows()).isEqualTo(2500);
+		assertThat(this.jdbcTemplate.queryForObject("select name from item where id = ?", String.class, 1234))
+				.isEqualTo("item1234");
+	}
+
+	@Test
+	void executeWithEmptyItems() {
+		ParallelBatchUpdate.Result result = new ParallelBatchUpdate<Integer>(this.database, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+				})
+				.execute(ids(0, 0));
+
+		assertThat(result.getCompletedItems()).isEqualTo(0);
+		assertThat(result.getCompletedChunks()).isEqualTo(0);
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+	@Test
+	void executeRetriesFailedChunk() {
+		AtomicBoolean failed = new AtomicBoolean();
+
+		ParallelBatchUpdate.Result result = new ParallelBatchUpdate<Integer>(this.jdbcTemplate, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+					if (id == 150 && failed.compareAndSet(false, true)) {
+						throw new SQLException("Transient failure", "08S01");
+					}
+				})
+				.withParallelism(2)
+				.withBatchSize(100)
+				.withMaxRetries(1)
+				.execute(ids(0, 500));
+
+		assertThat(result.getCompletedItems()).isEqualTo(500);
+		assertThat(result.getRetries()).isEqualTo(1);
+		assertThat(result.getFailedChunks()).isEmpty();
+		assertThat(countRows()).isEqualTo(500);
+	}
+
+	@Test
+	void executeWithFailedChunkThrowsException() {
+		this.jdbcTemplate.update("insert into item (id, name) values (?, ?)", 150, "existing");
+
+		ParallelBatchUpdate<Integer> update = new ParallelBatchUpdate<Integer>(this.jdbcTemplate, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+				})
+				.withParallelism(1)
+				.withBatchSize(100);
+
+		assertThatExceptionOfType(DataAccessException.class).isThrownBy(() -> update.execute(ids(0, 500)));
+		// The first chunk was committed, the failed chunk was rolled back and the rest skipped
+		assertThat(countRows()).isEqualTo(101);
+	}
+
+	@Test
+	void executeWithFailedChunkContinuesOnError() {
+		this.jdbcTemplate.update("insert into item (id, name) values (?, ?)", 150, "existing");
+
+		ParallelBatchUpdate.Result result = new ParallelBatchUpdate<Integer>(this.jdbcTemplate, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+				})
+				.withParallelism(2)
+				.withBatchSize(100)
+				.withMaxRetries(2)
+				.withContinueOnError(true)
+				.execute(ids(0, 500));
+
+		assertThat(result.getCompletedItems()).isEqualTo(400);
+		assertThat(result.getCompletedChunks()).isEqualTo(4);
+		assertThat(result.getRetries()).isEqualTo(2);
+		assertThat(result.getFailedChunks()).hasSize(1);
+		ParallelBatchUpdate.FailedChunk failedChunk = result.getFailedChunks().get(0);
+		assertThat(failedChunk.getIndex()).isEqualTo(1);
+		assertThat(failedChunk.getFirstItemIndex()).isEqualTo(100);
+		assertThat(failedChunk.getItemCount()).isEqualTo(100);
+		assertThat(failedChunk.getException()).isInstanceOf(DataAccessException.class);
+		assertThat(countRows()).isEqualTo(401);
+	}
+
+	@Test
+	void executeWithUntranslatedException() {
+		this.jdbcTemplate.update("insert into item (id, name) values (?, ?)", 150, "existing");
+		this.jdbcTemplate.setExceptionTranslator((task, sql, ex) -> null);
+
+		ParallelBatchUpdate<Integer> update = new ParallelBatchUpdate<Integer>(this.jdbcTemplate, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+				})
+				.withParallelism(1)
+				.withBatchSize(100);
+
+		assertThatExceptionOfType(UncategorizedSQLException.class).isThrownBy(() -> update.execute(ids(0, 500)))
+				.withCauseInstanceOf(SQLException.class);
+	}
+
+	@Test
+	void executeWithRejectedWorkerWaitsForStartedWorkers() {
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		List<ParallelBatchUpdate.Progress> progress = new CopyOnWriteArrayList<>();
+		ParallelBatchUpdate<Integer> update = new ParallelBatchUpdate<Integer>(this.jdbcTemplate, INSERT_SQL,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, "item" + id);
+				})
+				.withParallelism(2)
+				.withBatchSize(10)
+				.withProgressListener(progress::add)
+				.withTaskExecutor(task -> {
+					if (!threads.isEmpty()) {
+						throw new TaskRejectedException("Pool exhausted");
+					}
+					Thread thread = new Thread(task);
+					threads.add(thread);
+					thread.start();
+				});
+
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> update.execute(ids(0, 5000)));
+		assertThat(threads).hasSize(1);
+		// The started worker was stopped, and completed its last batch before the exception
+		int completedChunks = progress.size();
+		assertThat(countRows()).isLessThan(5000).isEqualTo(completedChunks * 10);
+	}
+
+
+	private static List<Integer> ids(int from, int to) {
+		return IntStream.range(from, to).boxed().collect(Collectors.toList());
+	}
+
+	private int countRows() {
+		Integer count = this.jdbcTemplate.queryForObject("select count(*) from item", Integer.class);
+		return (count != null ? count : 0);
+	}
+
+}
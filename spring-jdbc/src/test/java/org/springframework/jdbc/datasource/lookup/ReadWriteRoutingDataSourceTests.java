@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ReadWriteRoutingDataSource}.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+	private final DataSource primary = mock(DataSource.class);
+
+	private final DataSource replica1 = mock(DataSource.class);
+
+	private final DataSource replica2 = mock(DataSource.class);
+
+	private final Connection primaryCon = mock(Connection.class);
+
+	private final Connection replica1Con = mock(Connection.class);
+
+	private final Connection replica2Con = mock(Connection.class);
+
+	private final ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		given(this.primary.getConnection()).willReturn(this.primaryCon);
+		given(this.replica1.getConnection()).willReturn(this.replica1Con);
+		given(this.replica2.getConnection()).willReturn(this.replica2Con);
+		this.router.setPrimaryDataSource(this.primary);
+		this.router.setReplicaDataSources(Arrays.asList(this.replica1, this.replica2));
+		this.router.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		this.router.destroy();
+	}
+
+
+	@Test
+	void routeToPrimaryByDefault() throws SQLException {
+		assertThat(this.router.getConnection()).isSameAs(this.primaryCon);
+		verify(this.replica1, never()).getConnection();
+		verify(this.replica2, never()).getConnection();
+	}
+
+	@Test
+	void routeReadOnlyToReplicaWithLeastOutstandingRequests() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		Connection con1 = this.router.getConnection();
+		Connection con2 = this.router.getConnection();
+		Connection target1 = ((ConnectionProxy) con1).getTargetConnection();
+		Connection target2 = ((ConnectionProxy) con2).getTargetConnection();
+		assertThat(Arrays.asList(target1, target2)).containsExactlyInAnyOrder(this.replica1Con, this.replica2Con);
+
+		con1.close();
+		con1.close();
+		Connection con3 = this.router.getConnection();
+		assertThat(((ConnectionProxy) con3).getTargetConnection()).isSameAs(target1);
+		Connection con4 = this.router.getConnection();
+		assertThat(((ConnectionProxy) con4).getTargetConnection()).isIn(this.replica1Con, this.replica2Con);
+		verify(target1).close();
+	}
+
+	@Test
+	void failoverToOtherReplicaAndPrimary() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		given(this.replica1.getConnection()).willThrow(new SQLException("unavailable"));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(((ConnectionProxy) this.router.getConnection()).getTargetConnection()).isSameAs(this.replica2Con);
+		}
+		verify(this.replica1).getConnection();
+		assertThat(this.router.getAvailableReplicaCount()).isEqualTo(1);
+
+		given(this.replica2.getConnection()).willThrow(new SQLException("unavailable"));
+		assertThat(this.router.getConnection()).isSameAs(this.primaryCon);
+		assertThat(this.router.getAvailableReplicaCount()).isEqualTo(0);
+	}
+
+	@Test
+	void retryExcludedReplicaAfterRetryInterval() throws SQLException {
+		this.router.setRetryInterval(Duration.ZERO);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		given(this.replica1.getConnection()).willThrow(new SQLException("unavailable")).willReturn(this.replica1Con);
+		given(this.replica2.getConnection()).willThrow(new SQLException("unavailable"));
+
+		assertThat(this.router.getConnection()).isSameAs(this.primaryCon);
+		assertThat(((ConnectionProxy) this.router.getConnection()).getTargetConnection()).isSameAs(this.replica1Con);
+	}
+
+	@Test
+	void excludeLaggingReplicaOnHealthCheck() throws SQLException {
+		this.router.setReplicationLagQuery("select lag");
+		this.router.setMaxReplicationLag(Duration.ofSeconds(5));
+		given(this.replica1Con.isValid(5)).willReturn(true);
+		given(this.replica2Con.isValid(5)).willReturn(true);
+		mockLag(this.replica1Con, 10.0);
+		mockLag(this.replica2Con, 0.5);
+
+		this.router.checkReplicaHealth();
+		assertThat(this.router.getAvailableReplicaCount()).isEqualTo(1);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		for (int i = 0; i < 3; i++) {
+			assertThat(((ConnectionProxy) this.router.getConnection()).getTargetConnection()).isSameAs(this.replica2Con);
+		}
+
+		mockLag(this.replica1Con, 1.0);
+		this.router.checkReplicaHealth();
+		assertThat(this.router.getAvailableReplicaCount()).isEqualTo(2);
+	}
+
+	@Test
+	void excludeInvalidReplicaOnHealthCheck() throws SQLException {
+		given(this.replica1Con.isValid(5)).willReturn(false);
+		given(this.replica2Con.isValid(5)).willReturn(true);
+
+		this.router.checkReplicaHealth();
+
+		assertThat(this.router.getAvailableReplicaCount()).isEqualTo(1);
+		verify(this.replica1Con).close();
+		verify(this.replica2Con).close();
+	}
+
+	@Test
+	void readOnlyTransactionWithLazyConnectionProxy() throws SQLException {
+		DataSource dataSource = new LazyConnectionDataSourceProxy(this.router);
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+		tt.setReadOnly(true);
+		tt.executeWithoutResult(status -> assertThat(createStatement(dataSource)).isNull());
+		tt.setReadOnly(false);
+		tt.executeWithoutResult(status -> assertThat(createStatement(dataSource)).isNull());
+
+		verify(this.replica1Con).setReadOnly(true);
+		verify(this.replica1Con).createStatement();
+		verify(this.replica1Con).close();
+		verify(this.primaryCon).createStatement();
+		verify(this.primaryCon).commit();
+		verify(this.replica2, never()).getConnection();
+	}
+
+
+	private Statement createStatement(DataSource dataSource) {
+		try {
+			return DataSourceUtils.getConnection(dataSource).createStatement();
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void mockLag(Connection con, double lag) throws SQLException {
+		Statement stmt = mock(Statement.class);
+		ResultSet rs = mock(ResultSet.class);
+		given(con.createStatement()).willReturn(stmt);
+		given(stmt.executeQuery("select lag")).willReturn(rs);
+		given(rs.next()).willReturn(true);
+		given(rs.getDouble(1)).willReturn(lag);
+	}
+
+}
@@ -183,6 +183,51 @@ public class SQLErrorCodeSQLExceptionTranslatorTests {
 				customTranslation.setExceptionClass(String.class));
 	}
 
+	@Test
+	public void errorCodeTranslationWithOverlappingAndUnsortedCodes() {
+		SQLErrorCodes errorCodes = new SQLErrorCodes();
+		errorCodes.setBadSqlGrammarCodes("1", "2");
+		errorCodes.setDuplicateKeyCodes("30", "20", "2");
+		errorCodes.setDataIntegrityViolationCodes("20", "0100");
+		SQLErrorCodeSQLExceptionTranslator sext = new SQLErrorCodeSQLExceptionTranslator(errorCodes);
+
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 2))).isInstanceOf(BadSqlGrammarException.class);
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 20))).isInstanceOf(DuplicateKeyException.class);
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 30))).isInstanceOf(DuplicateKeyException.class);
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 100))).isNull();
+	}
+
+	@Test
+	public void errorCodeTranslationAfterChangingCodes() {
+		SQLErrorCodes errorCodes = new SQLErrorCodes();
+		errorCodes.setBadSqlGrammarCodes("1");
+		SQLErrorCodeSQLExceptionTranslator sext = new SQLErrorCodeSQLExceptionTranslator(errorCodes);
+		SQLErrorCodeSQLExceptionTranslator sext2 = new SQLErrorCodeSQLExceptionTranslator(errorCodes);
+
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 1))).isInstanceOf(BadSqlGrammarException.class);
+		assertThat(sext2.translate("task", "SQL", new SQLException("", "", 1))).isInstanceOf(BadSqlGrammarException.class);
+
+		errorCodes.setBadSqlGrammarCodes("2");
+		errorCodes.setDuplicateKeyCodes("1");
+
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 1))).isInstanceOf(DuplicateKeyException.class);
+		assertThat(sext.translate("task", "SQL", new SQLException("", "", 2))).isInstanceOf(BadSqlGrammarException.class);
+		assertThat(sext2.translate("task", "SQL", new SQLException("", "", 1))).isInstanceOf(DuplicateKeyException.class);
+	}
+
+	@Test
+	public void sqlStateTranslation() {
+		SQLErrorCodes errorCodes = new SQLErrorCodes();
+		errorCodes.setUseSqlStateForTranslation(true);
+		errorCodes.setDuplicateKeyCodes("23505");
+		errorCodes.setDataIntegrityViolationCodes("23000", "23505");
+		SQLErrorCodeSQLExceptionTranslator sext = new SQLErrorCodeSQLExceptionTranslator(errorCodes);
+
+		assertThat(sext.translate("task", "SQL", new SQLException("", "23505", 1))).isInstanceOf(DuplicateKeyException.class);
+		DataAccessException dae = sext.translate("task", "SQL", new SQLException("", "23000", 1));
+		assertThat(dae).isInstanceOf(DataIntegrityViolationException.class).isNotInstanceOf(DuplicateKeyException.class);
+	}
+
 	@Test
 	public void dataSourceInitialization() throws Exception {
 		SQLException connectionException = new SQLException();
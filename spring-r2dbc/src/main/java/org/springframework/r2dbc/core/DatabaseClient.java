@@ -26,6 +26,8 @@ import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
@@ -242,6 +244,32 @@ public interface DatabaseClient extends ConnectionAccessor {
 		 * @return a {@link Mono} ignoring its payload (actively dropping)
 		 */
 		Mono<Void> then();
+
+		/**
+		 * Perform the SQL call as batch for the given parameter sets, adding
+		 * up to {@code batchSize} parameter sets to a single {@link Statement}
+		 * through {@link Statement#add()}. Batches are executed one after
+		 * another on the same connection, requesting further parameter sets
+		 * only as batches complete.
+		 * <p>Each parameter set maps parameter names to values, which can be
+		 * either scalar values or {@link Parameter} (e.g. to bind {@code null}
+		 * values), and is combined with the parameters bound to this spec.
+		 * For example:
+		 * <pre class="code">
+		 * DatabaseClient client = …;
+		 * Flux&lt;Map&lt;String, Object&gt;&gt; people = …;
+		 * client.sql("INSERT INTO person (id, name) VALUES (:id, :name)").batch(people, 100)
+		 * </pre>
+		 * <p>With named parameter expansion, all parameter sets within a batch
+		 * need to expand to the same SQL statement, e.g. collection values
+		 * need to be of the same size.
+		 * @param parameterSets the parameter sets to execute the SQL call for
+		 * @param batchSize the maximum number of parameter sets per batch
+		 * @return a {@link Flux} emitting the number of updated rows per batch
+		 * @since 5.3.2
+		 * @see Statement#add()
+		 */
+		Flux<Integer> batch(Publisher<? extends Map<String, ?>> parameterSets, int batchSize);
 	}
 
 }
@@ -21,11 +21,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -335,38 +337,9 @@ class DefaultDatabaseClient implements DatabaseClient {
 					return statement;
 				}
 
-				if (DefaultDatabaseClient.this.namedParameterExpander != null) {
-					Map<String, Parameter> remainderByName = new LinkedHashMap<>(this.byName);
-					Map<Integer, Parameter> remainderByIndex = new LinkedHashMap<>(this.byIndex);
-
-					List<String> parameterNames = DefaultDatabaseClient.this.namedParameterExpander.getParameterNames(sql);
-					MapBindParameterSource namedBindings = retrieveParameters(
-							sql, parameterNames, remainderByName, remainderByIndex);
-
-					PreparedOperation<String> operation = DefaultDatabaseClient.this.namedParameterExpander.expand(
-							sql, DefaultDatabaseClient.this.bindMarkersFactory, namedBindings);
-
-					String expanded = getRequiredSql(operation);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Expanded SQL [" + expanded + "]");
-					}
-
-					Statement statement = connection.createStatement(expanded);
-					BindTarget bindTarget = new StatementWrapper(statement);
-
-					operation.bindTo(bindTarget);
-
-					bindByName(statement, remainderByName);
-					bindByIndex(statement, remainderByIndex);
-
-					return statement;
-				}
-
-				Statement statement = connection.createStatement(sql);
-
-				bindByIndex(statement, this.byIndex);
-				bindByName(statement, this.byName);
-
+				BoundSql boundSql = bindSql(sql, this.byIndex, this.byName);
+				Statement statement = connection.createStatement(boundSql.sql);
+				boundSql.bindTo(statement);
 				return statement;
 			};
 
@@ -383,12 +356,97 @@ class DefaultDatabaseClient implements DatabaseClient {
 					mappingFunction);
 		}
 
+		@Override
+		public Flux<Integer> batch(Publisher<? extends Map<String, ?>> parameterSets, int batchSize) {
+			assertNotPreparedOperation();
+			Assert.notNull(parameterSets, "Parameter sets must not be null");
+			Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+
+			// Obtain the SQL on subscription, keeping it available for exception translation
+			return Flux.defer(() -> {
+				String sql = getRequiredSql(this.sqlSupplier);
+				return inConnectionMany(new ConnectionFunction<>(sql, connection -> Flux.from(parameterSets)
+						.buffer(batchSize)
+						.concatMap(batch -> executeBatch(connection, sql, batch), 1)));
+			});
+		}
+
+		private Mono<Integer> executeBatch(Connection connection, String sql, List<? extends Map<String, ?>> batch) {
+			Iterator<? extends Map<String, ?>> iterator = batch.iterator();
+			BoundSql first = bindSql(sql, this.byIndex, mergeParameterSet(iterator.next()));
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing SQL batch statement [" + sql + "] with " + batch.size() + " parameter sets");
+			}
+
+			Statement statement = connection.createStatement(first.sql);
+			first.bindTo(statement);
+			while (iterator.hasNext()) {
+				BoundSql next = bindSql(sql, this.byIndex, mergeParameterSet(iterator.next()));
+				if (!next.sql.equals(first.sql)) {
+					throw new InvalidDataAccessApiUsageException(String.format(
+							"Parameter sets of a batch expand to different SQL statements [%s] and [%s]",
+							first.sql, next.sql));
+				}
+				statement.add();
+				next.bindTo(statement);
+			}
+
+			return Flux.from(this.filterFunction.filter(statement, DefaultDatabaseClient.this.executeFunction))
+					.cast(Result.class)
+					.flatMap(Result::getRowsUpdated)
+					.collect(Collectors.summingInt(Integer::intValue))
+					.checkpoint("SQL \"" + sql + "\" [DatabaseClient batch]");
+		}
+
+		private Map<String, Parameter> mergeParameterSet(Map<String, ?> parameterSet) {
+			Map<String, Parameter> byName = new LinkedHashMap<>(this.byName);
+			parameterSet.forEach((name, value) -> {
+				Assert.notNull(value, () -> String.format(
+						"Value for parameter %s must not be null. Use Parameter.empty(…) instead.", name));
+				byName.put(name, (value instanceof Parameter ? (Parameter) value :
+						Parameter.fromOrEmpty(value, value.getClass())));
+			});
+			return byName;
+		}
+
+		private BoundSql bindSql(String sql, Map<Integer, Parameter> byIndex, Map<String, Parameter> byName) {
+			if (DefaultDatabaseClient.this.namedParameterExpander != null) {
+				Map<String, Parameter> remainderByName = new LinkedHashMap<>(byName);
+				Map<Integer, Parameter> remainderByIndex = new LinkedHashMap<>(byIndex);
+
+				List<String> parameterNames = DefaultDatabaseClient.this.namedParameterExpander.getParameterNames(sql);
+				MapBindParameterSource namedBindings = retrieveParameters(
+						sql, parameterNames, byName, byIndex, remainderByName, remainderByIndex);
+
+				PreparedOperation<String> operation = DefaultDatabaseClient.this.namedParameterExpander.expand(
+						sql, DefaultDatabaseClient.this.bindMarkersFactory, namedBindings);
+
+				String expanded = getRequiredSql(operation);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Expanded SQL [" + expanded + "]");
+				}
+
+				return new BoundSql(expanded, statement -> {
+					operation.bindTo(new StatementWrapper(statement));
+					bindByName(statement, remainderByName);
+					bindByIndex(statement, remainderByIndex);
+				});
+			}
+
+			return new BoundSql(sql, statement -> {
+				bindByIndex(statement, byIndex);
+				bindByName(statement, byName);
+			});
+		}
+
 		private MapBindParameterSource retrieveParameters(String sql, List<String> parameterNames,
+				Map<String, Parameter> byName, Map<Integer, Parameter> byIndex,
 				Map<String, Parameter> remainderByName, Map<Integer, Parameter> remainderByIndex) {
 
 			Map<String, Parameter> namedBindings = CollectionUtils.newLinkedHashMap(parameterNames.size());
 			for (String parameterName : parameterNames) {
-				Parameter parameter = getParameter(remainderByName, remainderByIndex, parameterNames, parameterName);
+				Parameter parameter = getParameter(byName, byIndex, remainderByName, remainderByIndex,
+						parameterNames, parameterName);
 				if (parameter == null) {
 					throw new InvalidDataAccessApiUsageException(
 							String.format("No parameter specified for [%s] in query [%s]", parameterName, sql));
@@ -399,18 +457,19 @@ class DefaultDatabaseClient implements DatabaseClient {
 		}
 
 		@Nullable
-		private Parameter getParameter(Map<String, Parameter> remainderByName,
-				Map<Integer, Parameter> remainderByIndex, List<String> parameterNames, String parameterName) {
+		private Parameter getParameter(Map<String, Parameter> byName, Map<Integer, Parameter> byIndex,
+				Map<String, Parameter> remainderByName, Map<Integer, Parameter> remainderByIndex,
+				List<String> parameterNames, String parameterName) {
 
-			if (this.byName.containsKey(parameterName)) {
+			if (byName.containsKey(parameterName)) {
 				remainderByName.remove(parameterName);
-				return this.byName.get(parameterName);
+				return byName.get(parameterName);
 			}
 
 			int index = parameterNames.indexOf(parameterName);
-			if (this.byIndex.containsKey(index)) {
+			if (byIndex.containsKey(index)) {
 				remainderByIndex.remove(index);
-				return this.byIndex.get(index);
+				return byIndex.get(index);
 			}
 
 			return null;
@@ -526,6 +585,27 @@ class DefaultDatabaseClient implements DatabaseClient {
 	}
 
 
+	/**
+	 * Holder for the SQL to create a {@link Statement} for, along with the
+	 * action to bind the parameters to that Statement.
+	 */
+	private static class BoundSql {
+
+		final String sql;
+
+		private final Consumer<Statement> binder;
+
+		BoundSql(String sql, Consumer<Statement> binder) {
+			this.sql = sql;
+			this.binder = binder;
+		}
+
+		void bindTo(Statement statement) {
+			this.binder.accept(statement);
+		}
+	}
+
+
 	static class StatementWrapper implements BindTarget {
 
 		final Statement statement;
@@ -16,6 +16,7 @@
 
 package org.springframework.r2dbc.core;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
@@ -49,6 +50,11 @@ class NamedParameterExpander {
 	private final ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
 			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
 
+	/** Cache of expanded SQL per original SQL, BindMarkersFactory, and parameter shape. */
+	private final ConcurrentLruCache<ExpandedSqlKey, NamedParameterUtils.ExpandedSql> expandedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, key -> NamedParameterUtils.expandSql(
+					getParsedSql(key.sql), key.bindMarkersFactory, key.parameterShape));
+
 
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
@@ -74,6 +80,9 @@ class NamedParameterExpander {
 	 * placeholders to be used for a select list. Select lists should be limited
 	 * to 100 or fewer elements. A larger number of elements is not guaranteed to be
 	 * supported by the database and is strictly vendor-dependent.
+	 * <p>The expanded SQL and its bind markers are cached per SQL statement,
+	 * {@link BindMarkersFactory}, and number of placeholders for each
+	 * parameter, reusing them for subsequent parameter values of the same shape.
 	 * @param sql sql the original SQL statement
 	 * @param bindMarkersFactory the bind marker factory
 	 * @param paramSource the source for named parameters
@@ -84,7 +93,9 @@ class NamedParameterExpander {
 			String sql, BindMarkersFactory bindMarkersFactory, BindParameterSource paramSource) {
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		return NamedParameterUtils.substituteNamedParameters(parsedSql, bindMarkersFactory, paramSource);
+		int[] parameterShape = NamedParameterUtils.getParameterShape(parsedSql, paramSource);
+		ExpandedSqlKey key = new ExpandedSqlKey(sql, bindMarkersFactory, parameterShape);
+		return this.expandedSqlCache.get(key).bind(paramSource);
 	}
 
 	/**
@@ -96,4 +107,46 @@ class NamedParameterExpander {
 		return getParsedSql(sql).getParameterNames();
 	}
 
+
+	/**
+	 * Cache key for expanded SQL. Compares {@link BindMarkersFactory}
+	 * instances by identity.
+	 */
+	private static final class ExpandedSqlKey {
+
+		final String sql;
+
+		final BindMarkersFactory bindMarkersFactory;
+
+		final int[] parameterShape;
+
+		private final int hashCode;
+
+		ExpandedSqlKey(String sql, BindMarkersFactory bindMarkersFactory, int[] parameterShape) {
+			this.sql = sql;
+			this.bindMarkersFactory = bindMarkersFactory;
+			this.parameterShape = parameterShape;
+			this.hashCode = 31 * (31 * sql.hashCode() + System.identityHashCode(bindMarkersFactory)) +
+					Arrays.hashCode(parameterShape);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ExpandedSqlKey)) {
+				return false;
+			}
+			ExpandedSqlKey otherKey = (ExpandedSqlKey) other;
+			return (this.sql.equals(otherKey.sql) && this.bindMarkersFactory == otherKey.bindMarkersFactory &&
+					Arrays.equals(this.parameterShape, otherKey.parameterShape));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
@@ -33,6 +33,7 @@ import org.springframework.r2dbc.core.binding.BindMarkers;
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
 import org.springframework.r2dbc.core.binding.BindTarget;
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 
 /**
  * Helper methods for named parameter parsing.
@@ -274,15 +275,72 @@ abstract class NamedParameterUtils {
 	public static PreparedOperation<String> substituteNamedParameters(ParsedSql parsedSql,
 			BindMarkersFactory bindMarkersFactory, BindParameterSource paramSource) {
 
+		int[] shape = getParameterShape(parsedSql, paramSource);
+		return expandSql(parsedSql, bindMarkersFactory, shape).bind(paramSource);
+	}
+
+	/**
+	 * Determine the shape of the given parameter values: for each parameter
+	 * occurrence, {@code -1} for a single value, or the size of a collection
+	 * value followed by {@code -1} or the array length for each of its elements.
+	 * Parameter values of the same shape expand to the same SQL statement.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param paramSource the source for named parameters
+	 * @return the shape of the parameter values
+	 * @since 5.3.2
+	 * @see #expandSql
+	 */
+	static int[] getParameterShape(ParsedSql parsedSql, BindParameterSource paramSource) {
+		List<String> paramNames = parsedSql.getParameterNames();
+		int length = paramNames.size();
+		for (String paramName : paramNames) {
+			Object value = (paramSource.hasValue(paramName) ? paramSource.getValue(paramName) : null);
+			if (value instanceof Collection) {
+				length += ((Collection<?>) value).size();
+			}
+		}
+
+		int[] shape = new int[length];
+		int position = 0;
+		for (String paramName : paramNames) {
+			Object value = (paramSource.hasValue(paramName) ? paramSource.getValue(paramName) : null);
+			if (value instanceof Collection) {
+				Collection<?> collection = (Collection<?>) value;
+				shape[position++] = collection.size();
+				for (Object entryItem : collection) {
+					shape[position++] = (entryItem instanceof Object[] ? ((Object[]) entryItem).length : -1);
+				}
+			}
+			else {
+				shape[position++] = -1;
+			}
+		}
+		return shape;
+	}
+
+	/**
+	 * Expand the given SQL statement for parameter values of the given shape,
+	 * substituting named parameters for native placeholders. The resulting
+	 * {@link ExpandedSql} does not hold any parameter values and can be
+	 * reused for all parameter values of the same shape.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param bindMarkersFactory the bind marker factory
+	 * @param shape the shape of the parameter values
+	 * @return the expanded SQL statement
+	 * @since 5.3.2
+	 * @see #getParameterShape
+	 */
+	static ExpandedSql expandSql(ParsedSql parsedSql, BindMarkersFactory bindMarkersFactory, int[] shape) {
 		NamedParameters markerHolder = new NamedParameters(bindMarkersFactory);
 		String originalSql = parsedSql.getOriginalSql();
 		List<String> paramNames = parsedSql.getParameterNames();
 		if (paramNames.isEmpty()) {
-			return new ExpandedQuery(originalSql, markerHolder, paramSource);
+			return new ExpandedSql(originalSql, markerHolder);
 		}
 
 		StringBuilder actualSql = new StringBuilder(originalSql.length());
 		int lastIndex = 0;
+		int position = 0;
 		for (int i = 0; i < paramNames.size(); i++) {
 			String paramName = paramNames.get(i);
 			int[] indexes = parsedSql.getParameterIndexes(i);
@@ -290,39 +348,29 @@ abstract class NamedParameterUtils {
 			int endIndex = indexes[1];
 			actualSql.append(originalSql, lastIndex, startIndex);
 			NamedParameters.NamedParameter marker = markerHolder.getOrCreate(paramName);
-			if (paramSource.hasValue(paramName)) {
-				Object value = paramSource.getValue(paramName);
-				if (value instanceof Collection) {
-
-					Iterator<?> entryIter = ((Collection<?>) value).iterator();
-					int k = 0;
-					int counter = 0;
-					while (entryIter.hasNext()) {
-						if (k > 0) {
-							actualSql.append(", ");
-						}
-						k++;
-						Object entryItem = entryIter.next();
-						if (entryItem instanceof Object[]) {
-							Object[] expressionList = (Object[]) entryItem;
-							actualSql.append('(');
-							for (int m = 0; m < expressionList.length; m++) {
-								if (m > 0) {
-									actualSql.append(", ");
-								}
-								actualSql.append(marker.getPlaceholder(counter));
-								counter++;
+			int size = shape[position++];
+			if (size >= 0) {
+				int counter = 0;
+				for (int k = 0; k < size; k++) {
+					if (k > 0) {
+						actualSql.append(", ");
+					}
+					int expressionListLength = shape[position++];
+					if (expressionListLength >= 0) {
+						actualSql.append('(');
+						for (int m = 0; m < expressionListLength; m++) {
+							if (m > 0) {
+								actualSql.append(", ");
 							}
-							actualSql.append(')');
-						}
-						else {
 							actualSql.append(marker.getPlaceholder(counter));
 							counter++;
 						}
+						actualSql.append(')');
+					}
+					else {
+						actualSql.append(marker.getPlaceholder(counter));
+						counter++;
 					}
-				}
-				else {
-					actualSql.append(marker.getPlaceholder());
 				}
 			}
 			else {
@@ -332,7 +380,7 @@ abstract class NamedParameterUtils {
 		}
 		actualSql.append(originalSql, lastIndex, originalSql.length());
 
-		return new ExpandedQuery(actualSql.toString(), markerHolder, paramSource);
+		return new ExpandedSql(actualSql.toString(), markerHolder);
 	}
 
 	/**
@@ -450,9 +498,19 @@ abstract class NamedParameterUtils {
 			return param;
 		}
 
-		@Nullable
-		List<NamedParameter> getMarker(String name) {
-			return this.references.get(name);
+		/**
+		 * Return the bind markers of all references, by parameter name.
+		 */
+		Map<String, List<BindMarker>> getBindMarkers() {
+			Map<String, List<BindMarker>> bindMarkers = CollectionUtils.newHashMap(this.references.size());
+			this.references.forEach((name, parameters) -> {
+				List<BindMarker> markers = new ArrayList<>();
+				for (NamedParameter parameter : parameters) {
+					markers.addAll(parameter.placeholders);
+				}
+				bindMarkers.put(name, markers);
+			});
+			return bindMarkers;
 		}
 
 
@@ -491,21 +549,60 @@ abstract class NamedParameterUtils {
 	}
 
 
+	/**
+	 * Expanded SQL statement along with the bind markers per parameter name,
+	 * independent of the actual parameter values.
+	 * @since 5.3.2
+	 */
+	static class ExpandedSql {
+
+		private final String sql;
+
+		private final Map<String, List<BindMarker>> bindMarkers;
+
+		ExpandedSql(String sql, NamedParameters parameters) {
+			this.sql = sql;
+			this.bindMarkers = parameters.getBindMarkers();
+		}
+
+		/**
+		 * Return the expanded SQL statement.
+		 */
+		String getSql() {
+			return this.sql;
+		}
+
+		/**
+		 * Return the bind markers for the given parameter name,
+		 * or {@code null} if not a named parameter of the statement.
+		 */
+		@Nullable
+		List<BindMarker> getBindMarkers(String identifier) {
+			return this.bindMarkers.get(identifier);
+		}
+
+		/**
+		 * Create a {@link PreparedOperation} binding the given parameter values,
+		 * which need to be of the shape that this statement was expanded for.
+		 */
+		PreparedOperation<String> bind(BindParameterSource parameterSource) {
+			return new ExpandedQuery(this, parameterSource);
+		}
+	}
+
+
 	/**
 	 * Expanded query that allows binding of parameters using parameter names that were
 	 * used to expand the query. Binding unrolls {@link Collection}s and nested arrays.
 	 */
 	private static class ExpandedQuery implements PreparedOperation<String> {
 
-		private final String expandedSql;
-
-		private final NamedParameters parameters;
+		private final ExpandedSql expandedSql;
 
 		private final BindParameterSource parameterSource;
 
-		ExpandedQuery(String expandedSql, NamedParameters parameters, BindParameterSource parameterSource) {
+		ExpandedQuery(ExpandedSql expandedSql, BindParameterSource parameterSource) {
 			this.expandedSql = expandedSql;
-			this.parameters = parameters;
 			this.parameterSource = parameterSource;
 		}
 
@@ -560,20 +657,12 @@ abstract class NamedParameterUtils {
 
 		@Nullable
 		List<BindMarker> getBindMarkers(String identifier) {
-			List<NamedParameters.NamedParameter> parameters = this.parameters.getMarker(identifier);
-			if (parameters == null) {
-				return null;
-			}
-			List<BindMarker> markers = new ArrayList<>();
-			for (NamedParameters.NamedParameter parameter : parameters) {
-				markers.addAll(parameter.placeholders);
-			}
-			return markers;
+			return this.expandedSql.getBindMarkers(identifier);
 		}
 
 		@Override
 		public String getSource() {
-			return this.expandedSql;
+			return this.expandedSql.getSql();
 		}
 
 		@Override
@@ -591,7 +680,7 @@ abstract class NamedParameterUtils {
 
 		@Override
 		public String toQuery() {
-			return this.expandedSql;
+			return this.expandedSql.getSql();
 		}
 	}
 
@@ -16,6 +16,9 @@
 
 package org.springframework.r2dbc.core;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.Result;
 import org.junit.jupiter.api.BeforeEach;
@@ -94,6 +97,32 @@ public abstract class AbstractDatabaseClientIntegrationTests {
 						}).verifyComplete();
 	}
 
+	@Test
+	public void executeBatchInsert() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		Flux<Map<String, Object>> parameterSets = Flux.range(1, 5).map(id -> {
+			Map<String, Object> parameterSet = new HashMap<>();
+			parameterSet.put("id", id);
+			parameterSet.put("name", "SET " + id);
+			parameterSet.put("manual", Parameter.empty(Integer.class));
+			return parameterSet;
+		});
+
+		databaseClient.sql("INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)")
+				.batch(parameterSets, 2)
+				.as(StepVerifier::create)
+				.expectNext(2, 2, 1)
+				.verifyComplete();
+
+		databaseClient.sql("SELECT COUNT(*) FROM legoset")
+				.map(row -> row.get(0, Long.class))
+				.first()
+				.as(StepVerifier::create)
+				.expectNext(5L)
+				.verifyComplete();
+	}
+
 	@Test
 	public void shouldTranslateDuplicateKeyException() {
 		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
@@ -17,6 +17,10 @@
 package org.springframework.r2dbc.core;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactory;
@@ -42,6 +46,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.lang.Nullable;
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
 import org.springframework.r2dbc.core.binding.BindTarget;
@@ -224,6 +229,65 @@ class DefaultDatabaseClientUnitTests {
 		verify(statement).bind(0, "foo");
 	}
 
+	@Test
+	void batchShouldAddParameterSetsToStatement() {
+		Result result = mock(Result.class);
+		when(result.getRowsUpdated()).thenReturn(Mono.just(2), Mono.just(1));
+		Statement statement = mockStatementFor("INSERT INTO person VALUES($1, $2)", result);
+
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		databaseClient.sql("INSERT INTO person VALUES(:id, :name)")
+				.batch(Flux.just(parameterSet(1, "Walter"), parameterSet(2, "Jesse"), parameterSet(3, "Skyler")), 2)
+				.as(StepVerifier::create)
+				.expectNext(2, 1)
+				.verifyComplete();
+
+		InOrder inOrder = inOrder(statement);
+		inOrder.verify(statement).bind(0, 1);
+		inOrder.verify(statement).bind(1, "Walter");
+		inOrder.verify(statement).add();
+		inOrder.verify(statement).bind(0, 2);
+		inOrder.verify(statement).bind(1, "Jesse");
+		inOrder.verify(statement).execute();
+		inOrder.verify(statement).bind(0, 3);
+		inOrder.verify(statement).bind(1, "Skyler");
+		inOrder.verify(statement).execute();
+		inOrder.verifyNoMoreInteractions();
+	}
+
+	@Test
+	void batchShouldObtainSqlOnSubscription() {
+		Result result = mock(Result.class);
+		when(result.getRowsUpdated()).thenReturn(Mono.just(1));
+		mockStatementFor("INSERT INTO person VALUES($1, $2)", result);
+		AtomicInteger sqlCalls = new AtomicInteger();
+
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		Flux<Integer> batch = databaseClient.sql(() -> {
+					sqlCalls.incrementAndGet();
+					return "INSERT INTO person VALUES(:id, :name)";
+				})
+				.batch(Flux.just(parameterSet(1, "Walter")), 10);
+		assertThat(sqlCalls.get()).isEqualTo(0);
+
+		batch.as(StepVerifier::create).expectNext(1).verifyComplete();
+		assertThat(sqlCalls.get()).isEqualTo(1);
+	}
+
+	@Test
+	void batchShouldRejectParameterSetsExpandingToDifferentSql() {
+		mockStatement();
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		databaseClient.sql("SELECT * FROM person WHERE id IN (:ids)")
+				.batch(Flux.just(Collections.singletonMap("ids", Arrays.asList(1, 2)),
+						Collections.singletonMap("ids", Arrays.asList(1, 2, 3))), 10)
+				.as(StepVerifier::create)
+				.verifyError(InvalidDataAccessApiUsageException.class);
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void rowsUpdatedShouldEmitSingleValue() {
@@ -397,6 +461,13 @@ class DefaultDatabaseClientUnitTests {
 		inOrder.verifyNoMoreInteractions();
 	}
 
+	private static Map<String, Object> parameterSet(int id, String name) {
+		Map<String, Object> parameterSet = new LinkedHashMap<>();
+		parameterSet.put("id", id);
+		parameterSet.put("name", name);
+		return parameterSet;
+	}
+
 	private Statement mockStatement() {
 		return mockStatementFor(null, null);
 	}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.r2dbc.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import org.springframework.r2dbc.core.binding.BindTarget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link NamedParameterExpander}.
+ */
+class NamedParameterExpanderUnitTests {
+
+	private static final BindMarkersFactory BIND_MARKERS = BindMarkersFactory.indexed("$", 1);
+
+	private final NamedParameterExpander expander = new NamedParameterExpander();
+
+
+	@Test
+	void expandWithSameShapeBindsCurrentValues() {
+		String sql = "SELECT * FROM person WHERE id IN (:ids) AND name = :name";
+
+		PreparedOperation<String> first = this.expander.expand(sql, BIND_MARKERS,
+				parameters("ids", Arrays.asList(1, 2), "name", "Walter"));
+		PreparedOperation<String> second = this.expander.expand(sql, BIND_MARKERS,
+				parameters("ids", Arrays.asList(3, 4), "name", "Jesse"));
+
+		assertThat(first.toQuery()).isEqualTo("SELECT * FROM person WHERE id IN ($1, $2) AND name = $3");
+		assertThat(second.toQuery()).isEqualTo(first.toQuery());
+
+		BindTarget target = mock(BindTarget.class);
+		second.bindTo(target);
+		verify(target).bind(0, 3);
+		verify(target).bind(1, 4);
+		verify(target).bind(2, "Jesse");
+	}
+
+	@Test
+	void expandWithDifferentShape() {
+		String sql = "SELECT * FROM person WHERE (id, name) IN (:tuples)";
+
+		PreparedOperation<String> scalars = this.expander.expand(sql, BIND_MARKERS,
+				parameters("tuples", Arrays.asList(1, 2), null, null));
+		PreparedOperation<String> tuples = this.expander.expand(sql, BIND_MARKERS,
+				parameters("tuples", Collections.singletonList(new Object[] {1, "Walter"}), null, null));
+		PreparedOperation<String> empty = this.expander.expand(sql, BIND_MARKERS,
+				parameters("tuples", Collections.emptyList(), null, null));
+
+		assertThat(scalars.toQuery()).isEqualTo("SELECT * FROM person WHERE (id, name) IN ($1, $2)");
+		assertThat(tuples.toQuery()).isEqualTo("SELECT * FROM person WHERE (id, name) IN (($1, $2))");
+		assertThat(empty.toQuery()).isEqualTo("SELECT * FROM person WHERE (id, name) IN ()");
+	}
+
+	@Test
+	void expandWithDifferentBindMarkers() {
+		String sql = "SELECT * FROM person WHERE id = :id OR parent_id = :id";
+		BindParameterSource parameters = parameters("id", 1, null, null);
+
+		PreparedOperation<String> indexed = this.expander.expand(sql, BIND_MARKERS, parameters);
+		PreparedOperation<String> anonymous = this.expander.expand(sql, BindMarkersFactory.anonymous("?"), parameters);
+
+		assertThat(indexed.toQuery()).isEqualTo("SELECT * FROM person WHERE id = $1 OR parent_id = $1");
+		assertThat(anonymous.toQuery()).isEqualTo("SELECT * FROM person WHERE id = ? OR parent_id = ?");
+	}
+
+
+	private static BindParameterSource parameters(String name1, Object value1, String name2, Object value2) {
+		Map<String, Parameter> values = new HashMap<>();
+		values.put(name1, Parameter.from(value1));
+		if (name2 != null) {
+			values.put(name2, Parameter.from(value2));
+		}
+		return new MapBindParameterSource(values);
+	}
+
+}
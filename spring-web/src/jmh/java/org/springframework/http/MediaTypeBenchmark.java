@@ -32,6 +32,10 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 
 /**
  * Benchmarks for parsing Media Types using {@link MediaType}.
@@ -58,6 +62,46 @@ public class MediaTypeBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void parseAndSortAcceptHeader(AcceptHeaderData data, Blackhole bh) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(data.acceptHeader);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		bh.consume(mediaTypes);
+	}
+
+	@Benchmark
+	public void resolveAcceptHeader(AcceptHeaderData data, Blackhole bh) throws HttpMediaTypeNotAcceptableException {
+		bh.consume(data.strategy.resolveMediaTypes(data.webRequest));
+	}
+
+	/**
+	 * Benchmark data holding realistic Accept headers, as sent by browsers and
+	 * by API clients.
+	 */
+	@State(Scope.Benchmark)
+	public static class AcceptHeaderData {
+
+		@Param({"browser", "api"})
+		public String client;
+
+		public String acceptHeader;
+
+		public HeaderContentNegotiationStrategy strategy = new HeaderContentNegotiationStrategy();
+
+		public ServletWebRequest webRequest;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.acceptHeader = (this.client.equals("browser") ?
+					"text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8," +
+							"application/signed-exchange;v=b3;q=0.9" :
+					"application/json, application/problem+json;q=0.9, */*;q=0.1");
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addHeader(HttpHeaders.ACCEPT, this.acceptHeader);
+			this.webRequest = new ServletWebRequest(request);
+		}
+	}
+
 	/**
 	 * Benchmark data holding typical raw Media Types.
 	 * A {@code customTypesCount} parameter can be used to pad the list with artificial types.
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks for decoding a JSON array into a {@code Flux} of POJOs using
+ * Jackson, comparing elements read directly from their bytes with elements
+ * read from the token buffers of the non-blocking parser.
+ *
+ * @see AbstractJackson2Decoder
+ * @see Jackson2ElementReader
+ * @see Jackson2Tokenizer
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	/**
+	 * Benchmark data holding a JSON array of {@link Project} elements, split
+	 * into chunks of {@code chunkSize} bytes.
+	 */
+	@State(Scope.Benchmark)
+	public static class DecodeData {
+
+		@Param({"10", "1000", "100000"})
+		int elementCount;
+
+		@Param({"8192"})
+		int chunkSize;
+
+		ObjectMapper objectMapper;
+
+		Jackson2JsonDecoder jsonDecoder;
+
+		ObjectReader objectReader;
+
+		DataBufferFactory bufferFactory;
+
+		ResolvableType resolvableType;
+
+		List<byte[]> chunks;
+
+		@Setup
+		public void setup() throws IOException {
+			this.objectMapper = new Jackson2ObjectMapperBuilder().build();
+			this.jsonDecoder = new Jackson2JsonDecoder(this.objectMapper);
+			this.jsonDecoder.setMaxInMemorySize(-1);
+			this.objectReader = this.objectMapper.readerFor(Project.class);
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.resolvableType = ResolvableType.forClass(Project.class);
+
+			List<Project> projects = Collections.nCopies(this.elementCount, new Project("spring", 2));
+			byte[] json = this.objectMapper.writeValueAsBytes(projects);
+			this.chunks = new ArrayList<>();
+			for (int offset = 0; offset < json.length; offset += this.chunkSize) {
+				int length = Math.min(this.chunkSize, json.length - offset);
+				byte[] chunk = new byte[length];
+				System.arraycopy(json, offset, chunk, 0, length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		Flux<DataBuffer> input() {
+			return Flux.fromIterable(this.chunks).map(this.bufferFactory::wrap);
+		}
+	}
+
+	@Benchmark
+	public void decode(Blackhole bh, DecodeData data) {
+		data.jsonDecoder.decode(data.input(), data.resolvableType, MediaType.APPLICATION_JSON, Collections.emptyMap())
+				.doOnNext(bh::consume)
+				.then().block();
+	}
+
+	@Benchmark
+	public void decodeWithTokenBuffers(Blackhole bh, DecodeData data) {
+		Jackson2Tokenizer.tokenize(data.input(), data.objectMapper.getFactory(), data.objectMapper, true, false, -1)
+				.map(tokenBuffer -> {
+					try {
+						return data.objectReader.readValue(tokenBuffer.asParser(data.objectMapper));
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				})
+				.doOnNext(bh::consume)
+				.then().block();
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.http.codec.json;
 
 import java.util.Collections;
+import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -81,6 +82,30 @@ public class Jackson2JsonEncoderBenchmark {
 		return data.jsonEncoder.encodeValue(data.project, data.bufferFactory, data.resolvableType, MediaType.APPLICATION_JSON, Collections.emptyMap());
 	}
 
+	/**
+	 * Benchmark data holding a {@code List} of {@link Project} to be serialized by the JSON Encoder,
+	 * which requires an {@code ObjectWriter} for the generic container type.
+	 */
+	@State(Scope.Benchmark)
+	public static class EncodeListData extends EncodeSingleData {
+
+		ResolvableType listType;
+
+		List<Project> projects;
+
+		@Setup
+		public void setupList() {
+			this.listType = ResolvableType.forClassWithGenerics(List.class, Project.class);
+			this.projects = Collections.nCopies(10, this.project);
+		}
+
+	}
+
+	@Benchmark
+	public DataBuffer encodeListValue(EncodeListData data) {
+		return data.jsonEncoder.encodeValue(data.projects, data.bufferFactory, data.listType, MediaType.APPLICATION_JSON, Collections.emptyMap());
+	}
+
 	/**
 	 * Benchmark data holding {@link Project} to be serialized by the JSON Encoder.
 	 * A {@code projectCount} parameter can be used to grow the size of the object graph to serialize.
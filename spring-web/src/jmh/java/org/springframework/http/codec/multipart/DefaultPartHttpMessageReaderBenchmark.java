@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+
+/**
+ * Benchmarks for reading large file uploads with the
+ * {@link DefaultPartHttpMessageReader}, comparing writes of each parsed
+ * buffer with buffered, write-behind storage.
+ *
+ * @see DefaultPartHttpMessageReader#setFileWriteBufferSize(int)
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultPartHttpMessageReaderBenchmark {
+
+	private static final String BOUNDARY = "benchmark-boundary";
+
+
+	/**
+	 * Benchmark data holding a multipart request of {@code partCount} file
+	 * parts of {@code partSize} bytes each, split into chunks of
+	 * {@code chunkSize} bytes.
+	 */
+	@State(Scope.Benchmark)
+	public static class UploadData {
+
+		@Param({"1", "4"})
+		int partCount;
+
+		@Param({"10485760"})
+		int partSize;
+
+		@Param({"8192"})
+		int chunkSize;
+
+		@Param({"-1", "65536", "262144"})
+		int fileWriteBufferSize;
+
+		Path storageDirectory;
+
+		DefaultPartHttpMessageReader reader;
+
+		List<byte[]> chunks;
+
+		@Setup
+		public void setup() throws IOException {
+			this.storageDirectory = Files.createTempDirectory("multipart-benchmark");
+			this.reader = new DefaultPartHttpMessageReader();
+			this.reader.setFileStorageDirectory(this.storageDirectory);
+			this.reader.setFileWriteBufferSize(this.fileWriteBufferSize);
+
+			byte[] content = new byte[this.partSize];
+			for (int i = 0; i < content.length; i++) {
+				content[i] = (byte) ('a' + i % 26);
+			}
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			for (int i = 0; i < this.partCount; i++) {
+				String headers = "--" + BOUNDARY + "\r\n" +
+						"Content-Disposition: form-data; name=\"file" + i + "\"; filename=\"file" + i + ".bin\"\r\n" +
+						"Content-Type: application/octet-stream\r\n\r\n";
+				body.write(headers.getBytes(StandardCharsets.ISO_8859_1));
+				body.write(content);
+				body.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+			}
+			body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+			byte[] bytes = body.toByteArray();
+			this.chunks = new ArrayList<>();
+			for (int offset = 0; offset < bytes.length; offset += this.chunkSize) {
+				int length = Math.min(this.chunkSize, bytes.length - offset);
+				byte[] chunk = new byte[length];
+				System.arraycopy(bytes, offset, chunk, 0, length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		@TearDown(Level.Iteration)
+		public void deleteFiles() throws IOException {
+			try (Stream<Path> files = Files.list(this.storageDirectory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+
+		MockServerHttpRequest request() {
+			MediaType contentType = new MediaType(MediaType.MULTIPART_FORM_DATA,
+					Collections.singletonMap("boundary", BOUNDARY));
+			return MockServerHttpRequest.post("/")
+					.contentType(contentType)
+					.body(Flux.fromIterable(this.chunks).map(DefaultDataBufferFactory.sharedInstance::wrap));
+		}
+	}
+
+	@Benchmark
+	public void readParts(Blackhole bh, UploadData data) {
+		data.reader.read(ResolvableType.forClass(Part.class), data.request(), Collections.emptyMap())
+				.concatMap(part -> part.content().map(buffer -> {
+					int count = buffer.readableByteCount();
+					DataBufferUtils.release(buffer);
+					return count;
+				}))
+				.doOnNext(bh::consume)
+				.then().block();
+	}
+
+}
@@ -67,6 +67,8 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 	@Nullable
 	private final MediaType defaultMediaType;
 
+	private FlushPolicy flushPolicy = FlushPolicy.eachElement();
+
 
 	/**
 	 * Create an instance wrapping the given {@link Encoder}.
@@ -100,6 +102,26 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 		return this.encoder;
 	}
 
+	/**
+	 * Configure the policy for flushing the elements of a streaming media
+	 * type, e.g. {@code "application/x-ndjson"}, to the response.
+	 * <p>By default each element is flushed on its own.
+	 * @param flushPolicy the flush policy to use
+	 * @since 5.3.2
+	 */
+	public void setFlushPolicy(FlushPolicy flushPolicy) {
+		Assert.notNull(flushPolicy, "FlushPolicy must not be null");
+		this.flushPolicy = flushPolicy;
+	}
+
+	/**
+	 * Return the configured {@link #setFlushPolicy flush policy}.
+	 * @since 5.3.2
+	 */
+	public FlushPolicy getFlushPolicy() {
+		return this.flushPolicy;
+	}
+
 	@Override
 	public List<MediaType> getWritableMediaTypes() {
 		return this.mediaTypes;
@@ -137,10 +159,8 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 		}
 
 		if (isStreamingMediaType(contentType)) {
-			return message.writeAndFlushWith(body.map(buffer -> {
-				Hints.touchDataBuffer(buffer, hints, logger);
-				return Mono.just(buffer).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
-			}));
+			return message.writeAndFlushWith(this.flushPolicy.apply(
+					body.doOnNext(buffer -> Hints.touchDataBuffer(buffer, hints, logger))));
 		}
 
 		if (logger.isDebugEnabled()) {
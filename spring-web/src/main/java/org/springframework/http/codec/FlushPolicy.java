@@ -0,0 +1,336 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Policy that decides where to place flush boundaries when writing a stream
+ * of encoded elements, such as Server-Sent Events or a streaming JSON
+ * response, through {@link org.springframework.http.ReactiveHttpOutputMessage#writeAndFlushWith}.
+ *
+ * <p>By default each element is flushed on its own, which minimizes latency
+ * but results in a flush, and typically a system call, per element. A
+ * {@link #coalescing coalescing} policy instead groups consecutive elements
+ * into a single flush, until a maximum number of elements or bytes is
+ * reached, or until the first element of the group has waited for the
+ * maximum delay. Upstream demand remains bounded by the maximum number of
+ * elements.
+ *
+ * @since 5.3.2
+ * @see EncoderHttpMessageWriter#setFlushPolicy
+ * @see ServerSentEventHttpMessageWriter#setFlushPolicy
+ */
+public final class FlushPolicy {
+
+	private static final FlushPolicy EACH_ELEMENT = new FlushPolicy(1, -1, Duration.ZERO);
+
+
+	private final int maxItems;
+
+	private final int maxBytes;
+
+	private final Duration maxDelay;
+
+
+	private FlushPolicy(int maxItems, int maxBytes, Duration maxDelay) {
+		this.maxItems = maxItems;
+		this.maxBytes = maxBytes;
+		this.maxDelay = maxDelay;
+	}
+
+
+	/**
+	 * Return a policy that flushes after each element.
+	 */
+	public static FlushPolicy eachElement() {
+		return EACH_ELEMENT;
+	}
+
+	/**
+	 * Return a policy that coalesces consecutive elements into one flush.
+	 * @param maxItems the maximum number of elements per flush
+	 * @param maxBytes the number of bytes after which to flush, or -1 for no
+	 * byte limit
+	 * @param maxDelay the maximum time an element may wait for a flush
+	 */
+	public static FlushPolicy coalescing(int maxItems, int maxBytes, Duration maxDelay) {
+		Assert.isTrue(maxItems > 0, "'maxItems' must be greater than 0");
+		Assert.isTrue(maxBytes == -1 || maxBytes > 0, "'maxBytes' must be greater than 0, or -1");
+		Assert.notNull(maxDelay, "'maxDelay' must not be null");
+		Assert.isTrue(!maxDelay.isNegative() && !maxDelay.isZero(), "'maxDelay' must be positive");
+		return new FlushPolicy(maxItems, maxBytes, maxDelay);
+	}
+
+
+	/**
+	 * Return the maximum number of elements per flush.
+	 */
+	public int getMaxItems() {
+		return this.maxItems;
+	}
+
+	/**
+	 * Return the number of bytes after which to flush, or -1 for no limit.
+	 */
+	public int getMaxBytes() {
+		return this.maxBytes;
+	}
+
+	/**
+	 * Return the maximum time an element may wait for a flush.
+	 */
+	public Duration getMaxDelay() {
+		return this.maxDelay;
+	}
+
+	/**
+	 * Group the given encoded elements, one {@code DataBuffer} per element,
+	 * into the publishers to pass to {@code writeAndFlushWith}.
+	 * @param elements the encoded elements
+	 * @return one publisher per flush
+	 */
+	public Flux<Publisher<DataBuffer>> apply(Publisher<? extends DataBuffer> elements) {
+		if (this.maxItems == 1) {
+			return Flux.from(elements).map(buffer ->
+					Mono.just((DataBuffer) buffer).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+		}
+		return Flux.create(sink -> elements.subscribe(new CoalescingSubscriber(this, sink)));
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof FlushPolicy)) {
+			return false;
+		}
+		FlushPolicy otherPolicy = (FlushPolicy) other;
+		return (this.maxItems == otherPolicy.maxItems && this.maxBytes == otherPolicy.maxBytes &&
+				this.maxDelay.equals(otherPolicy.maxDelay));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * this.maxItems + this.maxBytes) + this.maxDelay.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return (this.maxItems == 1 ? "FlushPolicy[each element]" :
+				"FlushPolicy[maxItems=" + this.maxItems + ", maxBytes=" + this.maxBytes +
+						", maxDelay=" + this.maxDelay + "]");
+	}
+
+
+	/**
+	 * Subscriber that queues up to {@code maxItems} elements and emits them as
+	 * one group when the group is full, when its first element has waited for
+	 * {@code maxDelay}, or when the source completes, and only when there is
+	 * demand from the writer.
+	 */
+	private static class CoalescingSubscriber implements CoreSubscriber<DataBuffer> {
+
+		private final FlushPolicy policy;
+
+		private final FluxSink<Publisher<DataBuffer>> sink;
+
+		private final Queue<DataBuffer> queue = new ArrayDeque<>();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		@Nullable
+		private Subscription subscription;
+
+		// Fields below guarded by "this"
+
+		private int queuedBytes;
+
+		/** Incremented for every emitted group, to ignore stale timer callbacks. */
+		private long generation;
+
+		private boolean delayElapsed;
+
+		@Nullable
+		private Disposable timer;
+
+		private boolean done;
+
+		@Nullable
+		private Throwable error;
+
+		private boolean cancelled;
+
+		CoalescingSubscriber(FlushPolicy policy, FluxSink<Publisher<DataBuffer>> sink) {
+			this.policy = policy;
+			this.sink = sink;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+			this.sink.onRequest(n -> drain());
+			this.sink.onDispose(this::cancel);
+			subscription.request(this.policy.maxItems);
+		}
+
+		@Override
+		public void onNext(DataBuffer buffer) {
+			synchronized (this) {
+				if (this.cancelled) {
+					DataBufferUtils.release(buffer);
+					return;
+				}
+				this.queue.add(buffer);
+				this.queuedBytes += buffer.readableByteCount();
+				if (this.timer == null) {
+					long generation = this.generation;
+					this.timer = Schedulers.parallel().schedule(() -> onDelayElapsed(generation),
+							this.policy.maxDelay.toMillis(), TimeUnit.MILLISECONDS);
+				}
+			}
+			drain();
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			synchronized (this) {
+				this.error = ex;
+				this.done = true;
+			}
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			synchronized (this) {
+				this.done = true;
+			}
+			drain();
+		}
+
+		private void onDelayElapsed(long generation) {
+			synchronized (this) {
+				if (generation != this.generation) {
+					return;
+				}
+				this.delayElapsed = true;
+			}
+			drain();
+		}
+
+		private void drain() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				List<DataBuffer> group = null;
+				boolean terminate = false;
+				Throwable ex = null;
+				synchronized (this) {
+					if (this.cancelled) {
+						return;
+					}
+					if (!this.queue.isEmpty() && this.sink.requestedFromDownstream() > 0 && isGroupReady()) {
+						group = new ArrayList<>(this.queue);
+						this.queue.clear();
+						this.queuedBytes = 0;
+						this.generation++;
+						this.delayElapsed = false;
+						if (this.timer != null) {
+							this.timer.dispose();
+							this.timer = null;
+						}
+					}
+					else if (this.queue.isEmpty() && this.done) {
+						terminate = true;
+						ex = this.error;
+					}
+				}
+				if (group != null) {
+					this.sink.next(Flux.fromIterable(group).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+					Assert.state(this.subscription != null, "No subscription");
+					this.subscription.request(group.size());
+					continue;
+				}
+				if (terminate) {
+					if (ex != null) {
+						this.sink.error(ex);
+					}
+					else {
+						this.sink.complete();
+					}
+					return;
+				}
+				missed = this.wip.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+
+		private boolean isGroupReady() {
+			return (this.done || this.delayElapsed || this.queue.size() >= this.policy.maxItems ||
+					(this.policy.maxBytes != -1 && this.queuedBytes >= this.policy.maxBytes));
+		}
+
+		private void cancel() {
+			List<DataBuffer> discarded;
+			boolean cancelUpstream;
+			synchronized (this) {
+				if (this.cancelled) {
+					return;
+				}
+				this.cancelled = true;
+				cancelUpstream = !this.done;
+				if (this.timer != null) {
+					this.timer.dispose();
+					this.timer = null;
+				}
+				discarded = new ArrayList<>(this.queue);
+				this.queue.clear();
+			}
+			if (cancelUpstream && this.subscription != null) {
+				this.subscription.cancel();
+			}
+			discarded.forEach(DataBufferUtils::release);
+		}
+	}
+
+}
@@ -65,6 +65,8 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 	@Nullable
 	private final Encoder<?> encoder;
 
+	private FlushPolicy flushPolicy = FlushPolicy.eachElement();
+
 
 	/**
 	 * Constructor without an {@code Encoder}. In this mode only {@code String}
@@ -92,6 +94,25 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		return this.encoder;
 	}
 
+	/**
+	 * Configure the policy for flushing events to the response.
+	 * <p>By default each event is flushed on its own.
+	 * @param flushPolicy the flush policy to use
+	 * @since 5.3.2
+	 */
+	public void setFlushPolicy(FlushPolicy flushPolicy) {
+		Assert.notNull(flushPolicy, "FlushPolicy must not be null");
+		this.flushPolicy = flushPolicy;
+	}
+
+	/**
+	 * Return the configured {@link #setFlushPolicy flush policy}.
+	 * @since 5.3.2
+	 */
+	public FlushPolicy getFlushPolicy() {
+		return this.flushPolicy;
+	}
+
 	@Override
 	public List<MediaType> getWritableMediaTypes() {
 		return WRITABLE_MEDIA_TYPES;
@@ -112,10 +133,11 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		DataBufferFactory bufferFactory = message.bufferFactory();
 
 		message.getHeaders().setContentType(mediaType);
-		return message.writeAndFlushWith(encode(input, elementType, mediaType, bufferFactory, hints));
+		Flux<DataBuffer> events = encode(input, elementType, mediaType, bufferFactory, hints);
+		return message.writeAndFlushWith(this.flushPolicy.apply(events));
 	}
 
-	private Flux<Publisher<DataBuffer>> encode(Publisher<?> input, ResolvableType elementType,
+	private Flux<DataBuffer> encode(Publisher<?> input, ResolvableType elementType,
 			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
 
 		ResolvableType dataType = (ServerSentEvent.class.isAssignableFrom(elementType.toClass()) ?
@@ -148,24 +170,21 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 				sb.append("data:");
 			}
 
-			Flux<DataBuffer> result;
 			if (data == null) {
-				result = Flux.just(encodeText(sb + "\n", mediaType, factory));
+				return encodeText(sb + "\n", mediaType, factory);
 			}
 			else if (data instanceof String) {
 				data = StringUtils.replace((String) data, "\n", "\ndata:");
-				result = Flux.just(encodeText(sb + (String) data + "\n\n", mediaType, factory));
+				return encodeText(sb + (String) data + "\n\n", mediaType, factory);
 			}
 			else {
-				result = encodeEvent(sb, data, dataType, mediaType, factory, hints);
+				return encodeEvent(sb, data, dataType, mediaType, factory, hints);
 			}
-
-			return result.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
-		});
+		}).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T> Flux<DataBuffer> encodeEvent(StringBuilder eventContent, T data, ResolvableType dataType,
+	private <T> DataBuffer encodeEvent(StringBuilder eventContent, T data, ResolvableType dataType,
 			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
 
 		if (this.encoder == null) {
@@ -173,10 +192,10 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		}
 		DataBuffer buffer = ((Encoder<T>) this.encoder).encodeValue(data, factory, dataType, mediaType, hints);
 		Hints.touchDataBuffer(buffer, hints, logger);
-		return Flux.just(factory.join(Arrays.asList(
+		return factory.join(Arrays.asList(
 				encodeText(eventContent, mediaType, factory),
 				buffer,
-				encodeText("\n\n", mediaType, factory))));
+				encodeText("\n\n", mediaType, factory)));
 	}
 
 	private void writeField(String fieldName, Object fieldValue, StringBuilder sb) {
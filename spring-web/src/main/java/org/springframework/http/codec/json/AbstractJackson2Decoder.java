@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
@@ -121,18 +123,23 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		ObjectMapper mapper = getObjectMapper();
+		JavaType javaType = getJavaType(elementType, hints);
+		ObjectReader reader = getObjectReader(javaType, hints);
+		Flux<DataBuffer> processed = processInput(input, elementType, mimeType, hints);
+
+		if (canReadElements(mapper, javaType)) {
+			return Jackson2ElementReader.read(processed, reader, getMaxInMemorySize(), this::processException)
+					.doOnNext(value -> logValue(value, hints));
+		}
 
 		boolean forceUseOfBigDecimal = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
 		if (BigDecimal.class.equals(elementType.getType())) {
 			forceUseOfBigDecimal = true;
 		}
 
-		Flux<DataBuffer> processed = processInput(input, elementType, mimeType, hints);
 		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(processed, mapper.getFactory(), mapper,
 				true, forceUseOfBigDecimal, getMaxInMemorySize());
 
-		ObjectReader reader = getObjectReader(elementType, hints);
-
 		return tokens.handle((tokenBuffer, sink) -> {
 			try {
 				Object value = reader.readValue(tokenBuffer.asParser(getObjectMapper()));
@@ -147,6 +154,23 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		});
 	}
 
+	/**
+	 * Whether values can be deserialized directly from the bytes of each
+	 * top-level JSON value or array element, rather than from a
+	 * {@link TokenBuffer} populated by the non-blocking parser. This is the
+	 * case for plain JSON input, unless the target type is itself an array or
+	 * collection, which keeps the {@link Jackson2Tokenizer} handling of
+	 * nested arrays.
+	 */
+	private boolean canReadElements(ObjectMapper mapper, JavaType javaType) {
+		JsonFactory factory = mapper.getFactory();
+		return (JsonFactory.FORMAT_NAME_JSON.equals(factory.getFormatName()) &&
+				!factory.isEnabled(JsonParser.Feature.ALLOW_COMMENTS) &&
+				!factory.isEnabled(JsonParser.Feature.ALLOW_YAML_COMMENTS) &&
+				!factory.isEnabled(JsonParser.Feature.ALLOW_SINGLE_QUOTES) &&
+				!javaType.isArrayType() && !javaType.isCollectionLikeType());
+	}
+
 	/**
 	 * Process the input publisher into a flux. Default implementation returns
 	 * {@link Flux#from(Publisher)}, but subclasses can choose to customize
@@ -191,16 +215,21 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 	}
 
 	private ObjectReader getObjectReader(ResolvableType elementType, @Nullable Map<String, Object> hints) {
+		return getObjectReader(getJavaType(elementType, hints), hints);
+	}
+
+	private ObjectReader getObjectReader(JavaType javaType, @Nullable Map<String, Object> hints) {
+		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
+		return getReaderWriterCache().getReader(javaType, jsonView);
+	}
+
+	private JavaType getJavaType(ResolvableType elementType, @Nullable Map<String, Object> hints) {
 		Assert.notNull(elementType, "'elementType' must not be null");
 		Class<?> contextClass = getContextClass(elementType);
 		if (contextClass == null && hints != null) {
 			contextClass = getContextClass((ResolvableType) hints.get(ACTUAL_TYPE_HINT));
 		}
-		JavaType javaType = getJavaType(elementType.getType(), contextClass);
-		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
-		return jsonView != null ?
-				getObjectMapper().readerWithView(jsonView).forType(javaType) :
-				getObjectMapper().readerFor(javaType);
+		return getJavaType(elementType.getType(), contextClass);
 	}
 
 	@Nullable
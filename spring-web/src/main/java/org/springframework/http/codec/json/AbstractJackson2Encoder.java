@@ -289,13 +289,8 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		if (jsonView == null && hints != null) {
 			jsonView = (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT);
 		}
-		ObjectWriter writer = (jsonView != null ?
-				getObjectMapper().writerWithView(jsonView) : getObjectMapper().writer());
-
-		if (javaType.isContainerType()) {
-			writer = writer.forType(javaType);
-		}
-
+		ObjectWriter writer = getReaderWriterCache().getWriter(
+				(javaType.isContainerType() ? javaType : null), jsonView);
 		return customizeWriter(writer, mimeType, valueType, hints);
 	}
 
@@ -36,6 +36,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Hints;
 import org.springframework.http.HttpLogging;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectReaderWriterCache;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
@@ -82,6 +83,8 @@ public abstract class Jackson2CodecSupport {
 
 	private final ObjectMapper objectMapper;
 
+	private final Jackson2ObjectReaderWriterCache readerWriterCache;
+
 	private final List<MimeType> mimeTypes;
 
 
@@ -91,6 +94,7 @@ public abstract class Jackson2CodecSupport {
 	protected Jackson2CodecSupport(ObjectMapper objectMapper, MimeType... mimeTypes) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.objectMapper = objectMapper;
+		this.readerWriterCache = new Jackson2ObjectReaderWriterCache(objectMapper);
 		this.mimeTypes = !ObjectUtils.isEmpty(mimeTypes) ?
 				Collections.unmodifiableList(Arrays.asList(mimeTypes)) : DEFAULT_MIME_TYPES;
 	}
@@ -100,6 +104,15 @@ public abstract class Jackson2CodecSupport {
 		return this.objectMapper;
 	}
 
+	/**
+	 * Return the cache of prebuilt readers and writers for the
+	 * {@link #getObjectMapper() ObjectMapper} in use.
+	 * @since 5.3.2
+	 */
+	protected Jackson2ObjectReaderWriterCache getReaderWriterCache() {
+		return this.readerWriterCache;
+	}
+
 	/**
 	 * Subclasses should expose this as "decodable" or "encodable" mime types.
 	 */
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Reads a JSON stream of arbitrary size, byte array chunks into a
+ * {@code Flux<Object>}, deserializing each top-level JSON value, or each
+ * element of a top-level JSON array, as soon as its bytes are complete.
+ *
+ * <p>Unlike {@link Jackson2Tokenizer}, which copies the parser events of each
+ * value into a {@link com.fasterxml.jackson.databind.util.TokenBuffer}, this
+ * class locates value boundaries with a lightweight scan of the raw bytes and
+ * lets the {@link ObjectReader} parse each value straight from its bytes. As a
+ * consequence it only supports plain UTF-8 JSON input without comments or
+ * single-quoted strings.
+ *
+ * @since 5.3.2
+ * @see Jackson2Tokenizer
+ */
+final class Jackson2ElementReader {
+
+	private static final int INITIAL_BUFFER_SIZE = 256;
+
+
+	private final ObjectReader objectReader;
+
+	private final int maxInMemorySize;
+
+	private final Function<IOException, ? extends RuntimeException> exceptionHandler;
+
+	/** Bytes received but not yet read, starting at the current value if any. */
+	private byte[] pending = new byte[INITIAL_BUFFER_SIZE];
+
+	private int pendingCount;
+
+	private int scanPosition;
+
+	/** Start of the current value within {@link #pending}, or -1 if none. */
+	private int valueStart = -1;
+
+	private int depth;
+
+	private boolean inTopLevelArray;
+
+	private boolean inString;
+
+	private boolean inEscape;
+
+	/** Whether the current value is a number or literal, ended by any delimiter. */
+	private boolean inScalar;
+
+
+	private Jackson2ElementReader(ObjectReader objectReader, int maxInMemorySize,
+			Function<IOException, ? extends RuntimeException> exceptionHandler) {
+
+		this.objectReader = objectReader;
+		this.maxInMemorySize = maxInMemorySize;
+		this.exceptionHandler = exceptionHandler;
+	}
+
+
+	private List<Object> read(DataBuffer dataBuffer) {
+		try {
+			append(dataBuffer);
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+		List<Object> result = scan();
+		assertInMemorySize();
+		return result;
+	}
+
+	private Flux<Object> endOfInput() {
+		return Flux.defer(() -> {
+			List<Object> result = Collections.emptyList();
+			if (this.inScalar) {
+				result = readValue(this.pendingCount, result);
+			}
+			if (this.depth != 0 || this.valueStart != -1) {
+				throw new DecodingException("JSON decoding error: Unexpected end-of-input");
+			}
+			return Flux.fromIterable(result);
+		});
+	}
+
+	private void append(DataBuffer dataBuffer) {
+		// Discard the bytes of values that have already been read
+		int retained = (this.valueStart != -1 ? this.valueStart : this.pendingCount);
+		if (retained > 0) {
+			System.arraycopy(this.pending, retained, this.pending, 0, this.pendingCount - retained);
+			this.pendingCount -= retained;
+			this.scanPosition -= retained;
+			if (this.valueStart != -1) {
+				this.valueStart = 0;
+			}
+		}
+		int length = dataBuffer.readableByteCount();
+		int required = this.pendingCount + length;
+		if (required > this.pending.length) {
+			byte[] newPending = new byte[Math.max(required, this.pending.length * 2)];
+			System.arraycopy(this.pending, 0, newPending, 0, this.pendingCount);
+			this.pending = newPending;
+		}
+		dataBuffer.read(this.pending, this.pendingCount, length);
+		this.pendingCount = required;
+	}
+
+	private List<Object> scan() {
+		List<Object> result = Collections.emptyList();
+		int valueDepth;
+		for (int i = this.scanPosition; i < this.pendingCount; i++) {
+			byte b = this.pending[i];
+			valueDepth = (this.inTopLevelArray ? 1 : 0);
+			if (this.inString) {
+				if (this.inEscape) {
+					this.inEscape = false;
+				}
+				else if (b == '\\') {
+					this.inEscape = true;
+				}
+				else if (b == '"') {
+					this.inString = false;
+					if (this.depth == valueDepth) {
+						result = readValue(i + 1, result);
+					}
+				}
+				continue;
+			}
+			if (this.inScalar) {
+				if (!isDelimiter(b)) {
+					continue;
+				}
+				result = readValue(i, result);
+			}
+			switch (b) {
+				case '"':
+					this.inString = true;
+					startValue(i, valueDepth);
+					break;
+				case '{':
+					startValue(i, valueDepth);
+					this.depth++;
+					break;
+				case '[':
+					if (this.depth == 0 && !this.inTopLevelArray) {
+						this.inTopLevelArray = true;
+					}
+					else {
+						startValue(i, valueDepth);
+					}
+					this.depth++;
+					break;
+				case '}':
+				case ']':
+					this.depth--;
+					if (this.depth < 0) {
+						throw new DecodingException("JSON decoding error: Unexpected close marker '" + (char) b + "'");
+					}
+					if (this.depth == 0 && this.inTopLevelArray) {
+						this.inTopLevelArray = false;
+					}
+					else if (this.depth == valueDepth) {
+						result = readValue(i + 1, result);
+					}
+					break;
+				case ',':
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+					break;
+				default:
+					if (this.depth == valueDepth && !isByteOrderMark(b)) {
+						startValue(i, valueDepth);
+						this.inScalar = true;
+					}
+			}
+		}
+		this.scanPosition = this.pendingCount;
+		return result;
+	}
+
+	private void startValue(int index, int valueDepth) {
+		if (this.depth == valueDepth) {
+			this.valueStart = index;
+		}
+	}
+
+	private List<Object> readValue(int end, List<Object> result) {
+		try {
+			Object value = this.objectReader.readValue(this.pending, this.valueStart, end - this.valueStart);
+			this.valueStart = -1;
+			this.inScalar = false;
+			if (value == null) {
+				return result;
+			}
+			if (result.isEmpty()) {
+				result = new ArrayList<>();
+			}
+			result.add(value);
+			return result;
+		}
+		catch (IOException ex) {
+			throw this.exceptionHandler.apply(ex);
+		}
+	}
+
+	private void assertInMemorySize() {
+		if (this.maxInMemorySize >= 0 && this.valueStart != -1 &&
+				this.pendingCount - this.valueStart > this.maxInMemorySize) {
+			throw new DataBufferLimitException(
+					"Exceeded limit on max bytes per JSON object: " + this.maxInMemorySize);
+		}
+	}
+
+	private static boolean isDelimiter(byte b) {
+		return (b == ',' || b == ']' || b == '}' || b == ' ' || b == '\t' || b == '\n' || b == '\r');
+	}
+
+	private static boolean isByteOrderMark(byte b) {
+		return (b == (byte) 0xEF || b == (byte) 0xBB || b == (byte) 0xBF);
+	}
+
+
+	/**
+	 * Read the given {@code Flux<DataBuffer>} into a {@code Flux} of values.
+	 * @param dataBuffers the source data buffers, containing UTF-8 encoded JSON
+	 * @param objectReader the reader to deserialize each value with
+	 * @param maxInMemorySize the maximum number of bytes to buffer for a
+	 * single value, or -1 for unlimited
+	 * @param exceptionHandler maps exceptions raised while reading a value
+	 * @return the resulting values; {@code null} values are skipped
+	 */
+	public static Flux<Object> read(Flux<DataBuffer> dataBuffers, ObjectReader objectReader,
+			int maxInMemorySize, Function<IOException, ? extends RuntimeException> exceptionHandler) {
+
+		return Flux.defer(() -> {
+			Jackson2ElementReader reader = new Jackson2ElementReader(objectReader, maxInMemorySize, exceptionHandler);
+			return dataBuffers.concatMapIterable(reader::read).concatWith(reader.endOfInput());
+		});
+	}
+
+}
@@ -24,6 +24,7 @@ import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -79,6 +80,12 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 
 	private Mono<Path> fileStorageDirectory = Mono.defer(this::defaultFileStorageDirectory).cache();
 
+	@Nullable
+	private PartGenerator.WriteBufferPool writeBufferPool;
+
+	@Nullable
+	private Consumer<FileStorageMetrics> fileStorageMetricsListener;
+
 
 	/**
 	 * Configure the maximum amount of memory that is allowed per headers section of each part.
@@ -165,6 +172,54 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 		this.blockingOperationScheduler = blockingOperationScheduler;
 	}
 
+	/**
+	 * Configure the size of the buffers used to write file parts to the
+	 * {@link #setFileStorageDirectory(Path) fileStorageDirectory}.
+	 * <p>By default this is set to -1, meaning that each parsed input buffer
+	 * is written as it arrives, and that parsing waits for each write. When
+	 * set to a positive value, such as 64K or 256K, the contents of a part
+	 * are gathered into direct buffers of that size, written in order on the
+	 * {@link #setBlockingOperationScheduler(Scheduler) blockingOperationScheduler},
+	 * and parsing continues, including with subsequent parts, while writes are
+	 * pending. The memory used for pending writes is limited to 8 buffers per
+	 * request, and write buffers are reused across requests. Parts are still
+	 * emitted in the order of the HTTP message, each once its file has been
+	 * written.
+	 * <p>Note that this property is ignored when
+	 * {@linkplain #setStreaming(boolean) streaming} is enabled, or when
+	 * {@link #setMaxInMemorySize(int) maxInMemorySize} is set to -1.
+	 * @param fileWriteBufferSize the write buffer size in bytes, or -1
+	 * @since 5.3.2
+	 * @see #setFileStorageMetricsListener(Consumer)
+	 */
+	public void setFileWriteBufferSize(int fileWriteBufferSize) {
+		Assert.isTrue(fileWriteBufferSize == -1 || fileWriteBufferSize > 0,
+				"FileWriteBufferSize must be greater than 0, or -1");
+		this.writeBufferPool = (fileWriteBufferSize > 0 ? new PartGenerator.WriteBufferPool(fileWriteBufferSize) : null);
+	}
+
+	/**
+	 * Get the {@link #setFileWriteBufferSize configured} file write buffer size.
+	 * @since 5.3.2
+	 */
+	public int getFileWriteBufferSize() {
+		return (this.writeBufferPool != null ? this.writeBufferPool.getBufferSize() : -1);
+	}
+
+	/**
+	 * Register a listener to be notified with {@link FileStorageMetrics} for
+	 * every part that was stored in a file, for instance to monitor upload
+	 * throughput.
+	 * <p>Note that this property only applies when a
+	 * {@link #setFileWriteBufferSize(int) fileWriteBufferSize} is configured.
+	 * The listener is invoked on the
+	 * {@link #setBlockingOperationScheduler(Scheduler) blockingOperationScheduler}.
+	 * @since 5.3.2
+	 */
+	public void setFileStorageMetricsListener(@Nullable Consumer<FileStorageMetrics> listener) {
+		this.fileStorageMetricsListener = listener;
+	}
+
 	/**
 	 * When set to {@code true}, the {@linkplain Part#content() part content}
 	 * is streamed directly from the parsed input buffer stream, and not stored
@@ -217,7 +272,8 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 					this.maxHeadersSize);
 
 			return PartGenerator.createParts(tokens, this.maxParts, this.maxInMemorySize, this.maxDiskUsagePerPart,
-					this.streaming, this.fileStorageDirectory, this.blockingOperationScheduler);
+					this.streaming, this.fileStorageDirectory, this.blockingOperationScheduler,
+					this.writeBufferPool, this.fileStorageMetricsListener);
 		});
 	}
 
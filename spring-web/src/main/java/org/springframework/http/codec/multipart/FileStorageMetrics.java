@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Metrics for storing the contents of a single part in a temporary file, as
+ * reported by {@link DefaultPartHttpMessageReader} when a
+ * {@linkplain DefaultPartHttpMessageReader#setFileWriteBufferSize(int) file
+ * write buffer size} is configured.
+ *
+ * @since 5.3.2
+ * @see DefaultPartHttpMessageReader#setFileStorageMetricsListener
+ */
+public final class FileStorageMetrics {
+
+	private final HttpHeaders headers;
+
+	private final Path file;
+
+	private final long byteCount;
+
+	private final int writeCount;
+
+	private final Duration duration;
+
+
+	FileStorageMetrics(HttpHeaders headers, Path file, long byteCount, int writeCount, Duration duration) {
+		this.headers = headers;
+		this.file = file;
+		this.byteCount = byteCount;
+		this.writeCount = writeCount;
+		this.duration = duration;
+	}
+
+
+	/**
+	 * Return the headers of the part.
+	 */
+	public HttpHeaders getHeaders() {
+		return this.headers;
+	}
+
+	/**
+	 * Return the temporary file that the part was stored in.
+	 */
+	public Path getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Return the number of bytes written to the file.
+	 */
+	public long getByteCount() {
+		return this.byteCount;
+	}
+
+	/**
+	 * Return the number of write operations used to store the part.
+	 */
+	public int getWriteCount() {
+		return this.writeCount;
+	}
+
+	/**
+	 * Return the time between the part switching to file storage and the
+	 * file being closed.
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Return the storage throughput in bytes per second.
+	 */
+	public double getBytesPerSecond() {
+		long nanos = this.duration.toNanos();
+		return (nanos > 0 ? this.byteCount * 1_000_000_000d / nanos : 0);
+	}
+
+
+	@Override
+	public String toString() {
+		return "FileStorageMetrics[\"" + this.file + "\", " + this.byteCount + " bytes, " +
+				this.writeCount + " writes, " + this.duration.toMillis() + " ms]";
+	}
+
+}
@@ -18,20 +18,25 @@ package org.springframework.http.codec.multipart;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -49,6 +54,8 @@ import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.FastByteArrayOutputStream;
 
 /**
@@ -62,6 +69,9 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 	private static final Log logger = LogFactory.getLog(PartGenerator.class);
 
+	/** The number of write buffers that may be pending per generator before parsing pauses. */
+	private static final int MAX_PENDING_WRITE_BUFFERS = 8;
+
 	private final AtomicReference<State> state = new AtomicReference<>(new InitialState());
 
 	private final AtomicInteger partCount = new AtomicInteger();
@@ -82,9 +92,30 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 	private final Scheduler blockingOperationScheduler;
 
+	private final int fileWriteBufferSize;
+
+	@Nullable
+	private final Consumer<FileStorageMetrics> fileStorageMetricsListener;
+
+	/** Bytes handed to buffered file writes that have not been written yet. */
+	private final AtomicLong pendingWriteBytes = new AtomicLong();
+
+	/** Whether a token request was held back until pending writes complete. */
+	private final AtomicBoolean awaitingWrites = new AtomicBoolean();
+
+	@Nullable
+	private final WriteBufferPool writeBufferPool;
+
+	private final AtomicBoolean storageFailed = new AtomicBoolean();
+
+	/** Keeps parts in message order while file parts are stored in the background. */
+	private volatile CompletableFuture<Void> emission = CompletableFuture.completedFuture(null);
+
 
 	private PartGenerator(FluxSink<Part> sink, int maxParts, int maxInMemorySize, long maxDiskUsagePerPart,
-			boolean streaming, Mono<Path> fileStorageDirectory, Scheduler blockingOperationScheduler) {
+			boolean streaming, Mono<Path> fileStorageDirectory, Scheduler blockingOperationScheduler,
+			@Nullable WriteBufferPool writeBufferPool,
+			@Nullable Consumer<FileStorageMetrics> fileStorageMetricsListener) {
 
 		this.sink = sink;
 		this.maxParts = maxParts;
@@ -93,6 +124,9 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		this.streaming = streaming;
 		this.fileStorageDirectory = fileStorageDirectory;
 		this.blockingOperationScheduler = blockingOperationScheduler;
+		this.fileWriteBufferSize = (writeBufferPool != null ? writeBufferPool.getBufferSize() : -1);
+		this.writeBufferPool = writeBufferPool;
+		this.fileStorageMetricsListener = fileStorageMetricsListener;
 	}
 
 	/**
@@ -102,9 +136,22 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 			long maxDiskUsagePerPart, boolean streaming, Mono<Path> fileStorageDirectory,
 			Scheduler blockingOperationScheduler) {
 
+		return createParts(tokens, maxParts, maxInMemorySize, maxDiskUsagePerPart, streaming,
+				fileStorageDirectory, blockingOperationScheduler, null, null);
+	}
+
+	/**
+	 * Creates parts from a given stream of tokens, storing file parts with
+	 * buffered writes using buffers of the given pool, if any.
+	 */
+	public static Flux<Part> createParts(Flux<MultipartParser.Token> tokens, int maxParts, int maxInMemorySize,
+			long maxDiskUsagePerPart, boolean streaming, Mono<Path> fileStorageDirectory,
+			Scheduler blockingOperationScheduler, @Nullable WriteBufferPool writeBufferPool,
+			@Nullable Consumer<FileStorageMetrics> fileStorageMetricsListener) {
+
 		return Flux.create(sink -> {
 			PartGenerator generator = new PartGenerator(sink, maxParts, maxInMemorySize, maxDiskUsagePerPart, streaming,
-					fileStorageDirectory, blockingOperationScheduler);
+					fileStorageDirectory, blockingOperationScheduler, writeBufferPool, fileStorageMetricsListener);
 
 			sink.onCancel(generator::onSinkCancel);
 			sink.onRequest(l -> generator.requestToken());
@@ -150,6 +197,8 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 				State newState = new StreamingState(contentSink);
 				if (changeState(currentState, newState)) {
 					contentSink.onRequest(l -> requestToken());
+					// skip the remaining body, even if no token is outstanding
+					contentSink.onCancel(this::requestToken);
 					requestToken();
 				}
 			});
@@ -202,6 +251,29 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 	}
 
 	void emitPart(Part part) {
+		this.emission = this.emission.thenRun(() -> emitPartInternal(part));
+	}
+
+	/**
+	 * Emit the part once it has been stored, and after all preceding parts.
+	 */
+	void emitPartWhenStored(CompletableFuture<Part> storedPart, Runnable discard) {
+		this.emission = this.emission
+				.thenCombine(storedPart, (previous, part) -> part)
+				.thenAccept(this::emitPartInternal)
+				.whenComplete((result, ex) -> {
+					if (ex != null) {
+						// not emitted, e.g. because a preceding part could not be stored
+						discard.run();
+						if (this.storageFailed.compareAndSet(false, true)) {
+							changeStateInternal(DisposedState.INSTANCE);
+							emitError(ex.getCause() != null ? ex.getCause() : ex);
+						}
+					}
+				});
+	}
+
+	private void emitPartInternal(Part part) {
 		if (logger.isTraceEnabled()) {
 			logger.trace("Emitting: " + part);
 		}
@@ -209,7 +281,7 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 	}
 
 	void emitComplete() {
-		this.sink.complete();
+		this.emission = this.emission.thenRun(this.sink::complete);
 	}
 
 
@@ -227,6 +299,42 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		}
 	}
 
+	/**
+	 * Request a token unless too many buffered file writes are pending, in
+	 * which case the request is made when enough of them have completed.
+	 */
+	void requestTokenAfterWrites() {
+		long maxPendingBytes = (long) this.fileWriteBufferSize * MAX_PENDING_WRITE_BUFFERS;
+		if (this.pendingWriteBytes.get() <= maxPendingBytes) {
+			requestToken();
+		}
+		else {
+			this.awaitingWrites.set(true);
+			// a pending write might have completed in the meantime
+			if (this.pendingWriteBytes.get() <= maxPendingBytes && this.awaitingWrites.compareAndSet(true, false)) {
+				requestToken();
+			}
+		}
+	}
+
+	void writeCompleted(int byteCount) {
+		long maxPendingBytes = (long) this.fileWriteBufferSize * MAX_PENDING_WRITE_BUFFERS;
+		if (this.pendingWriteBytes.addAndGet(-byteCount) <= maxPendingBytes &&
+				this.awaitingWrites.compareAndSet(true, false)) {
+			requestToken();
+		}
+	}
+
+	ByteBuffer acquireWriteBuffer() {
+		Assert.state(this.writeBufferPool != null, "No WriteBufferPool");
+		return this.writeBufferPool.acquire();
+	}
+
+	void releaseWriteBuffer(ByteBuffer buffer) {
+		Assert.state(this.writeBufferPool != null, "No WriteBufferPool");
+		this.writeBufferPool.release(buffer);
+	}
+
 	private boolean tooManyParts() {
 		int count = this.partCount.incrementAndGet();
 		if (this.maxParts > 0 && count > this.maxParts) {
@@ -261,7 +369,10 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 	 * when the part byte count exceeds {@link #maxInMemorySize},
 	 * then to {@link WritingFileState} (to write the memory contents),
 	 * and finally {@link IdleFileState}, which switches back to
-	 * {@link WritingFileState} when more body data comes in.</li>
+	 * {@link WritingFileState} when more body data comes in. If a
+	 * {@link #fileWriteBufferSize} is set, the creator instead switches to
+	 * {@link BufferedFileState} when the byte count exceeds
+	 * {@link #maxInMemorySize}.</li>
 	 * </ol>
 	 */
 	private interface State {
@@ -483,6 +594,17 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 			content.add(current);
 			this.releaseOnDispose = false;
 
+			if (PartGenerator.this.fileWriteBufferSize > 0) {
+				BufferedFileState newState = new BufferedFileState(this.headers, byteCount);
+				if (changeState(this, newState)) {
+					newState.storeBuffers(content);
+				}
+				else {
+					content.forEach(DataBufferUtils::release);
+				}
+				return;
+			}
+
 			CreateFileState newState = new CreateFileState(this.headers, content, byteCount);
 			if (changeState(this, newState)) {
 				newState.createFile();
@@ -795,6 +917,355 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 	}
 
 
+	/**
+	 * The creator state when the byte count exceeds {@link #maxInMemorySize}
+	 * and a {@link #fileWriteBufferSize} is set. Copies body buffers into
+	 * write buffers of that size, and hands each full write buffer to a
+	 * {@link FileWriter}. Tokens continue to be requested while writes are in
+	 * progress, up to {@link #MAX_PENDING_WRITE_BUFFERS} for all parts, so
+	 * that parsing, including that of subsequent parts, overlaps with writing.
+	 */
+	private final class BufferedFileState implements State {
+
+		private final HttpHeaders headers;
+
+		private final FileWriter writer;
+
+		private long byteCount;
+
+		@Nullable
+		private ByteBuffer writeBuffer;
+
+		private boolean completed;
+
+
+		public BufferedFileState(HttpHeaders headers, long byteCount) {
+			this.headers = headers;
+			this.writer = new FileWriter(headers);
+			this.byteCount = byteCount;
+		}
+
+		public void storeBuffers(Collection<DataBuffer> dataBuffers) {
+			dataBuffers.forEach(this::store);
+			requestTokenAfterWrites();
+		}
+
+		@Override
+		public void body(DataBuffer dataBuffer) {
+			this.byteCount += dataBuffer.readableByteCount();
+			if (PartGenerator.this.maxDiskUsagePerPart == -1 ||
+					this.byteCount <= PartGenerator.this.maxDiskUsagePerPart) {
+				store(dataBuffer);
+				requestTokenAfterWrites();
+			}
+			else {
+				DataBufferUtils.release(dataBuffer);
+				emitError(new DataBufferLimitException(
+						"Part exceeded the disk usage limit of " + PartGenerator.this.maxDiskUsagePerPart +
+								" bytes"));
+			}
+		}
+
+		private void store(DataBuffer dataBuffer) {
+			try {
+				ByteBuffer source = dataBuffer.asByteBuffer();
+				while (source.hasRemaining()) {
+					ByteBuffer target = this.writeBuffer;
+					if (target == null) {
+						target = acquireWriteBuffer();
+						this.writeBuffer = target;
+					}
+					int length = Math.min(source.remaining(), target.remaining());
+					ByteBuffer chunk = source.duplicate();
+					((Buffer) chunk).limit(chunk.position() + length);
+					target.put(chunk);
+					((Buffer) source).position(source.position() + length);
+					if (!target.hasRemaining()) {
+						this.writeBuffer = null;
+						((Buffer) target).flip();
+						this.writer.write(target);
+					}
+				}
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		@Override
+		public void partComplete(boolean finalPart) {
+			this.completed = true;
+			ByteBuffer target = this.writeBuffer;
+			if (target != null) {
+				this.writeBuffer = null;
+				((Buffer) target).flip();
+				this.writer.write(target);
+			}
+			emitPartWhenStored(this.writer.close(), this.writer::discard);
+			if (finalPart) {
+				emitComplete();
+			}
+		}
+
+		@Override
+		public void dispose() {
+			if (!this.completed) {
+				ByteBuffer target = this.writeBuffer;
+				if (target != null) {
+					this.writeBuffer = null;
+					releaseWriteBuffer(target);
+				}
+				this.writer.abort();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "BUFFERED-FILE";
+		}
+	}
+
+
+	/**
+	 * Writes the buffers of a single part to a temporary file, in order, on a
+	 * worker of the {@link #blockingOperationScheduler}. Writers of different
+	 * parts may run concurrently.
+	 */
+	private final class FileWriter {
+
+		private final HttpHeaders headers;
+
+		private final Scheduler.Worker worker = PartGenerator.this.blockingOperationScheduler.createWorker();
+
+		private final CompletableFuture<Path> directory = PartGenerator.this.fileStorageDirectory.toFuture();
+
+		private final CompletableFuture<Part> result = new CompletableFuture<>();
+
+		private final long startTime = System.nanoTime();
+
+		// Fields below only accessed by the worker
+
+		@Nullable
+		private Path file;
+
+		@Nullable
+		private FileChannel channel;
+
+		private long byteCount;
+
+		private int writeCount;
+
+		@Nullable
+		private Throwable error;
+
+
+		public FileWriter(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		public void write(ByteBuffer buffer) {
+			int length = buffer.remaining();
+			PartGenerator.this.pendingWriteBytes.addAndGet(length);
+			schedule(() -> {
+				try {
+					if (this.error == null) {
+						FileChannel channel = openChannel();
+						while (buffer.hasRemaining()) {
+							this.byteCount += channel.write(buffer);
+							this.writeCount++;
+						}
+					}
+				}
+				catch (Throwable ex) {
+					this.error = ex;
+				}
+				finally {
+					releaseWriteBuffer(buffer);
+					writeCompleted(length);
+				}
+			}, () -> {
+				releaseWriteBuffer(buffer);
+				writeCompleted(length);
+			});
+		}
+
+		/**
+		 * Close the file once all pending writes are done.
+		 * @return the part backed by the file
+		 */
+		public CompletableFuture<Part> close() {
+			schedule(() -> {
+				try {
+					Throwable error = this.error;
+					if (error != null) {
+						closeAndDelete();
+						this.result.completeExceptionally(error);
+					}
+					else {
+						openChannel().close();
+						Path file = openFile();
+						reportMetrics(file);
+						this.result.complete(DefaultParts.part(this.headers, partContent(file)));
+					}
+				}
+				catch (Throwable ex) {
+					closeAndDelete();
+					this.result.completeExceptionally(ex);
+				}
+				finally {
+					this.worker.dispose();
+				}
+			}, () -> this.result.completeExceptionally(new IllegalStateException("File writer disposed")));
+			return this.result;
+		}
+
+		/**
+		 * Delete the file once stored, for a part that is not emitted.
+		 */
+		public void discard() {
+			this.result.whenComplete((part, ex) -> {
+				if (part != null) {
+					try {
+						PartGenerator.this.blockingOperationScheduler.schedule(this::closeAndDelete);
+					}
+					catch (Throwable rejected) {
+						closeAndDelete();
+					}
+				}
+			});
+		}
+
+		/**
+		 * Discard the file once all pending writes are done.
+		 */
+		public void abort() {
+			schedule(() -> {
+				try {
+					closeAndDelete();
+				}
+				finally {
+					this.worker.dispose();
+				}
+			}, () -> {});
+		}
+
+		private void schedule(Runnable task, Runnable onRejected) {
+			try {
+				this.worker.schedule(task);
+			}
+			catch (Throwable ex) {
+				onRejected.run();
+			}
+		}
+
+		private Path openFile() throws IOException {
+			Path file = this.file;
+			if (file == null) {
+				Path directory = this.directory.join();
+				file = Files.createTempFile(directory, null, ".multipart");
+				if (logger.isTraceEnabled()) {
+					logger.trace("Storing multipart data in file " + file);
+				}
+				this.file = file;
+			}
+			return file;
+		}
+
+		private FileChannel openChannel() throws IOException {
+			FileChannel channel = this.channel;
+			if (channel == null) {
+				channel = FileChannel.open(openFile(), StandardOpenOption.WRITE);
+				this.channel = channel;
+			}
+			return channel;
+		}
+
+		private void closeAndDelete() {
+			if (this.channel != null) {
+				MultipartUtils.closeChannel(this.channel);
+			}
+			if (this.file != null) {
+				try {
+					Files.deleteIfExists(this.file);
+				}
+				catch (IOException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Could not delete temp file " + this.file, ex);
+					}
+				}
+			}
+		}
+
+		private Flux<DataBuffer> partContent(Path file) {
+			return DataBufferUtils
+					.readByteChannel(
+							() -> Files.newByteChannel(file, StandardOpenOption.READ),
+							DefaultDataBufferFactory.sharedInstance, PartGenerator.this.fileWriteBufferSize)
+					.subscribeOn(PartGenerator.this.blockingOperationScheduler);
+		}
+
+		private void reportMetrics(Path file) {
+			Consumer<FileStorageMetrics> listener = PartGenerator.this.fileStorageMetricsListener;
+			if (listener != null) {
+				Duration duration = Duration.ofNanos(System.nanoTime() - this.startTime);
+				try {
+					listener.accept(new FileStorageMetrics(this.headers, file, this.byteCount, this.writeCount, duration));
+				}
+				catch (Throwable ex) {
+					logger.warn("Failed to report file storage metrics", ex);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Pool of direct write buffers for buffered file writes, shared by the
+	 * generators of all requests read by a {@link DefaultPartHttpMessageReader}.
+	 * Up to {@link PartGenerator#MAX_PENDING_WRITE_BUFFERS} buffers per available processor
+	 * are kept for reuse.
+	 */
+	static final class WriteBufferPool {
+
+		private final int bufferSize;
+
+		private final int maxPooled = MAX_PENDING_WRITE_BUFFERS * Runtime.getRuntime().availableProcessors();
+
+		private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger pooled = new AtomicInteger();
+
+
+		public WriteBufferPool(int bufferSize) {
+			Assert.isTrue(bufferSize > 0, "Buffer size must be greater than 0");
+			this.bufferSize = bufferSize;
+		}
+
+		public int getBufferSize() {
+			return this.bufferSize;
+		}
+
+		public ByteBuffer acquire() {
+			ByteBuffer buffer = this.buffers.poll();
+			if (buffer != null) {
+				this.pooled.decrementAndGet();
+				return buffer;
+			}
+			return ByteBuffer.allocateDirect(this.bufferSize);
+		}
+
+		public void release(ByteBuffer buffer) {
+			((Buffer) buffer).clear();
+			if (this.pooled.incrementAndGet() <= this.maxPooled) {
+				this.buffers.offer(buffer);
+			}
+			else {
+				this.pooled.decrementAndGet();
+			}
+		}
+	}
+
+
 	private static final class DisposedState implements State {
 
 		public static final DisposedState INSTANCE = new DisposedState();
@@ -102,6 +102,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	@Nullable
 	private PrettyPrinter ssePrettyPrinter;
 
+	@Nullable
+	private volatile Jackson2ObjectReaderWriterCache readerWriterCache;
+
 
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		this.objectMapper = objectMapper;
@@ -131,10 +134,17 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	 * The other option for refining the serialization process is to use Jackson's
 	 * provided annotations on the types to be serialized, in which case a
 	 * custom-configured ObjectMapper is unnecessary.
+	 * <p>Readers and writers created from the {@code ObjectMapper} are cached,
+	 * so the {@code ObjectMapper} is expected to be fully configured before the
+	 * converter is first used. Changes through its {@code configure} and
+	 * {@code registerModule} methods discard cached readers and writers, but
+	 * changes that Jackson applies in place, such as mix-ins, do not.
+	 * @see Jackson2ObjectReaderWriterCache
 	 */
 	public void setObjectMapper(ObjectMapper objectMapper) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.objectMapper = objectMapper;
+		this.readerWriterCache = null;
 		configurePrettyPrint();
 	}
 
@@ -162,7 +172,22 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	private void configurePrettyPrint() {
 		if (this.prettyPrint != null) {
 			this.objectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
+			this.readerWriterCache = null;
+		}
+	}
+
+	/**
+	 * Return the cache of readers and writers for the current {@code ObjectMapper},
+	 * (re-)creating it if the {@code ObjectMapper} has been replaced, e.g. by a
+	 * subclass assigning the {@link #objectMapper} field directly.
+	 */
+	private Jackson2ObjectReaderWriterCache getReaderWriterCache() {
+		Jackson2ObjectReaderWriterCache cache = this.readerWriterCache;
+		if (cache == null || cache.getObjectMapper() != this.objectMapper) {
+			cache = new Jackson2ObjectReaderWriterCache(this.objectMapper);
+			this.readerWriterCache = cache;
 		}
+		return cache;
 	}
 
 
@@ -257,25 +282,17 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
 		boolean isUnicode = ENCODINGS.containsKey(charset.name());
 		try {
+			Class<?> deserializationView = null;
 			if (inputMessage instanceof MappingJacksonInputMessage) {
-				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
-				if (deserializationView != null) {
-					ObjectReader objectReader = this.objectMapper.readerWithView(deserializationView).forType(javaType);
-					if (isUnicode) {
-						return objectReader.readValue(inputMessage.getBody());
-					}
-					else {
-						Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-						return objectReader.readValue(reader);
-					}
-				}
+				deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
 			}
+			ObjectReader objectReader = getReaderWriterCache().getReader(javaType, deserializationView);
 			if (isUnicode) {
-				return this.objectMapper.readValue(inputMessage.getBody(), javaType);
+				return objectReader.readValue(inputMessage.getBody());
 			}
 			else {
 				Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-				return this.objectMapper.readValue(reader, javaType);
+				return objectReader.readValue(reader);
 			}
 		}
 		catch (InvalidDefinitionException ex) {
@@ -329,14 +346,11 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				javaType = getJavaType(type, null);
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					this.objectMapper.writerWithView(serializationView) : this.objectMapper.writer());
+			ObjectWriter objectWriter = getReaderWriterCache().getWriter(
+					(javaType != null && javaType.isContainerType() ? javaType : null), serializationView);
 			if (filters != null) {
 				objectWriter = objectWriter.with(filters);
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
-			}
 			SerializationConfig config = objectWriter.getConfig();
 			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
 					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bounded cache of prebuilt Jackson {@link ObjectReader} and {@link ObjectWriter}
+ * instances for a given {@link ObjectMapper}, keyed by target {@link JavaType}
+ * and JSON view.
+ *
+ * <p>Creating a reader or writer for a specific type makes Jackson resolve the
+ * root (de)serializer for that type, which is worth doing once rather than per
+ * message. Readers and writers are immutable, so cached instances can be
+ * shared by concurrent callers and further customized, e.g. with a
+ * {@link com.fasterxml.jackson.databind.ser.FilterProvider}, on a per-message
+ * basis.
+ *
+ * <p>Used by {@link AbstractJackson2HttpMessageConverter} as well as by the
+ * reactive {@code AbstractJackson2Encoder} and {@code AbstractJackson2Decoder}.
+ * Cached readers and writers are discarded when the configuration of the
+ * underlying {@code ObjectMapper} is replaced, e.g. through
+ * {@link ObjectMapper#configure} or {@link ObjectMapper#registerModule}.
+ * Changes that Jackson applies in place, such as mix-ins added after the first
+ * reader or writer was obtained, are not detected, so the {@code ObjectMapper}
+ * is expected to be fully configured before it is first used, or {@link #clear()}
+ * is to be called after such a change.
+ *
+ * @since 5.3.2
+ */
+public final class Jackson2ObjectReaderWriterCache {
+
+	/**
+	 * The default maximum number of readers and of writers to cache.
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+
+	private final ObjectMapper objectMapper;
+
+	private final int cacheLimit;
+
+	private volatile Caches caches;
+
+
+	/**
+	 * Create a new cache for the given {@code ObjectMapper} with the
+	 * {@link #DEFAULT_CACHE_LIMIT default} cache limit.
+	 * @param objectMapper the {@code ObjectMapper} to create readers and writers with
+	 */
+	public Jackson2ObjectReaderWriterCache(ObjectMapper objectMapper) {
+		this(objectMapper, DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new cache for the given {@code ObjectMapper}.
+	 * @param objectMapper the {@code ObjectMapper} to create readers and writers with
+	 * @param cacheLimit the maximum number of readers and of writers to cache
+	 */
+	public Jackson2ObjectReaderWriterCache(ObjectMapper objectMapper, int cacheLimit) {
+		Assert.notNull(objectMapper, "ObjectMapper must not be null");
+		this.objectMapper = objectMapper;
+		this.cacheLimit = cacheLimit;
+		this.caches = new Caches();
+	}
+
+
+	/**
+	 * Return the {@code ObjectMapper} this cache creates readers and writers with.
+	 */
+	public ObjectMapper getObjectMapper() {
+		return this.objectMapper;
+	}
+
+	/**
+	 * Return a reader for the given target type and optional JSON view.
+	 * @param javaType the type to read
+	 * @param jsonView the JSON view to read with, or {@code null} if none
+	 * @return the (possibly cached) reader
+	 */
+	public ObjectReader getReader(JavaType javaType, @Nullable Class<?> jsonView) {
+		Assert.notNull(javaType, "JavaType must not be null");
+		return getCaches().readerCache.get(new CacheKey(javaType, jsonView));
+	}
+
+	/**
+	 * Return a writer for the given root type and optional JSON view.
+	 * @param javaType the root type to write with, or {@code null} to let Jackson
+	 * determine the serializer from the runtime type of the value
+	 * @param jsonView the JSON view to write with, or {@code null} if none
+	 * @return the (possibly cached) writer
+	 */
+	public ObjectWriter getWriter(@Nullable JavaType javaType, @Nullable Class<?> jsonView) {
+		return getCaches().writerCache.get(new CacheKey(javaType, jsonView));
+	}
+
+	/**
+	 * Remove all cached readers and writers, e.g. after a change to the
+	 * configuration of the underlying {@code ObjectMapper}.
+	 */
+	public void clear() {
+		this.caches = new Caches();
+	}
+
+	/**
+	 * Return the caches for the current configuration of the {@code ObjectMapper},
+	 * recreating them if that configuration has been replaced.
+	 */
+	private Caches getCaches() {
+		Caches caches = this.caches;
+		if (!caches.isCurrent()) {
+			caches = new Caches();
+			this.caches = caches;
+		}
+		return caches;
+	}
+
+
+	private ObjectReader createReader(CacheKey key) {
+		Assert.state(key.javaType != null, "No JavaType");
+		return (key.jsonView != null ?
+				this.objectMapper.readerWithView(key.jsonView).forType(key.javaType) :
+				this.objectMapper.readerFor(key.javaType));
+	}
+
+	private ObjectWriter createWriter(CacheKey key) {
+		ObjectWriter writer = (key.jsonView != null ?
+				this.objectMapper.writerWithView(key.jsonView) : this.objectMapper.writer());
+		return (key.javaType != null ? writer.forType(key.javaType) : writer);
+	}
+
+
+	/**
+	 * Reader and writer caches along with the {@code ObjectMapper} configuration
+	 * that the cached instances were created with.
+	 */
+	private final class Caches {
+
+		private final SerializationConfig serializationConfig =
+				Jackson2ObjectReaderWriterCache.this.objectMapper.getSerializationConfig();
+
+		private final DeserializationConfig deserializationConfig =
+				Jackson2ObjectReaderWriterCache.this.objectMapper.getDeserializationConfig();
+
+		private final SerializerFactory serializerFactory =
+				Jackson2ObjectReaderWriterCache.this.objectMapper.getSerializerFactory();
+
+		private final SerializerProvider serializerProvider =
+				Jackson2ObjectReaderWriterCache.this.objectMapper.getSerializerProvider();
+
+		private final DeserializationContext deserializationContext =
+				Jackson2ObjectReaderWriterCache.this.objectMapper.getDeserializationContext();
+
+		private final ConcurrentLruCache<CacheKey, ObjectReader> readerCache =
+				new ConcurrentLruCache<>(Jackson2ObjectReaderWriterCache.this.cacheLimit, key -> createReader(key));
+
+		private final ConcurrentLruCache<CacheKey, ObjectWriter> writerCache =
+				new ConcurrentLruCache<>(Jackson2ObjectReaderWriterCache.this.cacheLimit, key -> createWriter(key));
+
+		boolean isCurrent() {
+			ObjectMapper objectMapper = Jackson2ObjectReaderWriterCache.this.objectMapper;
+			return (this.serializationConfig == objectMapper.getSerializationConfig() &&
+					this.deserializationConfig == objectMapper.getDeserializationConfig() &&
+					this.serializerFactory == objectMapper.getSerializerFactory() &&
+					this.serializerProvider == objectMapper.getSerializerProvider() &&
+					this.deserializationContext == objectMapper.getDeserializationContext());
+		}
+	}
+
+
+	private static final class CacheKey {
+
+		@Nullable
+		private final JavaType javaType;
+
+		@Nullable
+		private final Class<?> jsonView;
+
+		private final int hashCode;
+
+		CacheKey(@Nullable JavaType javaType, @Nullable Class<?> jsonView) {
+			this.javaType = javaType;
+			this.jsonView = jsonView;
+			this.hashCode = ObjectUtils.nullSafeHashCode(javaType) * 31 + ObjectUtils.nullSafeHashCode(jsonView);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (ObjectUtils.nullSafeEquals(this.javaType, otherKey.javaType) &&
+					this.jsonView == otherKey.jsonView);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
@@ -29,6 +29,7 @@ import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Iterator;
@@ -141,12 +142,17 @@ public class ServletServerHttpRequest implements ServerHttpRequest {
 		if (this.headers == null) {
 			this.headers = new HttpHeaders();
 
+			// Copy the values of each header at once, rather than adding them one by one.
+			// The headers are copied rather than adapted, since they may be used after
+			// the request has been completed and recycled by the Servlet container.
 			for (Enumeration<?> names = this.servletRequest.getHeaderNames(); names.hasMoreElements();) {
 				String headerName = (String) names.nextElement();
-				for (Enumeration<?> headerValues = this.servletRequest.getHeaders(headerName);
-						headerValues.hasMoreElements();) {
-					String headerValue = (String) headerValues.nextElement();
-					this.headers.add(headerName, headerValue);
+				List<String> headerValues = new ArrayList<>(1);
+				for (Enumeration<?> values = this.servletRequest.getHeaders(headerName); values.hasMoreElements();) {
+					headerValues.add((String) values.nextElement());
+				}
+				if (!headerValues.isEmpty()) {
+					this.headers.put(headerName, headerValues);
 				}
 			}
 
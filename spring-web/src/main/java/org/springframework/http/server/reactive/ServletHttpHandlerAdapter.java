@@ -108,6 +108,12 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.servletPath;
 	}
 
+	/**
+	 * Configure the {@link DataBufferFactory} to use for request and response
+	 * buffers. By default this is {@link DefaultDataBufferFactory#sharedInstance}.
+	 * <p>Consider a {@link org.springframework.core.io.buffer.PooledDefaultDataBufferFactory}
+	 * to recycle buffer memory and reduce garbage collection under load.
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
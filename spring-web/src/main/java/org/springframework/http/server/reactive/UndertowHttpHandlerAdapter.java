@@ -54,6 +54,12 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 	}
 
 
+	/**
+	 * Configure the {@link DataBufferFactory} to use for request and response
+	 * buffers. By default this is {@link DefaultDataBufferFactory#sharedInstance}.
+	 * <p>Consider a {@link org.springframework.core.io.buffer.PooledDefaultDataBufferFactory}
+	 * to recycle buffer memory and reduce garbage collection under load.
+	 */
 	public void setDataBufferFactory(DataBufferFactory bufferFactory) {
 		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
 		this.bufferFactory = bufferFactory;
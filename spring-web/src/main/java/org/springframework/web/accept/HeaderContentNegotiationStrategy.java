@@ -16,13 +16,16 @@
 
 package org.springframework.web.accept;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.context.request.NativeWebRequest;
 
@@ -35,6 +38,21 @@ import org.springframework.web.context.request.NativeWebRequest;
  */
 public class HeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
 
+	/** Accept header values longer than this are parsed without caching. */
+	private static final int MAX_CACHED_HEADER_LENGTH = 1024;
+
+	/**
+	 * Parsed and sorted media types, keyed by Accept header value. Clients
+	 * tend to send the same few Accept headers with every request. The cached
+	 * lists are unmodifiable and not exposed, callers receive a copy.
+	 */
+	private static final ConcurrentLruCache<String, List<MediaType>> cachedMediaTypes =
+			new ConcurrentLruCache<>(64, headerValue -> {
+				List<MediaType> mediaTypes = parseAndSort(headerValue);
+				return (mediaTypes != MEDIA_TYPE_ALL_LIST ? Collections.unmodifiableList(mediaTypes) : mediaTypes);
+			});
+
+
 	/**
 	 * {@inheritDoc}
 	 * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header cannot be parsed
@@ -48,16 +66,29 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 			return MEDIA_TYPE_ALL_LIST;
 		}
 
-		List<String> headerValues = Arrays.asList(headerValueArray);
+		String headerValue = (headerValueArray.length == 1 ? headerValueArray[0] :
+				StringUtils.arrayToCommaDelimitedString(headerValueArray));
 		try {
-			List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
-			return !CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST;
+			if (headerValue.length() > MAX_CACHED_HEADER_LENGTH) {
+				return parseAndSort(headerValue);
+			}
+			List<MediaType> mediaTypes = cachedMediaTypes.get(headerValue);
+			return (mediaTypes != MEDIA_TYPE_ALL_LIST ? new ArrayList<>(mediaTypes) : MEDIA_TYPE_ALL_LIST);
 		}
 		catch (InvalidMediaTypeException ex) {
 			throw new HttpMediaTypeNotAcceptableException(
-					"Could not parse 'Accept' header " + headerValues + ": " + ex.getMessage());
+					"Could not parse 'Accept' header [" + headerValue + "]: " + ex.getMessage());
 		}
 	}
 
+	/**
+	 * Parse the given Accept header value, and return the media types sorted
+	 * by specificity and quality.
+	 */
+	private static List<MediaType> parseAndSort(String headerValue) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValue);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return (!CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST);
+	}
+
 }
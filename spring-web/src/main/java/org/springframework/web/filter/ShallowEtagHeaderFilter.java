@@ -18,19 +18,25 @@ package org.springframework.web.filter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
+import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -46,6 +52,11 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>By default the entire response body is buffered in order to compute the
+ * ETag. A {@link #setMaxBufferSize maxBufferSize} may be configured to bound
+ * the buffer for requests without an {@code If-None-Match} header: larger
+ * responses are then streamed to the client without an ETag.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -64,6 +75,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int maxBufferSize = -1;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -84,6 +97,31 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of bytes to buffer for requests that do not have
+	 * an {@code If-None-Match} header, and therefore cannot result in a
+	 * {@code 304 "Not Modified"} response.
+	 * <p>Responses up to this size are buffered and get an ETag. As soon as a
+	 * response exceeds this size, the buffered content is written out and the
+	 * rest of the response is streamed without an ETag. Requests with an
+	 * {@code If-None-Match} header always buffer the entire response.
+	 * <p>By default this is set to -1 in which case the response is always
+	 * buffered entirely.
+	 * @since 5.3.2
+	 */
+	public void setMaxBufferSize(int maxBufferSize) {
+		this.maxBufferSize = maxBufferSize;
+	}
+
+	/**
+	 * Return the configured maximum number of bytes to buffer for requests
+	 * without an {@code If-None-Match} header.
+	 * @since 5.3.2
+	 */
+	public int getMaxBufferSize() {
+		return this.maxBufferSize;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -99,8 +137,14 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 
 		HttpServletResponse responseToUse = response;
-		if (!isAsyncDispatch(request) && !(response instanceof ConditionalContentCachingResponseWrapper)) {
-			responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+		if (!isAsyncDispatch(request) && !(response instanceof ConditionalContentCachingResponseWrapper) &&
+				!(response instanceof BoundedContentCachingResponseWrapper)) {
+			if (this.maxBufferSize >= 0 && request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+				responseToUse = new BoundedContentCachingResponseWrapper(response, request, this.maxBufferSize);
+			}
+			else {
+				responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+			}
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -111,6 +155,13 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 	}
 
 	private void updateResponse(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		BoundedContentCachingResponseWrapper boundedWrapper =
+				WebUtils.getNativeResponse(response, BoundedContentCachingResponseWrapper.class);
+		if (boundedWrapper != null) {
+			updateResponse(request, boundedWrapper);
+			return;
+		}
+
 		ConditionalContentCachingResponseWrapper wrapper =
 				WebUtils.getNativeResponse(response, ConditionalContentCachingResponseWrapper.class);
 		Assert.notNull(wrapper, "ContentCachingResponseWrapper not found");
@@ -130,6 +181,17 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		wrapper.copyBodyToResponse();
 	}
 
+	private void updateResponse(HttpServletRequest request, BoundedContentCachingResponseWrapper wrapper)
+			throws IOException {
+
+		if (!wrapper.isStreaming() && !StringUtils.hasText(wrapper.getHeader(HttpHeaders.ETAG)) &&
+				isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
+			String eTag = generateETagHeaderValue(wrapper.getContentInputStream(), this.writeWeakETag);
+			wrapper.setHeader(HttpHeaders.ETAG, eTag);
+		}
+		wrapper.copyBodyToResponse();
+	}
+
 	/**
 	 * Whether an ETag should be calculated for the given request and response
 	 * exchange. By default this is {@code true} if all of the following match:
@@ -229,4 +291,263 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		}
 	}
 
+
+	/**
+	 * Buffers content up to a maximum size and streams it to the underlying
+	 * response thereafter, for requests that cannot result in a 304 response.
+	 */
+	private static class BoundedContentCachingResponseWrapper extends HttpServletResponseWrapper {
+
+		private final HttpServletRequest request;
+
+		private final int maxBufferSize;
+
+		private final FastByteArrayOutputStream content = new FastByteArrayOutputStream(1024);
+
+		private boolean streaming;
+
+		@Nullable
+		private BoundedServletOutputStream outputStream;
+
+		@Nullable
+		private PrintWriter writer;
+
+		@Nullable
+		private Long contentLength;
+
+		BoundedContentCachingResponseWrapper(HttpServletResponse response, HttpServletRequest request, int maxBufferSize) {
+			super(response);
+			this.request = request;
+			this.maxBufferSize = maxBufferSize;
+		}
+
+		public boolean isStreaming() {
+			return this.streaming;
+		}
+
+		public InputStream getContentInputStream() {
+			return this.content.getInputStream();
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			startStreaming();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			startStreaming();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			startStreaming();
+			super.sendRedirect(location);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.outputStream == null) {
+				this.outputStream = new BoundedServletOutputStream(getResponse().getOutputStream());
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getWriter();
+			}
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				if (this.outputStream == null) {
+					this.outputStream = new BoundedServletOutputStream(getResponse().getOutputStream());
+				}
+				this.writer = new BoundedPrintWriter(this.outputStream,
+						characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING);
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.streaming) {
+				super.flushBuffer();
+			}
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (this.streaming) {
+				super.setContentLengthLong(len);
+			}
+			else {
+				this.contentLength = len;
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			if (this.streaming) {
+				super.resetBuffer();
+			}
+			else {
+				this.content.reset();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			this.content.reset();
+			this.contentLength = null;
+		}
+
+		private boolean hasETag() {
+			return StringUtils.hasText(getHeader(HttpHeaders.ETAG));
+		}
+
+		private void startStreaming() throws IOException {
+			if (!this.streaming) {
+				this.streaming = true;
+				if (this.contentLength != null && !getResponse().isCommitted()) {
+					super.setContentLengthLong(this.contentLength);
+				}
+				if (this.content.size() > 0) {
+					this.content.writeTo(getResponse().getOutputStream());
+					this.content.reset();
+				}
+			}
+		}
+
+		public void copyBodyToResponse() throws IOException {
+			if (this.streaming) {
+				super.flushBuffer();
+				return;
+			}
+			if (this.content.size() > 0) {
+				HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+				if (!rawResponse.isCommitted() && rawResponse.getHeader(HttpHeaders.TRANSFER_ENCODING) == null) {
+					rawResponse.setContentLength(this.content.size());
+				}
+				this.content.writeTo(rawResponse.getOutputStream());
+				this.content.reset();
+				super.flushBuffer();
+			}
+		}
+
+
+		private class BoundedServletOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream os;
+
+			private boolean ignoreFlush;
+
+			BoundedServletOutputStream(ServletOutputStream os) {
+				this.os = os;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				if (streaming) {
+					this.os.write(b);
+				}
+				else {
+					content.write(b);
+					checkBufferSize();
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (streaming) {
+					this.os.write(b, off, len);
+				}
+				else {
+					content.write(b, off, len);
+					checkBufferSize();
+				}
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (streaming && !this.ignoreFlush) {
+					this.os.flush();
+				}
+			}
+
+			private void checkBufferSize() throws IOException {
+				if (content.size() > maxBufferSize) {
+					startStreaming();
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.os.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.os.setWriteListener(writeListener);
+			}
+		}
+
+
+		/**
+		 * PrintWriter that passes written characters on to the byte stream right
+		 * away, so that the buffer size is checked, but that flushes the byte
+		 * stream only when flushed explicitly.
+		 */
+		private static class BoundedPrintWriter extends PrintWriter {
+
+			private final BoundedServletOutputStream os;
+
+			BoundedPrintWriter(BoundedServletOutputStream os, String characterEncoding)
+					throws UnsupportedEncodingException {
+
+				super(new OutputStreamWriter(os, characterEncoding));
+				this.os = os;
+			}
+
+			@Override
+			public void write(char[] buf, int off, int len) {
+				super.write(buf, off, len);
+				encode();
+			}
+
+			@Override
+			public void write(String s, int off, int len) {
+				super.write(s, off, len);
+				encode();
+			}
+
+			@Override
+			public void write(int c) {
+				super.write(c);
+				encode();
+			}
+
+			private void encode() {
+				this.os.ignoreFlush = true;
+				try {
+					super.flush();
+				}
+				finally {
+					this.os.ignoreFlush = false;
+				}
+			}
+		}
+	}
+
 }
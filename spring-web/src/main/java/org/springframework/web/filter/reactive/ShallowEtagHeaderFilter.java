@@ -0,0 +1,230 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * {@code WebFilter} that generates an {@code ETag} value based on the content
+ * of the response. This ETag is compared to the {@code If-None-Match} header
+ * of the request. If these headers are equal, the response content is not
+ * sent, but rather a {@code 304 "Not Modified"} status instead.
+ *
+ * <p>The ETag is computed incrementally as data buffers are written, while the
+ * buffers are held back until the ETag is known. For requests without an
+ * {@code If-None-Match} header, a {@link #setMaxBufferSize maxBufferSize} may
+ * be configured: responses that exceed it are streamed to the client without
+ * an ETag. Responses written with {@code writeAndFlushWith}, e.g. for streaming
+ * media types, are passed through unchanged.
+ *
+ * <p>This is the reactive equivalent of the Servlet
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter}.
+ *
+ * @since 5.3.2
+ */
+public class ShallowEtagHeaderFilter implements WebFilter {
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+
+	private boolean writeWeakETag = false;
+
+	private int maxBufferSize = -1;
+
+
+	/**
+	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
+	 * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 section 2.3</a>
+	 */
+	public void setWriteWeakETag(boolean writeWeakETag) {
+		this.writeWeakETag = writeWeakETag;
+	}
+
+	/**
+	 * Return whether the ETag value written to the response should be weak, as per RFC 7232.
+	 */
+	public boolean isWriteWeakETag() {
+		return this.writeWeakETag;
+	}
+
+	/**
+	 * Set the maximum number of bytes to buffer for requests that do not have
+	 * an {@code If-None-Match} header, and therefore cannot result in a
+	 * {@code 304 "Not Modified"} response.
+	 * <p>Responses up to this size get an ETag. As soon as a response exceeds
+	 * this size, the buffered content is written out and the rest of the
+	 * response is streamed without an ETag. Requests with an
+	 * {@code If-None-Match} header always buffer the entire response.
+	 * <p>By default this is set to -1 in which case the response is always
+	 * buffered entirely.
+	 */
+	public void setMaxBufferSize(int maxBufferSize) {
+		this.maxBufferSize = maxBufferSize;
+	}
+
+	/**
+	 * Return the configured maximum number of bytes to buffer for requests
+	 * without an {@code If-None-Match} header.
+	 */
+	public int getMaxBufferSize() {
+		return this.maxBufferSize;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+			return chain.filter(exchange);
+		}
+		int limit = (exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH) ?
+				-1 : this.maxBufferSize);
+		ServerHttpResponse response = new ETagResponseDecorator(exchange, limit);
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * Whether an ETag should be calculated for the given response.
+	 * By default this is {@code true} if the response status is in the
+	 * {@code 2xx} series (or not set), the response does not have an ETag
+	 * yet, and its Cache-Control header does not contain "no-store".
+	 * @param response the HTTP response
+	 * @return {@code true} if eligible for ETag generation, {@code false} otherwise
+	 */
+	protected boolean isEligibleForEtag(ServerHttpResponse response) {
+		HttpStatus status = response.getStatusCode();
+		if (status != null && !status.is2xxSuccessful()) {
+			return false;
+		}
+		HttpHeaders headers = response.getHeaders();
+		if (StringUtils.hasText(headers.getETag())) {
+			return false;
+		}
+		String cacheControl = headers.getCacheControl();
+		return (cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE));
+	}
+
+	private String generateETagHeaderValue(MessageDigest digest) {
+		byte[] hash = digest.digest();
+		// length of W/ + " + 0 + 32bits md5 hash + "
+		StringBuilder builder = new StringBuilder(37);
+		if (this.writeWeakETag) {
+			builder.append("W/");
+		}
+		builder.append("\"0");
+		for (byte b : hash) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+			builder.append(Character.forDigit(b & 0xF, 16));
+		}
+		builder.append('"');
+		return builder.toString();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+		}
+	}
+
+
+	/**
+	 * Response decorator that hashes the body as it is written, holding back
+	 * data buffers until either the body completes or the limit is exceeded.
+	 */
+	private class ETagResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final ServerWebExchange exchange;
+
+		private final int limit;
+
+		private final MessageDigest digest = createDigest();
+
+		private long bufferedSize;
+
+		private boolean limitExceeded;
+
+		ETagResponseDecorator(ServerWebExchange exchange, int limit) {
+			super(exchange.getResponse());
+			this.exchange = exchange;
+			this.limit = limit;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isEligibleForEtag(getDelegate())) {
+				return super.writeWith(body);
+			}
+			Flux<DataBuffer> content = Flux.<DataBuffer>from(body)
+					.windowUntil(this::updateAndCheckLimit)
+					.index()
+					.concatMap(tuple -> tuple.getT1() == 0 ?
+							tuple.getT2().collectList()
+									.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release)
+									.flatMapMany(this::processBufferedContent) :
+							tuple.getT2());
+			return super.writeWith(content);
+		}
+
+		/**
+		 * Update the digest with the given buffer, returning {@code true} only
+		 * for the buffer that takes the response over the limit.
+		 */
+		private boolean updateAndCheckLimit(DataBuffer buffer) {
+			if (this.limitExceeded) {
+				return false;
+			}
+			this.digest.update(buffer.asByteBuffer());
+			this.bufferedSize += buffer.readableByteCount();
+			this.limitExceeded = (this.limit >= 0 && this.bufferedSize > this.limit);
+			return this.limitExceeded;
+		}
+
+		private Flux<DataBuffer> processBufferedContent(List<DataBuffer> buffers) {
+			if (!this.limitExceeded) {
+				String eTag = generateETagHeaderValue(this.digest);
+				getHeaders().setETag(eTag);
+				if (this.exchange.checkNotModified(eTag)) {
+					buffers.forEach(DataBufferUtils::release);
+					return Flux.empty();
+				}
+			}
+			return Flux.fromIterable(buffers);
+		}
+	}
+
+}
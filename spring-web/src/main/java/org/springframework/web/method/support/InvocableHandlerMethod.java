@@ -49,6 +49,9 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	private static final Object[] EMPTY_ARGS = new Object[0];
 
 
+	/** Whether the method parameters are shared with a registered handler method. */
+	private final boolean sharedMethodParameters;
+
 	private HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
@@ -62,6 +65,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	public InvocableHandlerMethod(HandlerMethod handlerMethod) {
 		super(handlerMethod);
+		this.sharedMethodParameters = true;
 	}
 
 	/**
@@ -69,6 +73,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	public InvocableHandlerMethod(Object bean, Method method) {
 		super(bean, method);
+		this.sharedMethodParameters = false;
 	}
 
 	/**
@@ -82,6 +87,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			throws NoSuchMethodException {
 
 		super(bean, methodName, parameterTypes);
+		this.sharedMethodParameters = false;
 	}
 
 
@@ -155,6 +161,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		// Only look up the resolvers for all parameters at once if the parameter array is
+		// shared, rather than created for this instance (e.g. for an @InitBinder method)
+		HandlerMethodArgumentResolver[] argumentResolvers = (this.sharedMethodParameters ?
+				this.resolvers.getArgumentResolvers(parameters) : null);
 		Object[] args = new Object[parameters.length];
 		for (int i = 0; i < parameters.length; i++) {
 			MethodParameter parameter = parameters[i];
@@ -163,11 +173,13 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = (argumentResolvers != null ? argumentResolvers[i] :
+					this.resolvers.supportsParameter(parameter) ? this.resolvers : null);
+			if (resolver == null) {
 				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
 			}
 			try {
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 			}
 			catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
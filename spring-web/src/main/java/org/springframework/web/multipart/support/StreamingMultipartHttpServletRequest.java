@@ -0,0 +1,393 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.multipart.MultipartException;
+
+/**
+ * Spring MultipartHttpServletRequest adapter that parses the multipart
+ * content of a Servlet request while it is being read, exposing its parts
+ * through a single-pass {@link #getPartIterator() iterator}.
+ *
+ * <p>Parts are not buffered in memory nor written to temporary files. Each
+ * part has to be processed before moving on to the next one; on advancing the
+ * iterator, the unread content of the previous part is skipped. As a
+ * consequence, the {@link #getFileMap() file} accessors of
+ * {@link org.springframework.web.multipart.MultipartRequest} are always
+ * empty, and parameters are exposed through the native request's
+ * getParameter methods only.
+ *
+ * @since 5.3.2
+ * @see StreamingMultipartResolver
+ */
+public class StreamingMultipartHttpServletRequest extends AbstractMultipartHttpServletRequest {
+
+	private static final ResolvableType PART_TYPE =
+			ResolvableType.forClass(org.springframework.http.codec.multipart.Part.class);
+
+
+	private final DefaultPartHttpMessageReader reader;
+
+	private final int bufferSize;
+
+	@Nullable
+	private Stream<org.springframework.http.codec.multipart.Part> parts;
+
+	@Nullable
+	private StreamingPart currentPart;
+
+
+	/**
+	 * Create a new StreamingMultipartHttpServletRequest wrapper for the given request.
+	 * @param request the servlet request to wrap
+	 * @param reader the streaming message reader to parse parts with
+	 * @param bufferSize the size of the buffers to read the request body with
+	 */
+	StreamingMultipartHttpServletRequest(HttpServletRequest request, DefaultPartHttpMessageReader reader,
+			int bufferSize) {
+
+		super(request);
+		this.reader = reader;
+		this.bufferSize = bufferSize;
+		setMultipartFiles(new LinkedMultiValueMap<>());
+	}
+
+
+	/**
+	 * Return an iterator over the parts of this request, in the order of the
+	 * request body. The body is parsed while iterating, and this method can
+	 * therefore only be called once.
+	 * <p>The content of each part can be read once, through
+	 * {@link Part#getInputStream()} or {@link Part#write(String)}, and only
+	 * until the iterator is advanced. The {@linkplain Part#getSize() size} of
+	 * the parts is not known upfront.
+	 * @throws IllegalStateException if called more than once
+	 */
+	public Iterator<Part> getPartIterator() {
+		Assert.state(this.parts == null, "Parts already requested");
+		Stream<org.springframework.http.codec.multipart.Part> parts =
+				this.reader.read(PART_TYPE, new ServletInputMessage(getRequest(), this.bufferSize),
+						Collections.emptyMap()).toStream(1);
+		this.parts = parts;
+		Iterator<org.springframework.http.codec.multipart.Part> delegate = parts.iterator();
+
+		return new Iterator<Part>() {
+			@Override
+			public boolean hasNext() {
+				skipCurrentPart();
+				try {
+					return delegate.hasNext();
+				}
+				catch (RuntimeException ex) {
+					throw new MultipartException("Failed to parse multipart servlet request", ex);
+				}
+			}
+			@Override
+			public Part next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				StreamingPart part = new StreamingPart(delegate.next());
+				currentPart = part;
+				return part;
+			}
+		};
+	}
+
+	private void skipCurrentPart() {
+		StreamingPart part = this.currentPart;
+		if (part != null) {
+			this.currentPart = null;
+			part.skip();
+		}
+	}
+
+	/**
+	 * Stop parsing the request, skipping any parts that have not been read.
+	 * Invoked by {@link StreamingMultipartResolver#cleanupMultipart}.
+	 */
+	public void close() {
+		Stream<org.springframework.http.codec.multipart.Part> parts = this.parts;
+		if (parts != null) {
+			skipCurrentPart();
+			parts.close();
+		}
+	}
+
+	@Override
+	@Nullable
+	public String getMultipartContentType(String paramOrFileName) {
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public HttpHeaders getMultipartHeaders(String paramOrFileName) {
+		return null;
+	}
+
+
+	/**
+	 * {@code ReactiveHttpInputMessage} that reads the body of a Servlet request
+	 * with blocking I/O, on the thread that consumes the parts.
+	 */
+	private static class ServletInputMessage implements ReactiveHttpInputMessage {
+
+		private final HttpServletRequest request;
+
+		private final HttpHeaders headers;
+
+		private final int bufferSize;
+
+		ServletInputMessage(HttpServletRequest request, int bufferSize) {
+			this.request = request;
+			this.headers = new ServletServerHttpRequest(request).getHeaders();
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public Flux<DataBuffer> getBody() {
+			return DataBufferUtils.readInputStream(this.request::getInputStream,
+					DefaultDataBufferFactory.sharedInstance, this.bufferSize);
+		}
+	}
+
+
+	/**
+	 * Servlet {@link Part} adapter for a part whose content is streamed from
+	 * the request body.
+	 */
+	private static class StreamingPart implements Part {
+
+		private final org.springframework.http.codec.multipart.Part part;
+
+		@Nullable
+		private ContentInputStream inputStream;
+
+		StreamingPart(org.springframework.http.codec.multipart.Part part) {
+			this.part = part;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			Assert.state(this.inputStream == null, "Part content already read");
+			ContentInputStream inputStream = new ContentInputStream(this.part.content().toStream(1));
+			this.inputStream = inputStream;
+			return inputStream;
+		}
+
+		@Override
+		@Nullable
+		public String getContentType() {
+			MediaType contentType = this.part.headers().getContentType();
+			return (contentType != null ? contentType.toString() : null);
+		}
+
+		@Override
+		public String getName() {
+			return this.part.name();
+		}
+
+		@Override
+		@Nullable
+		public String getSubmittedFileName() {
+			ContentDisposition disposition = this.part.headers().getContentDisposition();
+			return disposition.getFilename();
+		}
+
+		@Override
+		public long getSize() {
+			return -1;
+		}
+
+		@Override
+		public void write(String fileName) throws IOException {
+			try (InputStream inputStream = getInputStream()) {
+				Files.copy(inputStream, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+
+		@Override
+		public void delete() {
+			skip();
+		}
+
+		@Override
+		@Nullable
+		public String getHeader(String name) {
+			return this.part.headers().getFirst(name);
+		}
+
+		@Override
+		public Collection<String> getHeaders(String name) {
+			List<String> values = this.part.headers().get(name);
+			return (values != null ? values : Collections.emptyList());
+		}
+
+		@Override
+		public Collection<String> getHeaderNames() {
+			return new ArrayList<>(this.part.headers().keySet());
+		}
+
+		/**
+		 * Skip the unread content of this part, so that parsing can proceed
+		 * with the next part.
+		 */
+		void skip() {
+			if (this.inputStream != null) {
+				this.inputStream.close();
+			}
+			else {
+				this.part.content().subscribe(new BaseSubscriber<DataBuffer>() {
+					@Override
+					protected void hookOnSubscribe(Subscription subscription) {
+						cancel();
+					}
+				});
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "StreamingPart{" + this.part.name() + "}";
+		}
+	}
+
+
+	/**
+	 * {@code InputStream} over a stream of {@code DataBuffer}s, releasing each
+	 * buffer once read.
+	 */
+	private static class ContentInputStream extends InputStream {
+
+		private final Stream<DataBuffer> buffers;
+
+		private final Iterator<DataBuffer> iterator;
+
+		@Nullable
+		private DataBuffer current;
+
+		private boolean closed;
+
+		ContentInputStream(Stream<DataBuffer> buffers) {
+			this.buffers = buffers;
+			this.iterator = buffers.iterator();
+		}
+
+		@Override
+		public int read() throws IOException {
+			DataBuffer buffer = currentBuffer();
+			return (buffer != null ? buffer.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			DataBuffer buffer = currentBuffer();
+			if (buffer == null) {
+				return -1;
+			}
+			int count = Math.min(len, buffer.readableByteCount());
+			buffer.read(bytes, off, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			DataBuffer buffer = this.current;
+			return (buffer != null ? buffer.readableByteCount() : 0);
+		}
+
+		@Nullable
+		private DataBuffer currentBuffer() throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			DataBuffer buffer = this.current;
+			while (buffer == null || buffer.readableByteCount() == 0) {
+				if (buffer != null) {
+					DataBufferUtils.release(buffer);
+					this.current = null;
+				}
+				try {
+					if (!this.iterator.hasNext()) {
+						return null;
+					}
+					buffer = this.iterator.next();
+				}
+				catch (RuntimeException ex) {
+					throw new IOException("Failed to read multipart content", ex);
+				}
+				this.current = buffer;
+			}
+			return buffer;
+		}
+
+		@Override
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				if (this.current != null) {
+					DataBufferUtils.release(this.current);
+					this.current = null;
+				}
+				this.buffers.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.support;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link MultipartResolver} that parses multipart requests while their body is
+ * being read, based on the parser of {@link DefaultPartHttpMessageReader} in
+ * {@linkplain DefaultPartHttpMessageReader#setStreaming streaming} mode,
+ * rather than on the Servlet container's {@link javax.servlet.http.Part}
+ * handling, which stores all parts before the handler is invoked.
+ *
+ * <p>Handlers obtain the parts by declaring a
+ * {@link StreamingMultipartHttpServletRequest} argument and iterating over its
+ * {@link StreamingMultipartHttpServletRequest#getPartIterator() parts}, which
+ * allows uploads to be processed in a single pass without temporary files.
+ * {@link org.springframework.web.multipart.MultipartFile} arguments are not
+ * supported by this resolver.
+ *
+ * <p>Note that this resolver requires Reactor Core on the classpath, and that
+ * the servlet does not need a "multipart-config" section.
+ *
+ * @since 5.3.2
+ * @see StreamingMultipartHttpServletRequest
+ */
+public class StreamingMultipartResolver implements MultipartResolver {
+
+	private final DefaultPartHttpMessageReader reader = new DefaultPartHttpMessageReader();
+
+	private int bufferSize = 8 * 1024;
+
+
+	public StreamingMultipartResolver() {
+		this.reader.setStreaming(true);
+	}
+
+
+	/**
+	 * Configure the maximum amount of memory that is allowed per headers section of each part.
+	 * <p>By default this is set to 8K.
+	 * @param byteCount the maximum amount of memory for headers
+	 */
+	public void setMaxHeadersSize(int byteCount) {
+		this.reader.setMaxHeadersSize(byteCount);
+	}
+
+	/**
+	 * Specify the maximum number of parts allowed in a given multipart request.
+	 * <p>By default this is set to -1, meaning that there is no maximum.
+	 */
+	public void setMaxParts(int maxParts) {
+		this.reader.setMaxParts(maxParts);
+	}
+
+	/**
+	 * Set the size of the buffers used to read the request body.
+	 * <p>By default this is set to 8K.
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "BufferSize must be greater than 0");
+		this.bufferSize = bufferSize;
+	}
+
+
+	@Override
+	public boolean isMultipart(HttpServletRequest request) {
+		return StringUtils.startsWithIgnoreCase(request.getContentType(), "multipart/");
+	}
+
+	@Override
+	public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+		return new StreamingMultipartHttpServletRequest(request, this.reader, this.bufferSize);
+	}
+
+	@Override
+	public void cleanupMultipart(MultipartHttpServletRequest request) {
+		StreamingMultipartHttpServletRequest streamingRequest =
+				WebUtils.getNativeRequest(request, StreamingMultipartHttpServletRequest.class);
+		if (streamingRequest != null) {
+			streamingRequest.close();
+		}
+	}
+
+}
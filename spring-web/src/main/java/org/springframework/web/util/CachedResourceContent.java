@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Content of a static resource held in an off-heap buffer, optionally
+ * compressed with gzip, along with the response headers to use for it,
+ * including a strong {@code ETag} computed from a hash of the content.
+ *
+ * <p>Shared by the Spring MVC and Spring WebFlux
+ * {@code ContentCachingResourceResolver}.
+ *
+ * @since 5.3.2
+ */
+public final class CachedResourceContent {
+
+	/**
+	 * The media types of resources compressed by default: text, JavaScript,
+	 * JSON, XML and SVG.
+	 */
+	public static final List<MediaType> DEFAULT_COMPRESSIBLE_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			MediaType.parseMediaType("text/*"),
+			MediaType.parseMediaType("application/javascript"),
+			MediaType.APPLICATION_JSON,
+			MediaType.parseMediaType("application/*+json"),
+			MediaType.APPLICATION_XML,
+			MediaType.parseMediaType("application/*+xml"),
+			MediaType.parseMediaType("image/svg+xml")));
+
+	private static final int MIN_COMPRESSIBLE_SIZE = 256;
+
+	private static final List<String> CONTENT_CODINGS = Arrays.asList("br", "gzip");
+
+
+	private final ByteBuffer content;
+
+	private final HttpHeaders headers;
+
+
+	private CachedResourceContent(byte[] content, HttpHeaders headers) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+		buffer.put(content);
+		buffer.flip();
+		this.content = buffer.asReadOnlyBuffer();
+		this.headers = headers;
+	}
+
+
+	/**
+	 * Return an {@code InputStream} for the content.
+	 */
+	public InputStream getInputStream() {
+		return new ByteBufferInputStream(this.content.duplicate());
+	}
+
+	/**
+	 * Return the length of the content in bytes.
+	 */
+	public long getContentLength() {
+		return this.content.capacity();
+	}
+
+	/**
+	 * Return a copy of the response headers to use for the content.
+	 */
+	public HttpHeaders getHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.putAll(this.headers);
+		return headers;
+	}
+
+
+	/**
+	 * Load the content of the given resource.
+	 * <p>The content is compressed with gzip if requested, if not encoded
+	 * already according to the given headers, and if the resource is of one of
+	 * the given media types and is large enough for compression to pay off.
+	 * @param resource the resource to load
+	 * @param headers the response headers of the resource, if any
+	 * @param maxSize the maximum size of the resource
+	 * @param gzip whether to compress the content with gzip
+	 * @param compressibleMediaTypes the media types of resources to compress
+	 * @return the content, or {@code null} if the resource length is unknown
+	 * or larger than the maximum size
+	 * @throws IOException if the resource cannot be read
+	 */
+	@Nullable
+	public static CachedResourceContent load(Resource resource, @Nullable HttpHeaders headers, int maxSize,
+			boolean gzip, List<MediaType> compressibleMediaTypes) throws IOException {
+
+		long length = resource.contentLength();
+		if (length < 0 || length > maxSize) {
+			return null;
+		}
+		byte[] content;
+		try (InputStream in = resource.getInputStream()) {
+			content = StreamUtils.copyToByteArray(in);
+		}
+		HttpHeaders contentHeaders = new HttpHeaders();
+		if (headers != null) {
+			contentHeaders.putAll(headers);
+		}
+		if (gzip && !contentHeaders.containsKey(HttpHeaders.CONTENT_ENCODING) &&
+				isCompressible(resource, content, compressibleMediaTypes)) {
+			byte[] compressed = gzip(content);
+			if (compressed.length < content.length) {
+				content = compressed;
+				contentHeaders.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+				contentHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+		}
+		contentHeaders.setETag("\"" + DigestUtils.md5DigestAsHex(content) + "\"");
+		return new CachedResourceContent(content, contentHeaders);
+	}
+
+	/**
+	 * Return a key for the content codings of the given
+	 * {@literal "Accept-Encoding"} header value that are relevant for
+	 * caching resource content, i.e. the accepted variants of a resource.
+	 * @param acceptEncoding the header value, if any
+	 * @return the key, possibly empty
+	 */
+	public static String getContentCodingKey(@Nullable String acceptEncoding) {
+		if (!StringUtils.hasText(acceptEncoding)) {
+			return "";
+		}
+		return Arrays.stream(StringUtils.tokenizeToStringArray(acceptEncoding, ","))
+				.map(token -> {
+					int index = token.indexOf(';');
+					return (index >= 0 ? token.substring(0, index) : token).trim().toLowerCase();
+				})
+				.filter(CONTENT_CODINGS::contains)
+				.sorted()
+				.collect(Collectors.joining(","));
+	}
+
+	private static boolean isCompressible(Resource resource, byte[] content, List<MediaType> compressibleMediaTypes) {
+		if (content.length < MIN_COMPRESSIBLE_SIZE) {
+			return false;
+		}
+		MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(null);
+		if (mediaType == null) {
+			return false;
+		}
+		for (MediaType compressibleType : compressibleMediaTypes) {
+			if (compressibleType.includes(mediaType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content);
+		}
+		return out.toByteArray();
+	}
+
+
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, this.buffer.remaining());
+			this.buffer.get(bytes, off, len);
+			return len;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+			this.buffer.position(this.buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link FlushPolicy}.
+ */
+class FlushPolicyTests {
+
+	private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+
+	@Test
+	void eachElement() {
+		Flux<DataBuffer> elements = Flux.just(buffer("foo"), buffer("bar"), buffer("baz"));
+
+		StepVerifier.create(groupSizes(FlushPolicy.eachElement().apply(elements)))
+				.expectNext(1, 1, 1)
+				.verifyComplete();
+	}
+
+	@Test
+	void coalesceByItems() {
+		Flux<DataBuffer> elements = Flux.just(buffer("a"), buffer("b"), buffer("c"), buffer("d"), buffer("e"));
+
+		StepVerifier.create(groupSizes(FlushPolicy.coalescing(2, -1, ONE_HOUR).apply(elements)))
+				.expectNext(2, 2, 1)
+				.verifyComplete();
+	}
+
+	@Test
+	void coalesceByBytes() {
+		Flux<DataBuffer> elements = Flux.just(buffer("foo"), buffer("bar"), buffer("baz"), buffer("qux"));
+
+		StepVerifier.create(groupSizes(FlushPolicy.coalescing(10, 5, ONE_HOUR).apply(elements)))
+				.expectNext(2, 2)
+				.verifyComplete();
+	}
+
+	@Test
+	void coalesceByDelay() {
+		StepVerifier.withVirtualTime(() -> {
+					Flux<DataBuffer> elements = Flux.just(buffer("foo"), buffer("bar"))
+							.concatWith(Mono.delay(Duration.ofSeconds(5)).map(aLong -> buffer("baz")));
+					return groupSizes(FlushPolicy.coalescing(10, -1, Duration.ofSeconds(1)).apply(elements));
+				})
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(999))
+				.thenAwait(Duration.ofMillis(1))
+				.expectNext(2)
+				.thenAwait(Duration.ofSeconds(4))
+				.expectNext(1)
+				.verifyComplete();
+	}
+
+	@Test
+	void upstreamDemandIsBounded() {
+		TestPublisher<DataBuffer> publisher = TestPublisher.create();
+		Flux<Publisher<DataBuffer>> result = FlushPolicy.coalescing(2, -1, ONE_HOUR).apply(publisher);
+
+		StepVerifier.create(result, 0)
+				.then(() -> publisher.assertMinRequested(2).assertMaxRequested(2))
+				.then(() -> publisher.next(buffer("foo"), buffer("bar")))
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(1)
+				.expectNextCount(1)
+				.then(() -> publisher.assertMinRequested(2))
+				.then(() -> publisher.emit(buffer("baz")))
+				.thenRequest(1)
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	@Test
+	void errorAfterPendingElements() {
+		Flux<DataBuffer> elements = Flux.just(buffer("foo"), buffer("bar"))
+				.concatWith(Flux.error(new IllegalStateException()));
+
+		StepVerifier.create(groupSizes(FlushPolicy.coalescing(10, -1, ONE_HOUR).apply(elements)))
+				.expectNext(2)
+				.verifyError(IllegalStateException.class);
+	}
+
+	@Test
+	void invalidArguments() {
+		assertThatIllegalArgumentException().isThrownBy(() -> FlushPolicy.coalescing(0, -1, ONE_HOUR));
+		assertThatIllegalArgumentException().isThrownBy(() -> FlushPolicy.coalescing(10, 0, ONE_HOUR));
+		assertThatIllegalArgumentException().isThrownBy(() -> FlushPolicy.coalescing(10, -1, Duration.ZERO));
+	}
+
+
+	private static Flux<Integer> groupSizes(Flux<Publisher<DataBuffer>> groups) {
+		return groups.concatMap(group -> Flux.from(group).collectList()).map(List::size);
+	}
+
+	private static DataBuffer buffer(String value) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -105,6 +105,22 @@ class ServerSentEventHttpMessageWriterTests extends AbstractDataBufferAllocating
 				.verify();
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void writeStringWithCoalescingFlushPolicy(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		this.messageWriter.setFlushPolicy(FlushPolicy.coalescing(10, -1, Duration.ofSeconds(1)));
+
+		MockServerHttpResponse outputMessage = new MockServerHttpResponse(super.bufferFactory);
+		Flux<String> source = Flux.just("foo", "bar");
+		testWrite(source, outputMessage, String.class);
+
+		StepVerifier.create(outputMessage.getBody())
+				.consumeNextWith(stringConsumer("data:foo\n\n"))
+				.consumeNextWith(stringConsumer("data:bar\n\n"))
+				.expectComplete()
+				.verify();
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void writeMultiLineString(String displayName, DataBufferFactory bufferFactory) {
 		super.bufferFactory = bufferFactory;
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.testfixture.io.buffer.AbstractLeakCheckingTests;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Unit tests for {@link Jackson2ElementReader}.
+ */
+class Jackson2ElementReaderTests extends AbstractLeakCheckingTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+	@Test
+	void readArrayElements() {
+		testRead(
+				asList(
+						"[{\"foo\": \"foofoo\", \"bar\"",
+						": \"barbar\"},{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}]"
+				),
+				asList(
+						"{\"foo\": \"foofoo\", \"bar\": \"barbar\"}",
+						"{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}"));
+
+		// nested arrays within array elements
+		testRead(
+				singletonList("[" +
+						"{\"id\":\"0\",\"start\":[-999999999,1,1],\"end\":[999999999,12,31]}," +
+						"{\"id\":\"1\",\"start\":[-999999999,1,1],\"end\":[999999999,12,31]}" +
+						"]"),
+				asList(
+						"{\"id\":\"0\",\"start\":[-999999999,1,1],\"end\":[999999999,12,31]}",
+						"{\"id\":\"1\",\"start\":[-999999999,1,1],\"end\":[999999999,12,31]}"));
+
+		// structural characters and escaped quotes within strings
+		testRead(
+				asList("[\"a\\\"]", "b\",{\"c\":\"}{\"}]"),
+				asList("\"a\\\"]b\"", "{\"c\":\"}{\"}"));
+
+		testRead(asList("[1", ",2,", "3]"), asList("1", "2", "3"));
+	}
+
+	@Test
+	void readTopLevelValues() {
+		testRead(asList("\"foo", "bar\""), singletonList("\"foobar\""));
+		testRead(asList("12", "34"), singletonList("1234"));
+		testRead(asList("12.", "34"), singletonList("12.34"));
+		testRead(asList("{\"foo\":", "[\"bar\"]}"), singletonList("{\"foo\":[\"bar\"]}"));
+	}
+
+	@Test
+	void readStream() {
+		testRead(
+				asList(
+						"\n",
+						"{\"id\":1,\"name\":\"Robert\"}",
+						"\n",
+						"{\"id\":2,\"name\":\"Raide\"}\n{\"id\":3,",
+						"\"name\":\"Ford\"}"
+				),
+				asList(
+						"{\"id\":1,\"name\":\"Robert\"}",
+						"{\"id\":2,\"name\":\"Raide\"}",
+						"{\"id\":3,\"name\":\"Ford\"}"));
+	}
+
+	@Test
+	void nullValuesAreSkipped() {
+		testRead(singletonList("[null,1,null]"), singletonList("1"));
+	}
+
+	@Test
+	void limit() {
+		List<String> source = asList(
+				"[",
+				"{", "\"id\":1,\"name\":\"Dan\"", "},",
+				"{", "\"id\":3,\"name\":\"Bartholomew\"", "}",
+				"]"
+		);
+
+		// The largest number of bytes buffered for an incomplete element
+		int maxInMemorySize = "{\"id\":3,\"name\":\"Bartholomew\"".length();
+
+		StepVerifier.create(read(source, maxInMemorySize))
+				.expectNextCount(2)
+				.verifyComplete();
+
+		StepVerifier.create(read(source, maxInMemorySize - 1))
+				.expectNextCount(1)
+				.verifyError(DataBufferLimitException.class);
+	}
+
+	@Test
+	void incompleteInput() {
+		StepVerifier.create(read(singletonList("[{\"id\":1},{\"id\":"), -1))
+				.expectNextCount(1)
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void invalidElement() {
+		StepVerifier.create(read(singletonList("[{\"id\" 1}]"), -1))
+				.verifyError(DecodingException.class);
+	}
+
+
+	private void testRead(List<String> input, List<String> output) {
+		StepVerifier.FirstStep<String> builder = StepVerifier.create(read(input, -1).map(this::writeValue));
+		output.forEach(expected -> builder.assertNext(actual -> {
+			try {
+				JSONAssert.assertEquals(expected, actual, true);
+			}
+			catch (JSONException ex) {
+				throw new RuntimeException(ex);
+			}
+		}));
+		builder.verifyComplete();
+	}
+
+	private Flux<Object> read(List<String> source, int maxInMemorySize) {
+		return Jackson2ElementReader.read(Flux.fromIterable(source).map(this::stringBuffer),
+				this.objectMapper.readerFor(Object.class), maxInMemorySize,
+				ex -> new DecodingException("JSON decoding error: " + ex.getMessage(), ex));
+	}
+
+	private String writeValue(Object value) {
+		try {
+			return this.objectMapper.writeValueAsString(value);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private DataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+}
@@ -23,8 +23,12 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import io.netty.buffer.PooledByteBufAllocator;
@@ -37,6 +41,7 @@ import reactor.core.Exceptions;
 import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.codec.DecodingException;
@@ -44,10 +49,12 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.MediaType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -233,6 +240,85 @@ public class DefaultPartHttpMessageReaderTests  {
 		latch.await();
 	}
 
+	@Test
+	public void fileStorageMetrics() throws InterruptedException {
+		List<FileStorageMetrics> metrics = new CopyOnWriteArrayList<>();
+		DefaultPartHttpMessageReader reader = new DefaultPartHttpMessageReader();
+		reader.setMaxInMemorySize(10);
+		reader.setFileWriteBufferSize(32);
+		reader.setFileStorageMetricsListener(metrics::add);
+
+		testBrowser(reader, new ClassPathResource("firefox.multipart", getClass()),
+				"---------------------------18399284482060392383840973206");
+
+		// file contents are followed by CRLF
+		int fileSize = LOREM_IPSUM.length() + 2;
+		assertThat(metrics).hasSize(3);
+		assertThat(metrics).extracting(FileStorageMetrics::getByteCount).containsOnly((long) fileSize);
+		assertThat(metrics).extracting(FileStorageMetrics::getWriteCount).containsOnly((fileSize + 31) / 32);
+		assertThat(metrics).extracting(m -> m.getHeaders().getContentDisposition().getFilename())
+				.containsExactly("a.txt", "a.txt", "b.txt");
+	}
+
+	@Test
+	public void bufferedFileExceedsMaxDiskUsage() {
+		MockServerHttpRequest request = createRequest(
+				new ClassPathResource("firefox.multipart", getClass()),
+				"---------------------------18399284482060392383840973206");
+
+		DefaultPartHttpMessageReader reader = new DefaultPartHttpMessageReader();
+		reader.setMaxInMemorySize(10);
+		reader.setMaxDiskUsagePerPart(50);
+		reader.setFileWriteBufferSize(16);
+
+		Flux<Part> result = reader.read(forClass(Part.class), request, emptyMap());
+
+		StepVerifier.create(result)
+				.consumeNextWith(part -> testBrowserFormField(part, "text1", "a")).as("text1")
+				.consumeNextWith(part -> testBrowserFormField(part, "text2", "b")).as("text2")
+				.expectError(DataBufferLimitException.class)
+				.verify();
+	}
+
+	@Test
+	public void bufferedFileStorageFailureDeletesSubsequentFiles() throws Exception {
+		Path directory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		try {
+			// only the first file part fails to be stored, after the others have been stored
+			AtomicBoolean first = new AtomicBoolean(true);
+			Mono<Path> fileStorageDirectory = Mono.defer(() -> first.getAndSet(false) ?
+					Mono.<Path>error(new IOException("Storage failure")).delaySubscription(Duration.ofMillis(500)) :
+					Mono.just(directory));
+
+			String boundary = "---------------------------18399284482060392383840973206";
+			Flux<MultipartParser.Token> tokens = MultipartParser.parse(
+					createRequest(new ClassPathResource("firefox.multipart", getClass()), boundary).getBody(),
+					boundary.getBytes(UTF_8), 8 * 1024);
+			Flux<Part> result = PartGenerator.createParts(tokens, -1, 10, -1, false, fileStorageDirectory,
+					Schedulers.boundedElastic(), new PartGenerator.WriteBufferPool(1024), null);
+
+			StepVerifier.create(result)
+					.consumeNextWith(part -> testBrowserFormField(part, "text1", "a")).as("text1")
+					.consumeNextWith(part -> testBrowserFormField(part, "text2", "b")).as("text2")
+					.expectErrorMessage("Storage failure")
+					.verify();
+
+			for (int i = 0; i < 50 && directoryHasFiles(directory); i++) {
+				Thread.sleep(20);
+			}
+			assertThat(directoryHasFiles(directory)).isFalse();
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	private static boolean directoryHasFiles(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.findAny().isPresent();
+		}
+	}
+
 	private void testBrowser(DefaultPartHttpMessageReader reader, Resource resource, String boundary)
 			throws InterruptedException {
 
@@ -362,10 +448,16 @@ public class DefaultPartHttpMessageReaderTests  {
 		onDisk.setStreaming(false);
 		onDisk.setMaxInMemorySize(100);
 
+		DefaultPartHttpMessageReader bufferedOnDisk = new DefaultPartHttpMessageReader();
+		bufferedOnDisk.setStreaming(false);
+		bufferedOnDisk.setMaxInMemorySize(10);
+		bufferedOnDisk.setFileWriteBufferSize(16);
+
 		return Stream.of(
 				arguments("streaming", streaming),
 				arguments("in-memory", inMemory),
-				arguments("on-disk", onDisk)
+				arguments("on-disk", onDisk),
+				arguments("buffered-on-disk", bufferedOnDisk)
 				);
 	}
 
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link Jackson2ObjectReaderWriterCache}.
+ */
+public class Jackson2ObjectReaderWriterCacheTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Jackson2ObjectReaderWriterCache cache = new Jackson2ObjectReaderWriterCache(this.mapper, 2);
+
+
+	@Test
+	public void readerIsCachedPerTypeAndView() throws Exception {
+		JavaType type = this.mapper.constructType(Bean.class);
+
+		ObjectReader reader = this.cache.getReader(type, null);
+		assertThat(this.cache.getReader(type, null)).isSameAs(reader);
+		assertThat(this.cache.getReader(this.mapper.constructType(Bean.class), null)).isSameAs(reader);
+
+		ObjectReader viewReader = this.cache.getReader(type, View1.class);
+		assertThat(viewReader).isNotSameAs(reader);
+		assertThat(this.cache.getReader(type, View1.class)).isSameAs(viewReader);
+
+		Bean bean = viewReader.readValue("{\"withView1\":\"with\",\"withView2\":\"without\"}");
+		assertThat(bean.getWithView1()).isEqualTo("with");
+		assertThat(bean.getWithView2()).isNull();
+	}
+
+	@Test
+	public void writerIsCachedPerTypeAndView() throws Exception {
+		JavaType listType = this.mapper.getTypeFactory().constructCollectionType(List.class, Bean.class);
+
+		ObjectWriter writer = this.cache.getWriter(null, null);
+		assertThat(this.cache.getWriter(null, null)).isSameAs(writer);
+
+		ObjectWriter listWriter = this.cache.getWriter(listType, null);
+		assertThat(listWriter).isNotSameAs(writer);
+		assertThat(this.cache.getWriter(listType, null)).isSameAs(listWriter);
+
+		Bean bean = new Bean();
+		bean.setWithView1("with");
+		bean.setWithView2("without");
+		String result = this.cache.getWriter(null, View1.class).writeValueAsString(bean);
+		assertThat(result).contains("\"withView1\":\"with\"").doesNotContain("withView2");
+	}
+
+	@Test
+	public void cacheIsBounded() {
+		ObjectWriter writer = this.cache.getWriter(null, null);
+		this.cache.getWriter(null, View1.class);
+		this.cache.getWriter(null, View2.class);
+		assertThat(this.cache.getWriter(null, null)).isNotSameAs(writer);
+	}
+
+	@Test
+	public void clear() {
+		ObjectWriter writer = this.cache.getWriter(null, null);
+		this.cache.clear();
+		assertThat(this.cache.getWriter(null, null)).isNotSameAs(writer);
+	}
+
+
+	@Test
+	public void readerIsRecreatedAfterConfigure() throws Exception {
+		JavaType type = this.mapper.constructType(Bean.class);
+		ObjectReader reader = this.cache.getReader(type, null);
+
+		this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+		ObjectReader newReader = this.cache.getReader(type, null);
+		assertThat(newReader).isNotSameAs(reader);
+		assertThat(this.cache.getReader(type, null)).isSameAs(newReader);
+		Bean bean = newReader.readValue("{\"withView1\":\"with\",\"unknown\":\"value\"}");
+		assertThat(bean.getWithView1()).isEqualTo("with");
+	}
+
+	@Test
+	public void writerIsRecreatedAfterRegisterModule() throws Exception {
+		ObjectWriter writer = this.cache.getWriter(null, null);
+
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(Bean.class, new StdSerializer<Bean>(Bean.class) {
+			@Override
+			public void serialize(Bean value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+				generator.writeString(value.getWithView1());
+			}
+		});
+		this.mapper.registerModule(module);
+
+		ObjectWriter newWriter = this.cache.getWriter(null, null);
+		assertThat(newWriter).isNotSameAs(writer);
+		Bean bean = new Bean();
+		bean.setWithView1("with");
+		assertThat(newWriter.writeValueAsString(bean)).isEqualTo("\"with\"");
+	}
+
+
+	private interface View1 {}
+
+	private interface View2 {}
+
+
+	@SuppressWarnings("unused")
+	private static class Bean {
+
+		@JsonView(View1.class)
+		private String withView1;
+
+		@JsonView(View2.class)
+		private String withView2;
+
+		public String getWithView1() {
+			return this.withView1;
+		}
+
+		public void setWithView1(String withView1) {
+			this.withView1 = withView1;
+		}
+
+		public String getWithView2() {
+			return this.withView2;
+		}
+
+		public void setWithView2(String withView2) {
+			this.withView2 = withView2;
+		}
+	}
+
+}
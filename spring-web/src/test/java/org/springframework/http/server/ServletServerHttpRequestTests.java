@@ -151,6 +151,46 @@ public class ServletServerHttpRequestTests {
 		assertThat(headers.getContentType()).isNull();
 	}
 
+	@Test
+	public void getHeadersCaseInsensitive() {
+		mockRequest.addHeader("X-Custom", "value1");
+		mockRequest.addHeader(HttpHeaders.ACCEPT, "text/html");
+
+		HttpHeaders headers = request.getHeaders();
+		assertThat(headers.getFirst("x-custom")).isEqualTo("value1");
+		assertThat(headers.containsKey("ACCEPT")).isTrue();
+		assertThat(headers.getAccept()).containsExactly(MediaType.TEXT_HTML);
+		assertThat(headers.get("X-Missing")).isNull();
+	}
+
+	@Test
+	public void getHeadersIndependentOfRecycledRequest() {
+		mockRequest.addHeader("X-Custom", "value1");
+		mockRequest.addHeader("X-Custom", "value2");
+
+		HttpHeaders headers = request.getHeaders();
+		mockRequest.removeHeader("X-Custom");
+
+		assertThat(headers.get("x-custom")).containsExactly("value1", "value2");
+	}
+
+	@Test
+	public void modifyHeaders() {
+		mockRequest.addHeader("X-Custom", "value1");
+		mockRequest.setContentType("text/plain");
+		mockRequest.setCharacterEncoding("UTF-8");
+
+		HttpHeaders headers = request.getHeaders();
+		headers.add("X-Custom", "value2");
+		headers.remove(HttpHeaders.ACCEPT);
+		headers.set("X-Other", "other");
+
+		assertThat(headers.get("x-custom")).containsExactly("value1", "value2");
+		assertThat(headers.getFirst("X-Other")).isEqualTo("other");
+		assertThat(headers.getContentType()).isEqualTo(new MediaType("text", "plain", StandardCharsets.UTF_8));
+		assertThat(mockRequest.getHeader("X-Other")).isNull();
+	}
+
 	@Test
 	public void getBody() throws IOException {
 		byte[] content = "Hello World".getBytes("UTF-8");
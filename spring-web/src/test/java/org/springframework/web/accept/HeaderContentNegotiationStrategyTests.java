@@ -69,6 +69,18 @@ public class HeaderContentNegotiationStrategyTests {
 		assertThat(mediaTypes.get(3).toString()).isEqualTo("text/plain;q=0.5");
 	}
 
+	@Test
+	public void resolveMediaTypesCached() throws Exception {
+		this.servletRequest.addHeader("Accept", "application/json, text/plain;q=0.9");
+		List<MediaType> mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+
+		MockHttpServletRequest otherRequest = new MockHttpServletRequest();
+		otherRequest.addHeader("Accept", "application/json, text/plain;q=0.9");
+		mediaTypes.add(MediaType.TEXT_HTML);
+		assertThat(this.strategy.resolveMediaTypes(new ServletWebRequest(otherRequest))).isNotSameAs(mediaTypes)
+				.containsExactly(MediaType.APPLICATION_JSON, MediaType.parseMediaType("text/plain;q=0.9"));
+	}
+
 	@Test
 	public void resolveMediaTypesParseError() throws Exception {
 		this.servletRequest.addHeader("Accept", "textplain; q=0.5");
@@ -164,6 +164,79 @@ public class ShallowEtagHeaderFilterTests {
 		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(expecteds);
 	}
 
+	@Test
+	public void filterNoMatchWithMaxBufferSize() throws Exception {
+		this.filter.setMaxBufferSize(1024);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		byte[] responseBody = "Hello World".getBytes(StandardCharsets.UTF_8);
+		FilterChain filterChain = (filterRequest, filterResponse) ->
+				FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isEqualTo("\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		assertThat(response.getContentLength()).isEqualTo(responseBody.length);
+		assertThat(response.getContentAsByteArray()).isEqualTo(responseBody);
+	}
+
+	@Test
+	public void filterExceedingMaxBufferSize() throws Exception {
+		this.filter.setMaxBufferSize(5);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			filterResponse.getWriter().write("Hello");
+			assertThat(response.getContentAsByteArray()).isEmpty();
+			filterResponse.getWriter().write(" World");
+			assertThat(response.getContentAsString()).isEqualTo("Hello World");
+		};
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isNull();
+		assertThat(response.getContentAsString()).isEqualTo("Hello World");
+	}
+
+	@Test
+	public void filterWriterExceedingMaxBufferSizeFlushesOnlyExplicitly() throws Exception {
+		this.filter.setMaxBufferSize(5);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			filterResponse.getWriter().write("Hello World");
+			filterResponse.getWriter().write("!");
+			assertThat(response.getContentAsString()).isEqualTo("Hello World!");
+			assertThat(response.isCommitted()).isFalse();
+			filterResponse.getWriter().flush();
+			assertThat(response.isCommitted()).isTrue();
+		};
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getHeader("ETag")).isNull();
+		assertThat(response.getContentAsString()).isEqualTo("Hello World!");
+	}
+
+	@Test
+	public void filterMatchWithMaxBufferSize() throws Exception {
+		this.filter.setMaxBufferSize(5);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		String etag = "\"0b10a8db164e0754105b7a99be72e3fe5\"";
+		request.addHeader("If-None-Match", etag);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) ->
+				FileCopyUtils.copy("Hello World".getBytes(StandardCharsets.UTF_8), filterResponse.getOutputStream());
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getHeader("ETag")).isEqualTo(etag);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
 	@Test  // SPR-12960
 	public void filterWriterWithDisabledCaching() throws Exception {
 		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
@@ -75,6 +75,22 @@ public class HandlerMethodArgumentResolverCompositeTests {
 		assertThat(resolvedValue).as("Didn't use the first registered resolver").isEqualTo(1);
 	}
 
+	@Test
+	public void getArgumentResolvers() throws Exception {
+		StubArgumentResolver intResolver = new StubArgumentResolver(Integer.class);
+		StubArgumentResolver strResolver = new StubArgumentResolver(String.class);
+		this.resolverComposite.addResolver(intResolver);
+		MethodParameter[] parameters = new MethodParameter[] {paramInt, paramStr};
+
+		HandlerMethodArgumentResolver[] resolvers = this.resolverComposite.getArgumentResolvers(parameters);
+		assertThat(resolvers).containsExactly(intResolver, null);
+
+		this.resolverComposite.addResolver(strResolver);
+		resolvers = this.resolverComposite.getArgumentResolvers(parameters);
+		assertThat(resolvers).containsExactly(intResolver, strResolver);
+		assertThat(this.resolverComposite.getArgumentResolvers(parameters)).isSameAs(resolvers);
+	}
+
 	@Test
 	public void noSuitableArgumentResolver() throws Exception {
 		assertThatIllegalArgumentException().isThrownBy(() ->
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import javax.servlet.http.Part;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link StreamingMultipartResolver}.
+ */
+class StreamingMultipartResolverTests {
+
+	private static final String BOUNDARY = "streaming-boundary";
+
+	private static final String BODY =
+			"--" + BOUNDARY + "\r\n" +
+			"Content-Disposition: form-data; name=\"text\"\r\n" +
+			"\r\n" +
+			"foo\r\n" +
+			"--" + BOUNDARY + "\r\n" +
+			"Content-Disposition: form-data; name=\"skipped\"; filename=\"skipped.txt\"\r\n" +
+			"Content-Type: text/plain\r\n" +
+			"\r\n" +
+			"Lorem ipsum dolor sit amet, consectetur adipiscing elit.\r\n" +
+			"--" + BOUNDARY + "\r\n" +
+			"Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n" +
+			"Content-Type: text/plain\r\n" +
+			"\r\n" +
+			"Integer iaculis metus id vestibulum nullam.\r\n" +
+			"--" + BOUNDARY + "--\r\n";
+
+
+	private final StreamingMultipartResolver resolver = new StreamingMultipartResolver();
+
+
+	@Test
+	void isMultipart() {
+		assertThat(this.resolver.isMultipart(createRequest())).isTrue();
+		assertThat(this.resolver.isMultipart(new MockHttpServletRequest("POST", "/"))).isFalse();
+	}
+
+	@Test
+	void iterateParts() throws IOException {
+		// small buffers, so that parts span multiple reads
+		this.resolver.setBufferSize(16);
+		MultipartHttpServletRequest request = this.resolver.resolveMultipart(createRequest());
+		assertThat(request).isInstanceOf(StreamingMultipartHttpServletRequest.class);
+
+		Iterator<Part> parts = ((StreamingMultipartHttpServletRequest) request).getPartIterator();
+
+		assertThat(parts.hasNext()).isTrue();
+		Part part = parts.next();
+		assertThat(part.getName()).isEqualTo("text");
+		assertThat(part.getSubmittedFileName()).isNull();
+		assertThat(read(part)).isEqualTo("foo");
+
+		// content of the second part is never read
+		part = parts.next();
+		assertThat(part.getName()).isEqualTo("skipped");
+
+		part = parts.next();
+		assertThat(part.getName()).isEqualTo("file");
+		assertThat(part.getSubmittedFileName()).isEqualTo("file.txt");
+		assertThat(part.getContentType()).isEqualTo("text/plain");
+		assertThat(part.getSize()).isEqualTo(-1);
+		assertThat(read(part)).isEqualTo("Integer iaculis metus id vestibulum nullam.");
+
+		assertThat(parts.hasNext()).isFalse();
+		assertThat(request.getFileMap()).isEmpty();
+		this.resolver.cleanupMultipart(request);
+	}
+
+	@Test
+	void partiallyReadPart() throws IOException {
+		this.resolver.setBufferSize(16);
+		MultipartHttpServletRequest request = this.resolver.resolveMultipart(createRequest());
+		Iterator<Part> parts = ((StreamingMultipartHttpServletRequest) request).getPartIterator();
+
+		parts.next();
+		Part part = parts.next();
+		try (InputStream inputStream = part.getInputStream()) {
+			assertThat(inputStream.read()).isEqualTo('L');
+		}
+
+		part = parts.next();
+		assertThat(part.getName()).isEqualTo("file");
+		assertThat(read(part)).isEqualTo("Integer iaculis metus id vestibulum nullam.");
+		assertThat(parts.hasNext()).isFalse();
+	}
+
+	@Test
+	void partIteratorOnlyOnce() {
+		StreamingMultipartHttpServletRequest request =
+				(StreamingMultipartHttpServletRequest) this.resolver.resolveMultipart(createRequest());
+		request.getPartIterator();
+
+		assertThatIllegalStateException().isThrownBy(request::getPartIterator);
+		request.close();
+	}
+
+
+	private static MockHttpServletRequest createRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+		request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+		request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private static String read(Part part) throws IOException {
+		try (InputStream inputStream = part.getInputStream()) {
+			return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CachedResourceContent}.
+ */
+class CachedResourceContentTests {
+
+	private static final String TEXT = String.join("", Collections.nCopies(50, "body { color: red; }\n"));
+
+
+	@Test
+	void loadWithGzip() throws Exception {
+		CachedResourceContent content = CachedResourceContent.load(
+				cssResource(), null, 1024 * 1024, true, CachedResourceContent.DEFAULT_COMPRESSIBLE_MEDIA_TYPES);
+
+		assertThat(content).isNotNull();
+		HttpHeaders headers = content.getHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getETag()).startsWith("\"");
+		assertThat(content.getContentLength()).isLessThan(TEXT.length());
+		try (InputStream in = new GZIPInputStream(content.getInputStream())) {
+			assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo(TEXT);
+		}
+	}
+
+	@Test
+	void loadWithoutGzip() throws Exception {
+		CachedResourceContent content = CachedResourceContent.load(
+				cssResource(), null, 1024 * 1024, false, CachedResourceContent.DEFAULT_COMPRESSIBLE_MEDIA_TYPES);
+
+		assertThat(content).isNotNull();
+		assertThat(content.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(StreamUtils.copyToString(content.getInputStream(), StandardCharsets.UTF_8)).isEqualTo(TEXT);
+	}
+
+	@Test
+	void loadTooLarge() throws Exception {
+		assertThat(CachedResourceContent.load(
+				cssResource(), null, 10, true, CachedResourceContent.DEFAULT_COMPRESSIBLE_MEDIA_TYPES)).isNull();
+	}
+
+	@Test
+	void contentCodingKey() {
+		assertThat(CachedResourceContent.getContentCodingKey(null)).isEmpty();
+		assertThat(CachedResourceContent.getContentCodingKey("deflate")).isEmpty();
+		assertThat(CachedResourceContent.getContentCodingKey("gzip;q=0.8, BR, deflate")).isEqualTo("br,gzip");
+	}
+
+
+	private static Resource cssResource() {
+		return new ByteArrayResource(TEXT.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public String getFilename() {
+				return "main.css";
+			}
+		};
+	}
+
+}
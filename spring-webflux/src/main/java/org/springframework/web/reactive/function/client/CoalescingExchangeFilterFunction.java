@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@link ExchangeFilterFunction} that coalesces identical {@code GET}
+ * requests that are in flight at the same time into a single exchange. The
+ * response body of the shared exchange is buffered, and each caller receives
+ * its own {@link ClientResponse} over the buffered content.
+ *
+ * @since 5.3.2
+ * @see ExchangeFilterFunctions#coalesce(int)
+ */
+final class CoalescingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+
+	private final int maxInMemorySize;
+
+	private final ConcurrentMap<RequestKey, Mono<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+
+	CoalescingExchangeFilterFunction(int maxInMemorySize) {
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (request.method() != HttpMethod.GET) {
+			return next.exchange(request);
+		}
+		return Mono.defer(() -> {
+			RequestKey key = new RequestKey(request);
+			return this.inFlight.computeIfAbsent(key, k -> exchange(k, request, next))
+					.map(BufferedResponse::toClientResponse);
+		});
+	}
+
+	private Mono<BufferedResponse> exchange(RequestKey key, ClientRequest request, ExchangeFunction next) {
+		return next.exchange(request)
+				.flatMap(response -> DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), this.maxInMemorySize)
+						.map(buffer -> {
+							byte[] bytes = new byte[buffer.readableByteCount()];
+							buffer.read(bytes);
+							DataBufferUtils.release(buffer);
+							return new BufferedResponse(response, bytes);
+						})
+						.defaultIfEmpty(new BufferedResponse(response, EMPTY_BODY)))
+				.doFinally(signalType -> this.inFlight.remove(key))
+				.cache();
+	}
+
+
+	/**
+	 * The parts of a request that identify it for coalescing.
+	 */
+	private static final class RequestKey {
+
+		private final URI url;
+
+		private final HttpHeaders headers;
+
+		private final MultiValueMap<String, String> cookies;
+
+		private final int hashCode;
+
+		RequestKey(ClientRequest request) {
+			this.url = request.url();
+			this.headers = request.headers();
+			this.cookies = request.cookies();
+			this.hashCode = 31 * (31 * this.url.hashCode() + this.headers.hashCode()) + this.cookies.hashCode();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof RequestKey)) {
+				return false;
+			}
+			RequestKey otherKey = (RequestKey) other;
+			return (this.url.equals(otherKey.url) && this.headers.equals(otherKey.headers) &&
+					this.cookies.equals(otherKey.cookies));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+
+	/**
+	 * A response with its body read into memory.
+	 */
+	private static final class BufferedResponse {
+
+		private final ClientResponse response;
+
+		private final byte[] body;
+
+		BufferedResponse(ClientResponse response, byte[] body) {
+			this.response = response;
+			this.body = body;
+		}
+
+		ClientResponse toClientResponse() {
+			return this.response.mutate()
+					.body(originalBody -> Flux.defer(() ->
+							Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(this.body))))
+					.build();
+		}
+	}
+
+}
@@ -17,7 +17,9 @@
 package org.springframework.web.reactive.function.client;
 
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -50,6 +52,12 @@ public abstract class ExchangeFilterFunctions {
 	public static final String BASIC_AUTHENTICATION_CREDENTIALS_ATTRIBUTE =
 			ExchangeFilterFunctions.class.getName() + ".basicAuthenticationCredentials";
 
+	/**
+	 * The number of responses from a host required before
+	 * {@link #hedge(ExchangeStatistics, double, Duration)} uses its latencies.
+	 */
+	private static final long MIN_HEDGE_SAMPLES = 20;
+
 
 	/**
 	 * Consume up to the specified number of bytes from the response body and
@@ -85,6 +93,108 @@ public abstract class ExchangeFilterFunctions {
 						Mono.error(exceptionFunction.apply(response)) : Mono.just(response)));
 	}
 
+	/**
+	 * Return a filter that notifies the given {@link ExchangeObserver} of the
+	 * start and the outcome of each exchange.
+	 * @param observer the observer to notify
+	 * @return the filter to observe exchanges with
+	 * @since 5.3.2
+	 * @see ExchangeStatistics
+	 */
+	public static ExchangeFilterFunction observe(ExchangeObserver observer) {
+		Assert.notNull(observer, "ExchangeObserver must not be null");
+		return (request, next) -> Mono.defer(() -> {
+			long startTime = System.nanoTime();
+			AtomicBoolean ended = new AtomicBoolean();
+			observer.exchangeStarted(request);
+			return next.exchange(request)
+					.doOnNext(response -> {
+						if (ended.compareAndSet(false, true)) {
+							observer.responseReceived(request, response, Duration.ofNanos(System.nanoTime() - startTime));
+						}
+					})
+					.doOnError(ex -> {
+						if (ended.compareAndSet(false, true)) {
+							observer.exchangeFailed(request, ex, Duration.ofNanos(System.nanoTime() - startTime));
+						}
+					})
+					.doOnCancel(() -> {
+						if (ended.compareAndSet(false, true)) {
+							observer.exchangeCancelled(request, Duration.ofNanos(System.nanoTime() - startTime));
+						}
+					})
+					.doOnSuccess(response -> {
+						if (response == null && ended.compareAndSet(false, true)) {
+							observer.exchangeFailed(request, new IllegalStateException("No response"),
+									Duration.ofNanos(System.nanoTime() - startTime));
+						}
+					});
+		});
+	}
+
+	/**
+	 * Return a filter that hedges idempotent requests: if no response was
+	 * received within the given delay, a second attempt is made, the first
+	 * response to arrive is used, and the other attempt is cancelled.
+	 * <p>Requests with non-idempotent methods such as {@code POST} are
+	 * passed through. Note that both attempts count against the connection
+	 * pool, so the delay should be chosen such that only a small fraction of
+	 * requests is hedged, typically a high percentile of the response latency.
+	 * @param delay the time to wait for a response before the second attempt
+	 * @return the filter to hedge requests with
+	 * @since 5.3.2
+	 * @see #hedge(ExchangeStatistics, double, Duration)
+	 */
+	public static ExchangeFilterFunction hedge(Duration delay) {
+		Assert.notNull(delay, "Delay must not be null");
+		return new HedgingExchangeFilterFunction(request -> delay);
+	}
+
+	/**
+	 * Variant of {@link #hedge(Duration)} with a delay per target host that
+	 * is the given percentile of the response latencies recorded in the given
+	 * {@link ExchangeStatistics}. The default delay is used for hosts with
+	 * fewer than 20 recorded responses.
+	 * <p>The statistics are typically those of the same {@code WebClient}.
+	 * When {@linkplain ExchangeStatistics#filter() their filter} is registered
+	 * after the hedging filter, each attempt is recorded separately, and
+	 * attempts that lose the race are recorded as cancelled.
+	 * @param statistics the statistics to derive the delay from
+	 * @param percentile the latency percentile, between 0 and 1, e.g. 0.95
+	 * @param defaultDelay the delay to use for hosts without enough statistics
+	 * @return the filter to hedge requests with
+	 * @since 5.3.2
+	 */
+	public static ExchangeFilterFunction hedge(
+			ExchangeStatistics statistics, double percentile, Duration defaultDelay) {
+
+		Assert.notNull(statistics, "ExchangeStatistics must not be null");
+		Assert.isTrue(percentile >= 0 && percentile <= 1, "Percentile must be between 0 and 1");
+		Assert.notNull(defaultDelay, "Default delay must not be null");
+		return new HedgingExchangeFilterFunction(request -> {
+			ExchangeStatistics.HostStatistics host = statistics.getHostStatistics(request.url());
+			return (host != null && host.getResponseCount() >= MIN_HEDGE_SAMPLES ?
+					host.getLatencyPercentile(percentile) : defaultDelay);
+		});
+	}
+
+	/**
+	 * Return a filter that coalesces identical {@code GET} requests, i.e.
+	 * with the same URL, headers, and cookies, that are in flight at the same
+	 * time into a single exchange. The response body of that exchange is
+	 * buffered, and each caller receives a {@link ClientResponse} with its
+	 * own copy of the status, headers, and buffered body.
+	 * <p>Other requests are passed through. Once started, a shared exchange
+	 * completes even if all of its callers cancel.
+	 * @param maxInMemorySize the maximum number of bytes to buffer for a
+	 * response body, or -1 for no limit
+	 * @return the filter to coalesce requests with
+	 * @since 5.3.2
+	 */
+	public static ExchangeFilterFunction coalesce(int maxInMemorySize) {
+		return new CoalescingExchangeFilterFunction(maxInMemorySize);
+	}
+
 	/**
 	 * Return a filter that applies HTTP Basic Authentication to the request
 	 * headers via {@link HttpHeaders#setBasicAuth(String)} and
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+
+/**
+ * Callback interface for observing the exchanges performed through an
+ * {@link ExchangeFunction}, for instance to collect latency and concurrency
+ * statistics. Register an observer through
+ * {@link ExchangeFilterFunctions#observe(ExchangeObserver)}.
+ *
+ * <p>Each exchange that is started ends with exactly one of
+ * {@link #responseReceived}, {@link #exchangeFailed}, or
+ * {@link #exchangeCancelled}. A response is received once its status and
+ * headers are available; consumption of the response body is not observed.
+ *
+ * <p>Callbacks are invoked on the threads that perform the exchange, and
+ * should therefore be fast and non-blocking.
+ *
+ * @since 5.3.2
+ * @see ExchangeStatistics
+ */
+public interface ExchangeObserver {
+
+	/**
+	 * Invoked when the given request is about to be exchanged.
+	 * @param request the request
+	 */
+	default void exchangeStarted(ClientRequest request) {
+	}
+
+	/**
+	 * Invoked when the response for the given request was received.
+	 * @param request the request
+	 * @param response the response
+	 * @param duration the time since the exchange was started
+	 */
+	default void responseReceived(ClientRequest request, ClientResponse response, Duration duration) {
+	}
+
+	/**
+	 * Invoked when the exchange for the given request failed.
+	 * @param request the request
+	 * @param ex the error
+	 * @param duration the time since the exchange was started
+	 */
+	default void exchangeFailed(ClientRequest request, Throwable ex, Duration duration) {
+	}
+
+	/**
+	 * Invoked when the exchange for the given request was cancelled before a
+	 * response was received.
+	 * @param request the request
+	 * @param duration the time since the exchange was started
+	 */
+	default void exchangeCancelled(ClientRequest request, Duration duration) {
+	}
+
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ExchangeObserver} that keeps statistics per target host: the number
+ * of exchanges in flight and its peak, the number of completed, failed, and
+ * cancelled exchanges, and a histogram of the time to receive a response.
+ *
+ * <p>The exchanges in flight for a host include those waiting for a
+ * connection, and therefore show the demand on the connection pool for that
+ * host; for HTTP/2 hosts they correspond to the number of concurrent streams.
+ * The internals of the connection pool, such as idle connections and the
+ * acquisition queue, are not visible at the level of an
+ * {@link ExchangeFunction}, and are available through the metrics of the
+ * underlying HTTP client library, if any.
+ *
+ * <pre class="code">
+ * ExchangeStatistics statistics = new ExchangeStatistics();
+ * WebClient webClient = WebClient.builder().filter(statistics.filter()).build();
+ * </pre>
+ *
+ * @since 5.3.2
+ */
+public class ExchangeStatistics implements ExchangeObserver {
+
+	private static final long[] DEFAULT_BUCKET_BOUNDS_MILLIS =
+			{1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+
+	private final long[] bucketBoundsNanos;
+
+	private final ConcurrentMap<String, HostStatistics> hostStatistics = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Create an instance with latency histogram buckets that range from
+	 * 1 millisecond to 10 seconds.
+	 */
+	public ExchangeStatistics() {
+		this.bucketBoundsNanos = new long[DEFAULT_BUCKET_BOUNDS_MILLIS.length];
+		for (int i = 0; i < DEFAULT_BUCKET_BOUNDS_MILLIS.length; i++) {
+			this.bucketBoundsNanos[i] = Duration.ofMillis(DEFAULT_BUCKET_BOUNDS_MILLIS[i]).toNanos();
+		}
+	}
+
+	/**
+	 * Create an instance with the given latency histogram bucket bounds.
+	 * @param bucketBounds the inclusive upper bounds of the histogram
+	 * buckets, in ascending order; latencies above the last bound are
+	 * counted in an additional bucket
+	 */
+	public ExchangeStatistics(List<Duration> bucketBounds) {
+		Assert.notEmpty(bucketBounds, "Bucket bounds must not be empty");
+		this.bucketBoundsNanos = new long[bucketBounds.size()];
+		for (int i = 0; i < bucketBounds.size(); i++) {
+			this.bucketBoundsNanos[i] = bucketBounds.get(i).toNanos();
+			Assert.isTrue(i == 0 || this.bucketBoundsNanos[i] > this.bucketBoundsNanos[i - 1],
+					"Bucket bounds must be in ascending order");
+		}
+	}
+
+
+	/**
+	 * Return a filter that records the exchanges of a {@code WebClient} in
+	 * this instance.
+	 * @see ExchangeFilterFunctions#observe(ExchangeObserver)
+	 */
+	public ExchangeFilterFunction filter() {
+		return ExchangeFilterFunctions.observe(this);
+	}
+
+	/**
+	 * Return the statistics for all hosts that were exchanged with, keyed by
+	 * {@code scheme://host:port}.
+	 */
+	public Map<String, HostStatistics> getHostStatistics() {
+		return Collections.unmodifiableMap(this.hostStatistics);
+	}
+
+	/**
+	 * Return the statistics for the host of the given URL.
+	 * @param url a URL of the host
+	 * @return the statistics, or {@code null} if there were no exchanges
+	 * with the host
+	 */
+	@Nullable
+	public HostStatistics getHostStatistics(URI url) {
+		return this.hostStatistics.get(hostKey(url));
+	}
+
+
+	@Override
+	public void exchangeStarted(ClientRequest request) {
+		this.hostStatistics.computeIfAbsent(hostKey(request.url()), HostStatistics::new).started();
+	}
+
+	@Override
+	public void responseReceived(ClientRequest request, ClientResponse response, Duration duration) {
+		HostStatistics statistics = getHostStatistics(request.url());
+		if (statistics != null) {
+			statistics.completed(bucketIndex(duration.toNanos()), duration.toNanos());
+		}
+	}
+
+	@Override
+	public void exchangeFailed(ClientRequest request, Throwable ex, Duration duration) {
+		HostStatistics statistics = getHostStatistics(request.url());
+		if (statistics != null) {
+			statistics.failed();
+		}
+	}
+
+	@Override
+	public void exchangeCancelled(ClientRequest request, Duration duration) {
+		HostStatistics statistics = getHostStatistics(request.url());
+		if (statistics != null) {
+			statistics.cancelled();
+		}
+	}
+
+	private int bucketIndex(long nanos) {
+		for (int i = 0; i < this.bucketBoundsNanos.length; i++) {
+			if (nanos <= this.bucketBoundsNanos[i]) {
+				return i;
+			}
+		}
+		return this.bucketBoundsNanos.length;
+	}
+
+	private static String hostKey(URI url) {
+		String scheme = (url.getScheme() != null ? url.getScheme() : "http");
+		int port = url.getPort();
+		if (port == -1) {
+			port = ("https".equalsIgnoreCase(scheme) || "wss".equalsIgnoreCase(scheme) ? 443 : 80);
+		}
+		return scheme + "://" + url.getHost() + ":" + port;
+	}
+
+
+	/**
+	 * Statistics for the exchanges with a single host.
+	 */
+	public final class HostStatistics {
+
+		private final String host;
+
+		private final AtomicInteger activeExchanges = new AtomicInteger();
+
+		private final AtomicInteger peakActiveExchanges = new AtomicInteger();
+
+		private final LongAdder responseCount = new LongAdder();
+
+		private final LongAdder errorCount = new LongAdder();
+
+		private final LongAdder cancelCount = new LongAdder();
+
+		private final LongAdder totalLatencyNanos = new LongAdder();
+
+		private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+		private final AtomicLongArray latencyBuckets = new AtomicLongArray(bucketBoundsNanos.length + 1);
+
+		HostStatistics(String host) {
+			this.host = host;
+		}
+
+		void started() {
+			int active = this.activeExchanges.incrementAndGet();
+			this.peakActiveExchanges.accumulateAndGet(active, Math::max);
+		}
+
+		void completed(int bucketIndex, long latencyNanos) {
+			this.activeExchanges.decrementAndGet();
+			this.responseCount.increment();
+			this.totalLatencyNanos.add(latencyNanos);
+			this.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+			this.latencyBuckets.incrementAndGet(bucketIndex);
+		}
+
+		void failed() {
+			this.activeExchanges.decrementAndGet();
+			this.errorCount.increment();
+		}
+
+		void cancelled() {
+			this.activeExchanges.decrementAndGet();
+			this.cancelCount.increment();
+		}
+
+		/**
+		 * Return the host, as {@code scheme://host:port}.
+		 */
+		public String getHost() {
+			return this.host;
+		}
+
+		/**
+		 * Return the number of exchanges currently in flight.
+		 */
+		public int getActiveExchanges() {
+			return this.activeExchanges.get();
+		}
+
+		/**
+		 * Return the highest number of exchanges that were in flight at the
+		 * same time.
+		 */
+		public int getPeakActiveExchanges() {
+			return this.peakActiveExchanges.get();
+		}
+
+		/**
+		 * Return the number of exchanges that received a response.
+		 */
+		public long getResponseCount() {
+			return this.responseCount.sum();
+		}
+
+		/**
+		 * Return the number of exchanges that failed.
+		 */
+		public long getErrorCount() {
+			return this.errorCount.sum();
+		}
+
+		/**
+		 * Return the number of exchanges that were cancelled before a
+		 * response was received.
+		 */
+		public long getCancelCount() {
+			return this.cancelCount.sum();
+		}
+
+		/**
+		 * Return the average time to receive a response.
+		 */
+		public Duration getMeanLatency() {
+			long count = this.responseCount.sum();
+			return Duration.ofNanos(count > 0 ? this.totalLatencyNanos.sum() / count : 0);
+		}
+
+		/**
+		 * Return the longest time to receive a response.
+		 */
+		public Duration getMaxLatency() {
+			return Duration.ofNanos(this.maxLatencyNanos.get());
+		}
+
+		/**
+		 * Return the inclusive upper bounds of the latency histogram buckets.
+		 * The histogram has one more bucket for latencies above the last bound.
+		 */
+		public List<Duration> getLatencyBucketBounds() {
+			List<Duration> bounds = new ArrayList<>(bucketBoundsNanos.length);
+			for (long boundNanos : bucketBoundsNanos) {
+				bounds.add(Duration.ofNanos(boundNanos));
+			}
+			return bounds;
+		}
+
+		/**
+		 * Return the number of responses per latency histogram bucket.
+		 * @see #getLatencyBucketBounds()
+		 */
+		public long[] getLatencyBucketCounts() {
+			long[] counts = new long[this.latencyBuckets.length()];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = this.latencyBuckets.get(i);
+			}
+			return counts;
+		}
+
+		/**
+		 * Return an upper bound for the given percentile of response
+		 * latencies, based on the histogram buckets.
+		 * @param percentile the percentile, between 0 and 1
+		 * @return the upper bound of the bucket that contains the percentile,
+		 * or the {@linkplain #getMaxLatency() maximum latency} if that bucket
+		 * is the last one
+		 */
+		public Duration getLatencyPercentile(double percentile) {
+			Assert.isTrue(percentile >= 0 && percentile <= 1, "Percentile must be between 0 and 1");
+			long[] counts = getLatencyBucketCounts();
+			long total = 0;
+			for (long count : counts) {
+				total += count;
+			}
+			long threshold = (long) Math.ceil(total * percentile);
+			long cumulative = 0;
+			for (int i = 0; i < bucketBoundsNanos.length; i++) {
+				cumulative += counts[i];
+				if (cumulative >= threshold && cumulative > 0) {
+					return Duration.ofNanos(Math.min(bucketBoundsNanos[i], this.maxLatencyNanos.get()));
+				}
+			}
+			return getMaxLatency();
+		}
+
+		@Override
+		public String toString() {
+			return "HostStatistics[" + this.host + ", active=" + getActiveExchanges() +
+					", peak=" + getPeakActiveExchanges() + ", responses=" + getResponseCount() +
+					", errors=" + getErrorCount() + ", cancelled=" + getCancelCount() +
+					", mean=" + getMeanLatency().toMillis() + "ms]";
+		}
+	}
+
+}
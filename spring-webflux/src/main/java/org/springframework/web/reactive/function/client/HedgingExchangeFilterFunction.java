@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ExchangeFilterFunction} that hedges idempotent requests: if no
+ * response was received after a delay, a second attempt is started, and the
+ * first response to arrive wins while the other attempt is cancelled.
+ *
+ * @since 5.3.2
+ * @see ExchangeFilterFunctions#hedge(Duration)
+ * @see ExchangeFilterFunctions#hedge(ExchangeStatistics, double, Duration)
+ */
+final class HedgingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD,
+			HttpMethod.OPTIONS, HttpMethod.TRACE, HttpMethod.PUT, HttpMethod.DELETE);
+
+
+	private final Function<ClientRequest, Duration> delayFunction;
+
+
+	HedgingExchangeFilterFunction(Function<ClientRequest, Duration> delayFunction) {
+		this.delayFunction = delayFunction;
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!IDEMPOTENT_METHODS.contains(request.method())) {
+			return next.exchange(request);
+		}
+		return Mono.create(sink -> new HedgedExchange(request, next, sink).start(this.delayFunction.apply(request)));
+	}
+
+
+	/**
+	 * The attempts for a single hedged exchange.
+	 */
+	private static final class HedgedExchange {
+
+		private final ClientRequest request;
+
+		private final ExchangeFunction next;
+
+		private final MonoSink<ClientResponse> sink;
+
+		private final Disposable.Composite attempts = Disposables.composite();
+
+		private int startedCount;
+
+		private int failedCount;
+
+		private boolean done;
+
+		HedgedExchange(ClientRequest request, ExchangeFunction next, MonoSink<ClientResponse> sink) {
+			this.request = request;
+			this.next = next;
+			this.sink = sink;
+		}
+
+		void start(Duration delay) {
+			this.sink.onCancel(this::cancel);
+			synchronized (this) {
+				this.startedCount = 1;
+			}
+			this.attempts.add(Mono.delay(delay).subscribe(ticks -> startHedge()));
+			subscribeAttempt();
+		}
+
+		private void startHedge() {
+			synchronized (this) {
+				if (this.done) {
+					return;
+				}
+				this.startedCount++;
+			}
+			subscribeAttempt();
+		}
+
+		private void subscribeAttempt() {
+			// Propagate the subscriber's Context to each attempt
+			this.attempts.add(this.next.exchange(this.request).contextWrite(this.sink.currentContext()).subscribe(
+					this::onResponse, this::onAttemptEnded, () -> onAttemptEnded(null)));
+		}
+
+		private void onResponse(ClientResponse response) {
+			synchronized (this) {
+				if (this.done) {
+					// Lost the race, or the exchange was cancelled in the meantime
+					response.releaseBody().subscribe();
+					return;
+				}
+				this.done = true;
+			}
+			this.attempts.dispose();
+			this.sink.success(response);
+		}
+
+		private void onAttemptEnded(@Nullable Throwable ex) {
+			synchronized (this) {
+				if (this.done) {
+					return;
+				}
+				this.failedCount++;
+				if (this.failedCount < this.startedCount) {
+					// Wait for the other attempt
+					return;
+				}
+				this.done = true;
+			}
+			this.attempts.dispose();
+			if (ex != null) {
+				this.sink.error(ex);
+			}
+			else {
+				this.sink.success();
+			}
+		}
+
+		private void cancel() {
+			synchronized (this) {
+				this.done = true;
+			}
+			this.attempts.dispose();
+		}
+	}
+
+}
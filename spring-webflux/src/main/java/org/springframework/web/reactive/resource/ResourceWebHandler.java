@@ -81,7 +81,9 @@ import org.springframework.web.server.WebHandler;
  * <p>This handler also properly evaluates the {@code Last-Modified} header (if
  * present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the
- * client.
+ * client. The same applies to an {@code ETag} contributed by an
+ * {@link HttpResource}, e.g. as resolved through a
+ * {@link ContentCachingResourceResolver}.
  *
  * @author Rossen Stoyanchev
  * @author Brian Clozel
@@ -392,7 +394,10 @@ public class ResourceWebHandler implements WebHandler, InitializingBean {
 						}
 
 						// Header phase
-						if (isUseLastModified() && exchange.checkNotModified(Instant.ofEpochMilli(resource.lastModified()))) {
+						String eTag = (resource instanceof HttpResource ?
+								((HttpResource) resource).getResponseHeaders().getETag() : null);
+						Instant lastModified = (isUseLastModified() ? Instant.ofEpochMilli(resource.lastModified()) : Instant.MIN);
+						if ((eTag != null || isUseLastModified()) && exchange.checkNotModified(eTag, lastModified)) {
 							logger.trace(exchange.getLogPrefix() + "Resource not modified");
 							return Mono.empty();
 						}
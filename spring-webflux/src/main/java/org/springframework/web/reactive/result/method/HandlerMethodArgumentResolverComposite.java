@@ -26,24 +26,29 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
  * Resolves method parameters by delegating to a list of registered
  * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
- * Previously resolved method parameters are cached for faster lookups.
+ * Previously resolved method parameters are cached for faster lookups, and so
+ * are the resolvers for the complete parameter array of a handler method.
  *
  * @author Rossen Stoyanchev
  * @since 5.1.3
  */
-class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentResolver {
+public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentResolver {
 
 	private final List<HandlerMethodArgumentResolver> argumentResolvers = new ArrayList<>();
 
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodParameter[], HandlerMethodArgumentResolver[]> argumentResolverArrayCache =
+			new ConcurrentReferenceHashMap<>(256, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
@@ -118,6 +123,39 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 		return resolver.resolveArgument(parameter, bindingContext, exchange);
 	}
 
+	/**
+	 * Return the resolvers for the given method parameters, as obtained from
+	 * {@link org.springframework.web.method.HandlerMethod#getMethodParameters()},
+	 * with a {@code null} element for each parameter that is not supported.
+	 * <p>Once all parameters are supported, the result is cached per parameter
+	 * array, so that handler method invocations can bind their arguments through
+	 * a fixed array of resolvers rather than through per-parameter lookups.
+	 * <p>The given array is expected to be shared across invocations, as is the
+	 * case for a registered handler method and its copies. Parameters of a
+	 * {@code HandlerMethod} created per invocation, e.g. for an
+	 * {@code @InitBinder} or {@code @ModelAttribute} method, should be resolved
+	 * through {@link #supportsParameter} and {@link #resolveArgument} instead.
+	 * @param parameters the method parameters of a handler method
+	 * @return an array of resolvers, matching the given parameters by index
+	 * (not to be modified)
+	 * @since 5.3.2
+	 */
+	public HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter[] parameters) {
+		HandlerMethodArgumentResolver[] result = this.argumentResolverArrayCache.get(parameters);
+		if (result == null) {
+			boolean complete = true;
+			result = new HandlerMethodArgumentResolver[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				result[i] = getArgumentResolver(parameters[i]);
+				complete &= (result[i] != null);
+			}
+			if (complete) {
+				this.argumentResolverArrayCache.put(parameters, result);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
@@ -60,7 +60,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	private static final Object NO_ARG_VALUE = new Object();
 
 
-	private final HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
+	/** Whether the method parameters are shared with a registered handler method. */
+	private final boolean sharedMethodParameters;
+
+	private HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
@@ -72,6 +75,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	public InvocableHandlerMethod(HandlerMethod handlerMethod) {
 		super(handlerMethod);
+		this.sharedMethodParameters = true;
 	}
 
 	/**
@@ -79,6 +83,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	public InvocableHandlerMethod(Object bean, Method method) {
 		super(bean, method);
+		this.sharedMethodParameters = false;
 	}
 
 
@@ -87,7 +92,23 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 * argument values against a {@code ServerWebExchange}.
 	 */
 	public void setArgumentResolvers(List<? extends HandlerMethodArgumentResolver> resolvers) {
-		this.resolvers.addResolvers(resolvers);
+		// Never modify a composite that may be shared with other instances
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolvers(this.resolvers.getResolvers());
+		composite.addResolvers(resolvers);
+		this.resolvers = composite;
+	}
+
+	/**
+	 * Configure a composite of argument resolvers to use for resolving method
+	 * argument values against a {@code ServerWebExchange}, replacing any
+	 * resolvers configured so far.
+	 * <p>A composite shared across invocations allows the resolvers for each
+	 * handler method to be looked up once and reused for subsequent requests.
+	 * @since 5.3.2
+	 */
+	public void setArgumentResolvers(HandlerMethodArgumentResolverComposite resolvers) {
+		this.resolvers = resolvers;
 	}
 
 	/**
@@ -184,20 +205,27 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		// Only look up the resolvers for all parameters at once if the parameter array is
+		// shared, rather than created for this instance (e.g. for an @InitBinder method)
+		HandlerMethodArgumentResolver[] argumentResolvers = (this.sharedMethodParameters ?
+				this.resolvers.getArgumentResolvers(parameters) : null);
 		List<Mono<Object>> argMonos = new ArrayList<>(parameters.length);
-		for (MethodParameter parameter : parameters) {
+		for (int i = 0; i < parameters.length; i++) {
+			MethodParameter parameter = parameters[i];
 			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
 			Object providedArg = findProvidedArgument(parameter, providedArgs);
 			if (providedArg != null) {
 				argMonos.add(Mono.just(providedArg));
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = (argumentResolvers != null ? argumentResolvers[i] :
+					this.resolvers.supportsParameter(parameter) ? this.resolvers : null);
+			if (resolver == null) {
 				return Mono.error(new IllegalStateException(
 						formatArgumentError(parameter, "No suitable resolver")));
 			}
 			try {
-				argMonos.add(this.resolvers.resolveArgument(parameter, bindingContext, exchange)
+				argMonos.add(resolver.resolveArgument(parameter, bindingContext, exchange)
 						.defaultIfEmpty(NO_ARG_VALUE)
 						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex)));
 			}
@@ -47,6 +47,7 @@ import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolverComposite;
 import org.springframework.web.reactive.result.method.InvocableHandlerMethod;
 import org.springframework.web.reactive.result.method.SyncHandlerMethodArgumentResolver;
 import org.springframework.web.reactive.result.method.SyncInvocableHandlerMethod;
@@ -87,11 +88,11 @@ class ControllerMethodResolver {
 
 	private final List<SyncHandlerMethodArgumentResolver> initBinderResolvers;
 
-	private final List<HandlerMethodArgumentResolver> modelAttributeResolvers;
+	private final HandlerMethodArgumentResolverComposite modelAttributeResolvers;
 
-	private final List<HandlerMethodArgumentResolver> requestMappingResolvers;
+	private final HandlerMethodArgumentResolverComposite requestMappingResolvers;
 
-	private final List<HandlerMethodArgumentResolver> exceptionHandlerResolvers;
+	private final HandlerMethodArgumentResolverComposite exceptionHandlerResolvers;
 
 	private final ReactiveAdapterRegistry reactiveAdapterRegistry;
 
@@ -120,9 +121,12 @@ class ControllerMethodResolver {
 		Assert.notNull(readers, "HttpMessageReader List is required");
 
 		this.initBinderResolvers = initBinderResolvers(customResolvers, adapterRegistry, context);
-		this.modelAttributeResolvers = modelMethodResolvers(customResolvers, adapterRegistry, context);
-		this.requestMappingResolvers = requestMappingResolvers(customResolvers, adapterRegistry, context, readers);
-		this.exceptionHandlerResolvers = exceptionHandlerResolvers(customResolvers, adapterRegistry, context);
+		this.modelAttributeResolvers = new HandlerMethodArgumentResolverComposite()
+				.addResolvers(modelMethodResolvers(customResolvers, adapterRegistry, context));
+		this.requestMappingResolvers = new HandlerMethodArgumentResolverComposite()
+				.addResolvers(requestMappingResolvers(customResolvers, adapterRegistry, context, readers));
+		this.exceptionHandlerResolvers = new HandlerMethodArgumentResolverComposite()
+				.addResolvers(exceptionHandlerResolvers(customResolvers, adapterRegistry, context));
 		this.reactiveAdapterRegistry = adapterRegistry;
 
 		initControllerAdviceCaches(context);
@@ -18,11 +18,17 @@ package org.springframework.web.reactive.function.client;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.util.context.Context;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -215,6 +221,180 @@ public class ExchangeFilterFunctionsTests {
 
 	}
 
+	@Test
+	public void hedgeWithFastResponse() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse response = mock(ClientResponse.class);
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> Mono.fromCallable(() -> {
+			attempts.incrementAndGet();
+			return response;
+		});
+
+		StepVerifier.create(ExchangeFilterFunctions.hedge(Duration.ofMillis(100)).filter(request, exchange))
+				.expectNext(response)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void hedgeWithSlowResponse() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse fastResponse = mock(ClientResponse.class);
+		AtomicInteger attempts = new AtomicInteger();
+		boolean[] slowCancelled = new boolean[1];
+		ExchangeFunction exchange = r -> (attempts.incrementAndGet() == 1 ?
+				Mono.<ClientResponse>never().doOnCancel(() -> slowCancelled[0] = true) :
+				Mono.just(fastResponse));
+
+		StepVerifier.create(ExchangeFilterFunctions.hedge(Duration.ofMillis(50)).filter(request, exchange))
+				.expectNext(fastResponse)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(2);
+		assertThat(slowCancelled[0]).isTrue();
+	}
+
+	@Test
+	public void hedgePropagatesContext() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse response = mock(ClientResponse.class);
+		AtomicInteger attempts = new AtomicInteger();
+		List<String> contextValues = new CopyOnWriteArrayList<>();
+		ExchangeFunction exchange = r -> Mono.deferContextual(context -> {
+			contextValues.add(context.getOrDefault("key", "none"));
+			return (attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just(response));
+		});
+
+		StepVerifier.create(ExchangeFilterFunctions.hedge(Duration.ofMillis(50)).filter(request, exchange)
+						.contextWrite(Context.of("key", "value")))
+				.expectNext(response)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(contextValues).containsExactly("value", "value");
+	}
+
+	@Test
+	public void hedgeWithFirstAttemptError() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.error(new IllegalStateException());
+		};
+
+		StepVerifier.create(ExchangeFilterFunctions.hedge(Duration.ofMillis(50)).filter(request, exchange))
+				.expectError(IllegalStateException.class)
+				.verify(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void hedgeIgnoresNonIdempotentRequest() {
+		ClientRequest request = ClientRequest.create(HttpMethod.POST, DEFAULT_URL).build();
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.never();
+		};
+
+		StepVerifier.create(ExchangeFilterFunctions.hedge(Duration.ofMillis(10)).filter(request, exchange))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(100))
+				.thenCancel()
+				.verify();
+		assertThat(attempts.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void hedgeWithStatistics() {
+		ExchangeStatistics statistics = new ExchangeStatistics();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse response = mock(ClientResponse.class);
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.hedge(statistics, 0.9, Duration.ofSeconds(10))
+				.andThen(statistics.filter());
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.just(response);
+		};
+		for (int i = 0; i < 20; i++) {
+			filter.filter(request, exchange).block(Duration.ofSeconds(5));
+		}
+		assertThat(attempts.get()).isEqualTo(20);
+
+		// The 90th percentile is now at most a millisecond
+		attempts.set(0);
+		ExchangeFunction slowExchange = r -> (attempts.incrementAndGet() == 1 ?
+				Mono.never() : Mono.just(response));
+
+		StepVerifier.create(filter.filter(request, slowExchange))
+				.expectNext(response)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void coalesce() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		TestPublisher<ClientResponse> publisher = TestPublisher.create();
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return publisher.mono();
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesce(-1);
+
+		Mono<String> result1 = filter.filter(request, exchange).flatMap(response -> response.bodyToMono(String.class));
+		Mono<String> result2 = filter.filter(ClientRequest.from(request).build(), exchange)
+				.flatMap(response -> response.bodyToMono(String.class));
+
+		StepVerifier.create(Mono.zip(result1, result2))
+				.then(() -> publisher.emit(ClientResponse.create(HttpStatus.OK)
+						.body(Flux.just(dataBuffer("foo"), dataBuffer("bar"))).build()))
+				.consumeNextWith(tuple -> {
+					assertThat(tuple.getT1()).isEqualTo("foobar");
+					assertThat(tuple.getT2()).isEqualTo("foobar");
+				})
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(1);
+
+		// No longer in flight
+		ExchangeFunction secondExchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.just(ClientResponse.create(HttpStatus.OK).body("baz").build());
+		};
+		StepVerifier.create(filter.filter(request, secondExchange).flatMap(response -> response.bodyToMono(String.class)))
+				.expectNext("baz")
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void coalesceDifferentRequests() {
+		ClientRequest request1 = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientRequest request2 = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).header("Accept", "text/plain").build();
+		ClientRequest request3 = ClientRequest.create(HttpMethod.POST, DEFAULT_URL).build();
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(50)).map(l -> ClientResponse.create(HttpStatus.OK).body("foo").build());
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesce(-1);
+
+		Mono.when(
+				filter.filter(request1, exchange).flatMap(ClientResponse::releaseBody),
+				filter.filter(request2, exchange).flatMap(ClientResponse::releaseBody),
+				filter.filter(request3, exchange).flatMap(ClientResponse::releaseBody),
+				filter.filter(request3, exchange).flatMap(ClientResponse::releaseBody))
+				.block(Duration.ofSeconds(5));
+		assertThat(attempts.get()).isEqualTo(4);
+	}
+
 	private String string(DataBuffer buffer) {
 		String value = buffer.toString(UTF_8);
 		DataBufferUtils.release(buffer);
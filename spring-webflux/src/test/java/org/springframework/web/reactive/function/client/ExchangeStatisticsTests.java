@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeStatistics.HostStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExchangeStatistics} and
+ * {@link ExchangeFilterFunctions#observe(ExchangeObserver)}, against a local
+ * mock server.
+ */
+class ExchangeStatisticsTests {
+
+	private final ExchangeStatistics statistics = new ExchangeStatistics(
+			Arrays.asList(Duration.ofMillis(100), Duration.ofSeconds(10)));
+
+	private MockWebServer server;
+
+	private WebClient webClient;
+
+
+	@BeforeEach
+	void startServer() {
+		this.server = new MockWebServer();
+		this.webClient = WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector())
+				.baseUrl(this.server.url("/").toString())
+				.filter(this.statistics.filter())
+				.build();
+	}
+
+	@AfterEach
+	void shutdown() throws IOException {
+		this.server.shutdown();
+	}
+
+
+	@Test
+	void responses() {
+		this.server.enqueue(new MockResponse().setBody("foo"));
+		this.server.enqueue(new MockResponse().setBody("bar").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+		this.server.enqueue(new MockResponse().setResponseCode(500));
+
+		for (int i = 0; i < 3; i++) {
+			this.webClient.get().uri("/test").exchangeToMono(ClientResponse::releaseBody).block(Duration.ofSeconds(5));
+		}
+
+		HostStatistics host = this.statistics.getHostStatistics(this.server.url("/").uri());
+		assertThat(host).isNotNull();
+		assertThat(host.getHost()).isEqualTo("http://" + this.server.getHostName() + ":" + this.server.getPort());
+		assertThat(host.getResponseCount()).isEqualTo(3);
+		assertThat(host.getErrorCount()).isEqualTo(0);
+		assertThat(host.getActiveExchanges()).isEqualTo(0);
+		assertThat(host.getPeakActiveExchanges()).isEqualTo(1);
+		long[] bucketCounts = host.getLatencyBucketCounts();
+		assertThat(bucketCounts).hasSize(3);
+		assertThat(bucketCounts[0] + bucketCounts[1]).isEqualTo(3);
+		assertThat(bucketCounts[1]).isGreaterThanOrEqualTo(1);
+		assertThat(host.getMaxLatency()).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+		assertThat(host.getLatencyPercentile(1)).isEqualTo(host.getMaxLatency());
+	}
+
+	@Test
+	void concurrentExchanges() {
+		for (int i = 0; i < 4; i++) {
+			this.server.enqueue(new MockResponse().setBody("foo").setHeadersDelay(100, TimeUnit.MILLISECONDS));
+		}
+
+		Mono.when(
+				this.webClient.get().uri("/1").retrieve().bodyToMono(String.class),
+				this.webClient.get().uri("/2").retrieve().bodyToMono(String.class),
+				this.webClient.get().uri("/3").retrieve().bodyToMono(String.class),
+				this.webClient.get().uri("/4").retrieve().bodyToMono(String.class))
+				.block(Duration.ofSeconds(5));
+
+		HostStatistics host = this.statistics.getHostStatistics(this.server.url("/").uri());
+		assertThat(host).isNotNull();
+		assertThat(host.getResponseCount()).isEqualTo(4);
+		assertThat(host.getPeakActiveExchanges()).isGreaterThan(1);
+		assertThat(host.getActiveExchanges()).isEqualTo(0);
+	}
+
+	@Test
+	void errorAndCancel() {
+		URI url = URI.create("https://example.com/path");
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, url).build();
+		ExchangeFilterFunction filter = this.statistics.filter();
+
+		StepVerifier.create(filter.filter(request, r -> Mono.error(new IllegalStateException())))
+				.verifyError(IllegalStateException.class);
+		StepVerifier.create(filter.filter(request, r -> Mono.never()))
+				.thenCancel()
+				.verify();
+
+		HostStatistics host = this.statistics.getHostStatistics(url);
+		assertThat(host).isNotNull();
+		assertThat(host.getHost()).isEqualTo("https://example.com:443");
+		assertThat(host.getErrorCount()).isEqualTo(1);
+		assertThat(host.getCancelCount()).isEqualTo(1);
+		assertThat(host.getResponseCount()).isEqualTo(0);
+		assertThat(host.getActiveExchanges()).isEqualTo(0);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest.get;
+
+/**
+ * Unit tests for {@link ContentCachingResourceResolver}.
+ */
+public class ContentCachingResourceResolverTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+
+	private ContentCachingResourceResolver resolver;
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() {
+		this.resolver = new ContentCachingResourceResolver();
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.resolver);
+		resolvers.add(new PathResourceResolver());
+		this.chain = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolveResourceContent() throws Exception {
+		Resource original = new ClassPathResource("test/bar.css", getClass());
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+		Resource resolved = this.chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("bar.css");
+		assertThat(StreamUtils.copyToByteArray(resolved.getInputStream()))
+				.isEqualTo(StreamUtils.copyToByteArray(original.getInputStream()));
+		assertThat(((HttpResource) resolved).getResponseHeaders().getETag()).startsWith("\"").endsWith("\"");
+
+		exchange = MockServerWebExchange.from(get(""));
+		assertThat(this.chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT)).isSameAs(resolved);
+	}
+
+	@Test
+	public void resolveCompressedResource() throws Exception {
+		byte[] content = new byte[4096];
+		Arrays.fill(content, (byte) 'a');
+		Resource resource = new TransformedResource(new ClassPathResource("test/bar.css", getClass()), content);
+		ResourceResolver fixedResolver = new AbstractResourceResolver() {
+			@Override
+			protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
+					String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+				return Mono.just(resource);
+			}
+			@Override
+			protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+					List<? extends Resource> locations, ResourceResolverChain chain) {
+				return Mono.just(resourceUrlPath);
+			}
+		};
+		ResourceResolverChain chain = new DefaultResourceResolverChain(Arrays.asList(this.resolver, fixedResolver));
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT);
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(resolved.contentLength()).isLessThan(content.length);
+		try (InputStream in = new GZIPInputStream(resolved.getInputStream())) {
+			assertThat(FileCopyUtils.copyToByteArray(in)).isEqualTo(content);
+		}
+	}
+
+	@Test
+	public void resolveResourceLargerThanMaxResourceSize() {
+		this.resolver.setMaxResourceSize(10);
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+		Resource resolved = this.chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+}
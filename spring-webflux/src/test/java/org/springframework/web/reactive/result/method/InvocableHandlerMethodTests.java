@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -152,6 +153,18 @@ public class InvocableHandlerMethodTests {
 			.withMessage("boo");
 	}
 
+	@Test
+	public void argumentResolversListDoesNotModifySharedComposite() {
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.singleArg(null)).method();
+		InvocableHandlerMethod invocable = new InvocableHandlerMethod(new TestController(), method);
+		invocable.setArgumentResolvers(composite);
+		invocable.setArgumentResolvers(Collections.singletonList(stubResolver("value1")));
+
+		assertHandlerResultValue(invocable.invoke(this.exchange, new BindingContext()), "success:value1");
+		assertThat(composite.getResolvers()).isEmpty();
+	}
+
 	@Test
 	public void responseStatusAnnotation() {
 		Method method = ResolvableMethod.on(TestController.class).mockCall(TestController::created).method();
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+import org.springframework.web.testfixture.servlet.MockServletContext;
+
+/**
+ * Benchmarks for serving large files with {@link ResourceHttpRequestHandler},
+ * copying the content through the heap versus handing it off to the
+ * container's sendfile support.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResourceHttpRequestHandlerBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"65536", "1048576", "67108864"})
+		public int fileSize;
+
+		@Param({"false", "true"})
+		public boolean useSendfile;
+
+		@Param({"", "bytes=1024-"})
+		public String range;
+
+		public Path directory;
+
+		public ResourceHttpRequestHandler handler;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.directory = Files.createTempDirectory("resources");
+			Files.write(this.directory.resolve("large.bin"), new byte[this.fileSize]);
+
+			this.handler = new ResourceHttpRequestHandler();
+			this.handler.setLocations(Collections.singletonList(
+					new FileSystemResource(this.directory.toString() + "/")));
+			this.handler.setServletContext(new MockServletContext());
+			this.handler.setUseSendfile(this.useSendfile);
+			this.handler.afterPropertiesSet();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			FileSystemUtils.deleteRecursively(this.directory);
+		}
+
+		public MockHttpServletRequest createRequest() {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "");
+			request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "large.bin");
+			request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+			if (!this.range.isEmpty()) {
+				request.addHeader("Range", this.range);
+			}
+			return request;
+		}
+	}
+
+	@Benchmark
+	public MockHttpServletResponse handleRequest(BenchmarkData data) throws Exception {
+		MockHttpServletResponse response = new DiscardingHttpServletResponse();
+		data.handler.handleRequest(data.createRequest(), response);
+		return response;
+	}
+
+
+	/**
+	 * Response that discards its content, as a network connection would,
+	 * rather than accumulating it in memory.
+	 */
+	private static class DiscardingHttpServletResponse extends MockHttpServletResponse {
+
+		private final ServletOutputStream outputStream = new ServletOutputStream() {
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+			}
+			@Override
+			public void write(int b) {
+			}
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		};
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return this.outputStream;
+		}
+	}
+
+}
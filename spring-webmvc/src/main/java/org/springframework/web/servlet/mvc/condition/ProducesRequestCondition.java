@@ -65,6 +65,13 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 
 	private final ContentNegotiationManager contentNegotiationManager;
 
+	/**
+	 * The result of the last match, reused for requests with the same
+	 * accepted media types, e.g. from the same 'Accept' header.
+	 */
+	@Nullable
+	private volatile MatchResult lastMatch;
+
 
 	/**
 	 * Creates a new instance from "produces" expressions. If 0 expressions
@@ -210,6 +217,17 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 		catch (HttpMediaTypeException ex) {
 			return null;
 		}
+		MatchResult lastMatch = this.lastMatch;
+		if (lastMatch != null && lastMatch.acceptedMediaTypes.equals(acceptedMediaTypes)) {
+			return lastMatch.condition;
+		}
+		ProducesRequestCondition condition = getMatchingCondition(acceptedMediaTypes);
+		this.lastMatch = new MatchResult(Collections.unmodifiableList(new ArrayList<>(acceptedMediaTypes)), condition);
+		return condition;
+	}
+
+	@Nullable
+	private ProducesRequestCondition getMatchingCondition(List<MediaType> acceptedMediaTypes) {
 		List<ProduceMediaTypeExpression> result = getMatchingExpressions(acceptedMediaTypes);
 		if (!CollectionUtils.isEmpty(result)) {
 			return new ProducesRequestCondition(result, this);
@@ -345,6 +363,23 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 	}
 
 
+	/**
+	 * The matching condition for a given list of accepted media types.
+	 */
+	private static final class MatchResult {
+
+		final List<MediaType> acceptedMediaTypes;
+
+		@Nullable
+		final ProducesRequestCondition condition;
+
+		MatchResult(List<MediaType> acceptedMediaTypes, @Nullable ProducesRequestCondition condition) {
+			this.acceptedMediaTypes = acceptedMediaTypes;
+			this.condition = condition;
+		}
+	}
+
+
 	/**
 	 * Parses and matches a single media type expression to a request's 'Accept' header.
 	 */
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.CachedResourceContent;
+
+/**
+ * Resolver that delegates to the chain and keeps the content of resolved
+ * resources in a bounded, off-heap, in-memory cache so that subsequent
+ * requests are served without any disk I/O.
+ *
+ * <p>Cached resources expose a strong {@code ETag} computed from a hash of
+ * their content, which {@link ResourceHttpRequestHandler} uses for conditional
+ * requests. For requests that accept {@literal "gzip"}, compressible resources
+ * (text, JavaScript, JSON, XML, SVG) are compressed once on first access and
+ * the compressed variant is cached alongside the original. Encoded variants
+ * resolved further down the chain, e.g. by an {@link EncodedResourceResolver},
+ * are cached as they are.
+ *
+ * <p>Content is loaded on first access and is not checked for changes
+ * afterwards, so this resolver is meant for resources that do not change while
+ * the application is running. Resources larger than the
+ * {@link #setMaxResourceSize maximum resource size} are not cached, and the
+ * least recently used entries are evicted once the
+ * {@link #setMaxCacheSize maximum cache size} is exceeded.
+ *
+ * <p>This resolver should be ordered ahead of other resolvers, but after a
+ * {@link CachingResourceResolver} if one is used.
+ *
+ * @since 5.3.2
+ */
+public class ContentCachingResourceResolver extends AbstractResourceResolver {
+
+	/**
+	 * The default maximum size of an individual resource to cache: 1MB.
+	 */
+	public static final int DEFAULT_MAX_RESOURCE_SIZE = 1024 * 1024;
+
+	/**
+	 * The default maximum size of all cached content: 32MB.
+	 */
+	public static final long DEFAULT_MAX_CACHE_SIZE = 32 * 1024 * 1024;
+
+
+	private int maxResourceSize = DEFAULT_MAX_RESOURCE_SIZE;
+
+	private long maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+	private final List<MediaType> compressibleMediaTypes = new ArrayList<>(CachedResourceContent.DEFAULT_COMPRESSIBLE_MEDIA_TYPES);
+
+	private final Map<String, CachedResource> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long cacheSize;
+
+
+	/**
+	 * Set the maximum size in bytes of an individual resource to cache.
+	 * Larger resources are passed through as resolved by the chain.
+	 * <p>By default this is set to 1MB.
+	 */
+	public void setMaxResourceSize(int maxResourceSize) {
+		this.maxResourceSize = maxResourceSize;
+	}
+
+	/**
+	 * Return the maximum size of an individual resource to cache.
+	 */
+	public int getMaxResourceSize() {
+		return this.maxResourceSize;
+	}
+
+	/**
+	 * Set the maximum size in bytes of all cached content, including
+	 * compressed variants.
+	 * <p>By default this is set to 32MB.
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * Return the maximum size of all cached content.
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Configure the media types of resources to compress with gzip when the
+	 * request accepts it. An empty list turns compression off.
+	 * <p>By default text, JavaScript, JSON, XML and SVG resources are compressed.
+	 */
+	public void setCompressibleMediaTypes(List<MediaType> mediaTypes) {
+		this.compressibleMediaTypes.clear();
+		this.compressibleMediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return a read-only list with the media types of resources to compress.
+	 */
+	public List<MediaType> getCompressibleMediaTypes() {
+		return Collections.unmodifiableList(this.compressibleMediaTypes);
+	}
+
+	/**
+	 * Return the current size in bytes of all cached content.
+	 */
+	public long getCacheSize() {
+		synchronized (this.cache) {
+			return this.cacheSize;
+		}
+	}
+
+	/**
+	 * Remove all cached content.
+	 */
+	public void clearCache() {
+		synchronized (this.cache) {
+			this.cache.clear();
+			this.cacheSize = 0;
+		}
+	}
+
+
+	@Override
+	protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		String codingKey = (request != null ? CachedResourceContent.getContentCodingKey(
+				request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : "");
+		String key = requestPath + "+encoding=" + codingKey;
+
+		CachedResource cachedResource;
+		synchronized (this.cache) {
+			cachedResource = this.cache.get(key);
+		}
+		if (cachedResource != null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Resource content resolved from cache");
+			}
+			return cachedResource;
+		}
+
+		Resource resource = chain.resolveResource(request, requestPath, locations);
+		if (resource == null) {
+			return null;
+		}
+		return cacheContent(key, resource, codingKey.contains("gzip"));
+	}
+
+	private Resource cacheContent(String key, Resource resource, boolean gzip) {
+		HttpHeaders headers = (resource instanceof HttpResource ?
+				((HttpResource) resource).getResponseHeaders() : null);
+		CachedResource cachedResource;
+		try {
+			CachedResourceContent content = CachedResourceContent.load(
+					resource, headers, this.maxResourceSize, gzip, this.compressibleMediaTypes);
+			if (content == null) {
+				return resource;
+			}
+			cachedResource = new CachedResource(resource, content, resource.lastModified());
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to cache content of " + resource, ex);
+			}
+			return resource;
+		}
+		putInCache(key, cachedResource);
+		return cachedResource;
+	}
+
+	private void putInCache(String key, CachedResource resource) {
+		synchronized (this.cache) {
+			CachedResource previous = this.cache.put(key, resource);
+			if (previous != null) {
+				this.cacheSize -= previous.contentLength();
+			}
+			this.cacheSize += resource.contentLength();
+			Iterator<CachedResource> it = this.cache.values().iterator();
+			while (this.cacheSize > this.maxCacheSize && it.hasNext()) {
+				this.cacheSize -= it.next().contentLength();
+				it.remove();
+			}
+		}
+	}
+
+	@Override
+	protected String resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+
+	/**
+	 * An {@link HttpResource} with its content held in an off-heap buffer.
+	 */
+	static final class CachedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final CachedResourceContent content;
+
+		private final long lastModified;
+
+		CachedResource(Resource original, CachedResourceContent content, long lastModified) {
+			this.original = original;
+			this.content = content;
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return this.content.getInputStream();
+		}
+
+		@Override
+		public long contentLength() {
+			return this.content.getContentLength();
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return "Cached content of " + this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			return this.content.getHeaders();
+		}
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.servlet.ServletException;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -40,6 +42,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRange;
@@ -87,6 +90,11 @@ import org.springframework.web.util.UrlPathHelper;
  * <p>This handler also properly evaluates the {@code Last-Modified} header
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
+ * The same applies to an {@code ETag} contributed by an {@link HttpResource},
+ * e.g. as resolved through a {@link ContentCachingResourceResolver}.
+ *
+ * <p>Large file-based resources may optionally be handed off to the container's
+ * sendfile support, see {@link #setUseSendfile(boolean)}.
  *
  * @author Keith Donald
  * @author Jeremy Grelle
@@ -103,6 +111,20 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	/**
+	 * Below this size, copying the content is cheaper than a sendfile hand-off
+	 * (same default as Tomcat's {@code DefaultServlet}).
+	 */
+	private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -142,6 +164,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private boolean useLastModified = true;
 
+	private boolean useSendfile = false;
+
 
 	public ResourceHttpRequestHandler() {
 		super(HttpMethod.GET.name(), HttpMethod.HEAD.name());
@@ -370,6 +394,33 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		this.useLastModified = useLastModified;
 	}
 
+	/**
+	 * Set whether file-based resources of 48K or more should be handed off to
+	 * the Servlet container's sendfile support, when available, instead of
+	 * being copied to the response through the heap.
+	 * <p>This currently applies to containers that advertise sendfile through
+	 * the {@code "org.apache.tomcat.sendfile.support"} request attribute, i.e.
+	 * Apache Tomcat with an NIO, NIO2 or APR connector. It is applied to full
+	 * content as well as to single range requests, but only when the response
+	 * is not wrapped, since wrappers such as
+	 * {@link org.springframework.web.util.ContentCachingResponseWrapper} expect
+	 * to see the response body.
+	 * <p>This option is disabled by default.
+	 * @param useSendfile whether to use the container's sendfile support
+	 * @since 5.3.2
+	 */
+	public void setUseSendfile(boolean useSendfile) {
+		this.useSendfile = useSendfile;
+	}
+
+	/**
+	 * Return whether the container's sendfile support should be used.
+	 * @since 5.3.2
+	 */
+	public boolean isUseSendfile() {
+		return this.useSendfile;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		resolveResourceLocations();
@@ -521,7 +572,10 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		checkRequest(request);
 
 		// Header phase
-		if (isUseLastModified() && new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
+		String eTag = (resource instanceof HttpResource ? ((HttpResource) resource).getResponseHeaders().getETag() : null);
+		long lastModified = (isUseLastModified() ? resource.lastModified() : -1);
+		if ((eTag != null || isUseLastModified()) &&
+				new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
 			logger.trace("Resource not modified");
 			return;
 		}
@@ -536,6 +590,10 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		// Content phase
 		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
+			long length = resource.contentLength();
+			if (length > 0 && sendfile(request, response, resource, 0, length)) {
+				return;
+			}
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
 			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
 		}
@@ -544,9 +602,20 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
 			try {
 				List<HttpRange> httpRanges = inputMessage.getHeaders().getRange();
+				List<ResourceRegion> regions = HttpRange.toResourceRegions(httpRanges, resource);
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-				this.resourceRegionHttpMessageConverter.write(
-						HttpRange.toResourceRegions(httpRanges, resource), mediaType, outputMessage);
+				if (regions.size() == 1) {
+					ResourceRegion region = regions.get(0);
+					long length = resource.contentLength();
+					long start = region.getPosition();
+					long end = Math.min(start + region.getCount(), length);
+					if (sendfile(request, response, resource, start, end)) {
+						response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + (end - 1) + '/' + length);
+						response.setContentLengthLong(end - start);
+						return;
+					}
+				}
+				this.resourceRegionHttpMessageConverter.write(regions, mediaType, outputMessage);
 			}
 			catch (IllegalArgumentException ex) {
 				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + resource.contentLength());
@@ -555,6 +624,37 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Hand off the given range of the resource to the container's sendfile
+	 * support, if {@link #setUseSendfile enabled} and applicable.
+	 * @param start the first byte to send
+	 * @param end the end of the range (exclusive)
+	 * @return {@code true} if the content will be written by the container,
+	 * or {@code false} if it should be written by this handler
+	 */
+	private boolean sendfile(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, long start, long end) throws IOException {
+
+		if (!this.useSendfile || end - start < SENDFILE_MIN_SIZE ||
+				!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE)) ||
+				!HttpMethod.GET.matches(request.getMethod()) ||
+				response instanceof ServletResponseWrapper || !resource.isFile()) {
+			return false;
+		}
+		File file = resource.getFile();
+		if (response.getContentType() == null) {
+			response.setContentType(MediaTypeFactory.getMediaType(resource)
+					.orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+		}
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Using sendfile for " + file + " [" + start + "-" + end + "]");
+		}
+		return true;
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
@@ -49,6 +49,20 @@ public class ProducesRequestConditionTests {
 		assertThat(condition.getMatchingCondition(request)).isNotNull();
 	}
 
+	@Test
+	public void matchSameAcceptHeader() {
+		ProducesRequestCondition condition = new ProducesRequestCondition("text/plain", "application/json");
+
+		ProducesRequestCondition result1 = condition.getMatchingCondition(createRequest("application/json"));
+		ProducesRequestCondition result2 = condition.getMatchingCondition(createRequest("application/json"));
+		ProducesRequestCondition result3 = condition.getMatchingCondition(createRequest("text/plain"));
+
+		assertConditions(result1, "application/json");
+		assertThat(result2).isSameAs(result1);
+		assertConditions(result3, "text/plain");
+		assertThat(condition.getMatchingCondition(createRequest("application/xml"))).isNull();
+	}
+
 	@Test
 	public void matchNegated() {
 		ProducesRequestCondition condition = new ProducesRequestCondition("!text/plain");
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+import org.springframework.web.testfixture.servlet.MockServletContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ContentCachingResourceResolver}.
+ */
+public class ContentCachingResourceResolverTests {
+
+	private ContentCachingResourceResolver resolver;
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() {
+		this.resolver = new ContentCachingResourceResolver();
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.resolver);
+		resolvers.add(new PathResourceResolver());
+		this.chain = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolveResourceContent() throws Exception {
+		Resource original = new ClassPathResource("test/bar.css", getClass());
+		Resource resolved = this.chain.resolveResource(null, "bar.css", this.locations);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("bar.css");
+		assertThat(resolved.contentLength()).isEqualTo(original.contentLength());
+		assertThat(resolved.lastModified()).isEqualTo(original.lastModified());
+		assertThat(StreamUtils.copyToByteArray(resolved.getInputStream()))
+				.isEqualTo(StreamUtils.copyToByteArray(original.getInputStream()));
+		assertThat(((HttpResource) resolved).getResponseHeaders().getETag()).startsWith("\"").endsWith("\"");
+		assertThat(this.resolver.getCacheSize()).isEqualTo(original.contentLength());
+
+		assertThat(this.chain.resolveResource(null, "bar.css", this.locations)).isSameAs(resolved);
+	}
+
+	@Test
+	public void resolveResourceNoMatch() {
+		assertThat(this.chain.resolveResource(null, "invalid.css", this.locations)).isNull();
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void resolveCompressedResource() throws Exception {
+		byte[] content = new byte[4096];
+		Arrays.fill(content, (byte) 'a');
+		ResourceResolverChain chain = initChain(new NamedByteArrayResource(content, "large.css"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "");
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resolved = chain.resolveResource(request, "large.css", this.locations);
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(resolved.contentLength()).isLessThan(content.length);
+		try (InputStream in = new GZIPInputStream(resolved.getInputStream())) {
+			assertThat(FileCopyUtils.copyToByteArray(in)).isEqualTo(content);
+		}
+
+		Resource identity = chain.resolveResource(null, "large.css", this.locations);
+		assertThat(((HttpResource) identity).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(identity.contentLength()).isEqualTo(content.length);
+		assertThat(((HttpResource) identity).getResponseHeaders().getETag()).isNotEqualTo(headers.getETag());
+	}
+
+	@Test
+	public void resolveResourceLargerThanMaxResourceSize() {
+		Resource resource = new NamedByteArrayResource(new byte[4096], "large.css");
+		ResourceResolverChain chain = initChain(resource);
+		this.resolver.setMaxResourceSize(1024);
+
+		assertThat(chain.resolveResource(null, "large.css", this.locations)).isSameAs(resource);
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		this.resolver.setMaxCacheSize(20);
+		Resource foo = this.chain.resolveResource(null, "foo.txt", this.locations);
+		Resource bar = this.chain.resolveResource(null, "bar.css", this.locations);
+
+		assertThat(this.resolver.getCacheSize()).isLessThanOrEqualTo(20);
+		assertThat(this.chain.resolveResource(null, "foo.txt", this.locations)).isNotSameAs(foo);
+		assertThat(bar).isNotNull();
+	}
+
+	@Test
+	public void notModifiedWithETag() throws Exception {
+		ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+		handler.setLocations(this.locations);
+		handler.setResourceResolvers(Arrays.asList(this.resolver, new PathResourceResolver()));
+		handler.setServletContext(new MockServletContext());
+		handler.setUseLastModified(false);
+		handler.afterPropertiesSet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "");
+		request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		handler.handleRequest(request, response);
+
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).isNotNull();
+		assertThat(response.getContentAsString()).isEqualTo("h1 { color:red; }");
+
+		request = new MockHttpServletRequest("GET", "");
+		request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+		response = new MockHttpServletResponse();
+		handler.handleRequest(request, response);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+
+	private ResourceResolverChain initChain(Resource resource) {
+		ResourceResolver fixedResolver = new AbstractResourceResolver() {
+			@Override
+			protected Resource resolveResourceInternal(HttpServletRequest request,
+					String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+				return resource;
+			}
+			@Override
+			protected String resolveUrlPathInternal(String resourceUrlPath,
+					List<? extends Resource> locations, ResourceResolverChain chain) {
+				return resourceUrlPath;
+			}
+		};
+		return new DefaultResourceResolverChain(Arrays.asList(this.resolver, fixedResolver));
+	}
+
+
+	private static class NamedByteArrayResource extends ByteArrayResource {
+
+		private final String filename;
+
+		NamedByteArrayResource(byte[] content, String filename) {
+			super(content);
+			this.filename = filename;
+		}
+
+		@Override
+		public String getFilename() {
+			return this.filename;
+		}
+
+		@Override
+		public long lastModified() {
+			return 0;
+		}
+	}
+
+}
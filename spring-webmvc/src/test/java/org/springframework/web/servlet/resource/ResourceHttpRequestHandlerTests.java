@@ -16,7 +16,10 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -27,8 +30,10 @@ import javax.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpMethod;
@@ -723,6 +728,62 @@ public class ResourceHttpRequestHandlerTests {
 		assertThat(this.response.getContentAsString()).isEqualTo("h1 { color:red; }");
 	}
 
+	@Test
+	public void sendfile(@TempDir Path tempDir) throws Exception {
+		File file = initLargeFileLocation(tempDir);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "large.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getStatus()).isEqualTo(200);
+		assertThat(this.response.getContentType()).isEqualTo("text/plain");
+		assertThat(this.response.getContentLengthLong()).isEqualTo(file.length());
+		assertThat(this.response.getContentAsByteArray()).isEmpty();
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.getAbsolutePath());
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(file.length());
+	}
+
+	@Test
+	public void sendfileWithByteRange(@TempDir Path tempDir) throws Exception {
+		File file = initLargeFileLocation(tempDir);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.addHeader("Range", "bytes=1000-");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "large.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		long length = file.length();
+		assertThat(this.response.getStatus()).isEqualTo(206);
+		assertThat(this.response.getContentLengthLong()).isEqualTo(length - 1000);
+		assertThat(this.response.getHeader("Content-Range")).isEqualTo("bytes 1000-" + (length - 1) + "/" + length);
+		assertThat(this.response.getContentAsByteArray()).isEmpty();
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(1000L);
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(length);
+	}
+
+	@Test
+	public void sendfileNotSupported(@TempDir Path tempDir) throws Exception {
+		File file = initLargeFileLocation(tempDir);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "large.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getContentAsByteArray()).hasSize((int) file.length());
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+	}
+
+	private File initLargeFileLocation(Path tempDir) throws Exception {
+		Path path = tempDir.resolve("large.txt");
+		byte[] content = new byte[100 * 1024];
+		Arrays.fill(content, (byte) 'a');
+		Files.write(path, content);
+		this.handler = new ResourceHttpRequestHandler();
+		this.handler.setLocations(Collections.singletonList(new FileSystemResource(tempDir.toString() + "/")));
+		this.handler.setServletContext(new TestServletContext());
+		this.handler.setUseSendfile(true);
+		this.handler.afterPropertiesSet();
+		return path.toFile();
+	}
+
 
 	private long resourceLastModified(String resourceName) throws IOException {
 		return new ClassPathResource(resourceName, getClass()).getFile().lastModified();